@@ -43,6 +43,12 @@ public enum SuccessStatus implements BaseCode {
     AI_RESPONSE_OK(HttpStatus.OK, "AI_2000", "AI 응답 처리가 완료되었습니다."),
     AI_RESPONSE_APPROVED(HttpStatus.OK, "AI_2001", "AI 응답이 승인되고 전송되었습니다."),
     AI_SCHEDULER_TRIGGERED(HttpStatus.OK, "AI_2002", "AI 스케줄러가 실행되었습니다."),
+    AI_RESPONSE_REGENERATION_REQUESTED(HttpStatus.OK, "AI_2003", "AI 응답 재생성이 요청되었습니다."),
+    AI_RESPONSE_BULK_REVIEWED(HttpStatus.OK, "AI_2004", "AI 응답 일괄 검수가 처리되었습니다."),
+    
+    // 학생 전환 관련
+    TRANSFER_JOB_ACCEPTED(HttpStatus.ACCEPTED, "TRANSFER_2020", "학생 전환 작업이 접수되었습니다."),
+    TRANSFER_JOB_OK(HttpStatus.OK, "TRANSFER_2000", "학생 전환 작업 상태가 조회되었습니다."),
     
     // 카카오 서비스 관련
     KAKAO_OK(HttpStatus.OK, "KAKAO_2000", "카카오 서비스 요청이 완료되었습니다.");
@@ -0,0 +1,41 @@
+package Capstone.CSmart.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 외부 API별 적응형 동시 호출 제한 설정 (adaptive-limit.instances.{circuitBreakerName})
+ * 설정이 없는 인스턴스는 기본값을 사용한다.
+ */
+@Component
+@ConfigurationProperties(prefix = "adaptive-limit")
+@Getter
+@Setter
+public class AdaptiveLimitProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Instance> instances = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Instance {
+        private int initialLimit = 10;
+        private int minLimit = 1;
+        private int maxLimit = 50;
+        private double backoffRatio = 0.9;       // 과부하 시 한도 감소 비율
+        private double latencyTolerance = 2.0;   // 기준선 대비 이 배수보다 느리면 과부하로 판단
+        private Duration maxWait = Duration.ofMillis(500);
+        private int maxQueue = 10;
+    }
+
+    public Instance getInstance(String name) {
+        return instances.getOrDefault(name, new Instance());
+    }
+}
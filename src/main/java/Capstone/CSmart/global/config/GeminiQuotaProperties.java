@@ -0,0 +1,43 @@
+package Capstone.CSmart.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gemini API 클라이언트 측 할당량 설정 (gemini.quota.instances.{quotaName})
+ * 설정이 없는 할당량은 기본값을 사용한다.
+ */
+@Component
+@ConfigurationProperties(prefix = "gemini.quota")
+@Getter
+@Setter
+public class GeminiQuotaProperties {
+
+    private boolean enabled = true;
+
+    private Duration maxWait = Duration.ofSeconds(60);           // 할당량 대기 최대 시간 (초과 시 즉시 실패)
+    private int maxAttempts = 3;                                 // 429/5xx/네트워크 오류 포함 최대 시도 횟수
+    private Duration retryBaseDelay = Duration.ofSeconds(1);     // 5xx/네트워크 오류 재시도 백오프 (시도마다 2배)
+    private Duration minRetryAfter = Duration.ofSeconds(5);      // 429 재시도 대기 하한
+    private Duration maxRetryAfter = Duration.ofSeconds(60);     // 429 재시도 대기 상한
+    private Duration defaultRetryAfter = Duration.ofSeconds(45); // 429 응답에 대기 시간이 없을 때
+
+    private Map<String, Instance> instances = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Instance {
+        private int requestsPerMinute = 1000;
+        private int tokensPerMinute = 1_000_000;
+    }
+
+    public Instance getInstance(String name) {
+        return instances.getOrDefault(name, new Instance());
+    }
+}
@@ -0,0 +1,50 @@
+package Capstone.CSmart.global.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 외부 API(Gemini, LangGraph, 카카오 웹훅 서버) 호출용 공용 HTTP 클라이언트 설정
+ * - JDK HttpClient: 기본 HTTP/1.1, outbound-http.http2-hosts에 지정한 호스트만 요청별로 HTTP/2 사용
+ *   (평문 http인 LangGraph/카카오 웹훅 서버에 h2c 업그레이드를 시도하지 않음)
+ * - 호스트별 커넥션 풀 + keep-alive 재사용 (요청마다 새 커넥션을 만들지 않음)
+ * - 논블로킹 I/O: 호출당 플랫폼 스레드를 점유하지 않음
+ * - 커넥션 풀 크기/유휴 시간은 JVM 전역 설정이라 여기서 바꾸지 않고 JVM 옵션으로 지정
+ *   (예: -Djdk.httpclient.keepalive.timeout=60 -Djdk.httpclient.connectionPoolSize=0, 첫 HttpClient 생성 전에 읽힘)
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${outbound-http.connect-timeout:3s}")
+    private Duration connectTimeout;
+
+    @Value("${outbound-http.executor-threads:8}")
+    private int executorThreads;
+
+    /**
+     * 응답 처리(콜백, 본문 파싱)용 스레드 풀
+     * 소켓 I/O 자체는 HttpClient 내부 selector 스레드가 처리한다
+     * (TaskExecutor 타입으로 등록하지 않음: @Async 기본 실행기 선택에 영향을 주지 않도록)
+     */
+    @Bean(name = "outboundHttpExecutor", destroyMethod = "shutdown")
+    public ExecutorService outboundHttpExecutor() {
+        return Executors.newFixedThreadPool(executorThreads, new CustomizableThreadFactory("OutboundHttp-"));
+    }
+
+    @Bean
+    public HttpClient sharedHttpClient(ExecutorService outboundHttpExecutor) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(outboundHttpExecutor)
+                .build();
+    }
+}
@@ -8,6 +8,11 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
+/**
+ * @Scheduled 작업은 Spring Boot 기본 스케줄러에서 실행 (스레드 수: spring.task.scheduling.pool.size)
+ * 작업마다 스레드를 따로 쓰도록 풀 크기를 작업 수 이상으로 유지하여 오래 걸리는 AI 생성 루프가
+ * 파티션 하트비트나 아웃박스 폴링을 지연시키지 않게 함
+ */
 @Configuration
 @EnableScheduling
 @EnableAsync
@@ -1,6 +1,7 @@
 package Capstone.CSmart.global.domain.entity;
 
 import Capstone.CSmart.global.domain.common.BaseEntity;
+import Capstone.CSmart.global.domain.enums.AiGenerationSource;
 import Capstone.CSmart.global.domain.enums.AiResponseStatus;
 import jakarta.persistence.*;
 import lombok.*;
@@ -15,8 +16,10 @@ import java.time.OffsetDateTime;
 @AllArgsConstructor
 @Table(name = "ai_responses", indexes = {
         @Index(name = "idx_ai_responses_status", columnList = "status"),
-        @Index(name = "idx_ai_responses_teacher", columnList = "teacherId"),
-        @Index(name = "idx_ai_responses_message", columnList = "messageId")
+        @Index(name = "idx_ai_responses_teacher_status_generated", columnList = "teacherId, status, generatedAt"),
+        @Index(name = "idx_ai_responses_status_generated", columnList = "status, generatedAt"),
+        @Index(name = "idx_ai_responses_message", columnList = "messageId"),
+        @Index(name = "uk_ai_responses_active_message", columnList = "activeMessageId", unique = true)
 })
 public class AiResponse extends BaseEntity {
 
@@ -27,6 +30,9 @@ public class AiResponse extends BaseEntity {
     @Column(nullable = false)
     private Long messageId; // FK to Message
 
+    // 메시지별 활성 응답 표시: 활성 응답만 messageId를 갖고, 거부/대체된 응답과 활성이 아닌 과거 전송 응답은 null (유니크, NULL은 중복 허용)
+    private Long activeMessageId;
+
     @Column(nullable = false)
     private Long studentId; // FK to Student
 
@@ -39,6 +45,14 @@ public class AiResponse extends BaseEntity {
     @Column(length = 20)
     private AiResponseStatus status; // 응답 상태
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private AiGenerationSource generationSource; // 응답 생성 경로 (캐시, LangGraph, 장애 대체 등)
+
+    private Boolean degraded; // LangGraph 장애로 대체 경로에서 생성된 초안 여부 (검수 시 주의)
+
+    private Long fencingToken; // 생성 시 보유한 메시지 락의 펜싱 토큰 (락의 현재 토큰이 아니거나 메시지에 기록된 토큰보다 크지 않으면 저장 거부)
+
     private Long reviewedByTeacherId; // 검수한 선생님 ID
 
     private Long reviewedByAdminId; // 검수한 관리자 ID
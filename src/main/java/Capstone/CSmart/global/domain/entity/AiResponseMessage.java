@@ -0,0 +1,44 @@
+package Capstone.CSmart.global.domain.entity;
+
+import Capstone.CSmart.global.domain.common.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * AI 응답 ↔ 학생 메시지 연결
+ * 짧은 시간 안에 연달아 온 메시지 묶음(버스트)을 하나의 AI 응답으로 생성할 때,
+ * 응답이 다루는 모든 메시지를 기록한다. (AiResponse.messageId는 묶음의 마지막 메시지)
+ * 메시지 하나는 하나의 응답에만 포함될 수 있음 (messageId 유니크)
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ai_response_messages", indexes = {
+        @Index(name = "uk_ai_response_messages_message", columnList = "messageId", unique = true),
+        @Index(name = "idx_ai_response_messages_response", columnList = "responseId")
+})
+public class AiResponseMessage extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long responseId; // FK to AiResponse
+
+    @Column(nullable = false)
+    private Long messageId; // FK to Message
+}
@@ -1,8 +1,11 @@
 package Capstone.CSmart.global.domain.entity;
 
 import Capstone.CSmart.global.domain.common.BaseEntity;
+import Capstone.CSmart.global.domain.enums.MessageKind;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -24,7 +27,8 @@ import java.time.OffsetDateTime;
 @Entity
 @Table(name = "messages", indexes = {
         @Index(name = "idx_messages_student", columnList = "studentId"),
-        @Index(name = "idx_messages_sent_at", columnList = "sentAt")
+        @Index(name = "idx_messages_sent_at", columnList = "sentAt"),
+        @Index(name = "idx_messages_sender_sent_at_kind", columnList = "senderType, sentAt, messageKind")
 })
 public class Message extends BaseEntity {
 
@@ -45,6 +49,12 @@ public class Message extends BaseEntity {
     @Column(length = 20)
     private String senderType; // student/teacher/system/ai
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private MessageKind messageKind; // 저장 시 분류 (상담폼은 AI 응답 생성 대상에서 제외)
+
+    private Long fencingToken; // 이 메시지의 AI 응답 저장에 사용된 가장 큰 메시지 락 펜싱 토큰 (더 작은 토큰의 저장 거부)
+
     private OffsetDateTime sentAt;
 }
 
@@ -0,0 +1,51 @@
+package Capstone.CSmart.global.domain.entity;
+
+import Capstone.CSmart.global.domain.common.BaseEntity;
+import Capstone.CSmart.global.domain.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 트랜잭션 아웃박스 이벤트
+ * 상태 변경과 같은 트랜잭션에 기록하고, OutboxProcessor가 커밋된 이벤트를 모아서 후속 처리한다.
+ * (예: 응답 승인 후 캐시 신뢰도/답변 갱신을 요청 경로 밖에서 처리)
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_status_next_attempt", columnList = "status, nextAttemptAt")
+})
+public class OutboxEvent extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String eventType; // 이벤트 종류 (OutboxEventHandler.eventType()으로 처리기 선택)
+
+    private Long aggregateId; // 대상 엔티티 ID (예: responseId)
+
+    @Column(columnDefinition = "TEXT")
+    private String payload; // 이벤트 내용 (JSON)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    private int attempts; // 처리 시도 횟수
+
+    @Column(nullable = false)
+    private OffsetDateTime nextAttemptAt; // 이 시각 이후 처리 (재시도 백오프)
+
+    @Column(length = 500)
+    private String lastError; // 마지막 실패 사유
+
+    private OffsetDateTime processedAt; // 처리 완료 시각
+}
@@ -1,6 +1,7 @@
 package Capstone.CSmart.global.domain.entity;
 
 import Capstone.CSmart.global.domain.common.BaseEntity;
+import Capstone.CSmart.global.domain.enums.CacheNamespace;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -10,7 +11,8 @@ import java.time.OffsetDateTime;
 @Table(name = "semantic_cache", indexes = {
     @Index(name = "idx_semantic_cache_created_at", columnList = "createdAt"),
     @Index(name = "idx_semantic_cache_hit_count", columnList = "hitCount"),
-    @Index(name = "idx_semantic_cache_confidence_score", columnList = "confidenceScore")
+    @Index(name = "idx_semantic_cache_confidence_score", columnList = "confidenceScore"),
+    @Index(name = "idx_semantic_cache_namespace_confidence", columnList = "namespace, confidenceScore")
 })
 @Getter
 @Setter
@@ -24,6 +26,12 @@ public class SemanticCache extends BaseEntity {
     @Column(name = "cache_id")
     private Long cacheId;
 
+    // 캐시 구역: Transfer 전 Gemini / Transfer 후 LangGraph 응답을 따로 검색 (기존 행은 LANGGRAPH)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "namespace", columnDefinition = "varchar(20) default 'LANGGRAPH'")
+    @Builder.Default
+    private CacheNamespace namespace = CacheNamespace.LANGGRAPH;
+
     @Column(nullable = false, columnDefinition = "TEXT", name = "question")
     private String question;
 
@@ -0,0 +1,9 @@
+package Capstone.CSmart.global.domain.enums;
+
+public enum AiGenerationSource {
+    LANGGRAPH,        // LangGraph 정상 생성
+    SEMANTIC_CACHE,   // 시멘틱 캐시 히트
+    GEMINI,           // Transfer 전 Gemini 상담 응답
+    RELAXED_CACHE,    // LangGraph 장애 시: 완화된 기준의 캐시 매칭 (저신뢰)
+    GEMINI_FALLBACK   // LangGraph 장애 시: Gemini 대체 초안
+}
@@ -4,7 +4,8 @@ public enum AiResponseStatus {
     PENDING_REVIEW,  // 검수 대기
     APPROVED,        // 승인됨 (전송 준비)
     REJECTED,        // 거부됨
-    SENT            // 전송 완료
+    SENT,           // 전송 완료
+    SUPERSEDED      // 같은 메시지의 다른 응답으로 대체됨 (중복 응답 압축 시 보관 처리)
 }
 
 
@@ -0,0 +1,13 @@
+package Capstone.CSmart.global.domain.enums;
+
+public enum CacheNamespace {
+    LANGGRAPH,   // Transfer 후 LangGraph 응답 캐시
+    GEMINI;      // Transfer 전 Gemini 상담 응답 캐시
+
+    /**
+     * 응답 생성 경로에 해당하는 캐시 구역 (Gemini 상담 응답만 GEMINI, 나머지는 LANGGRAPH)
+     */
+    public static CacheNamespace of(AiGenerationSource source) {
+        return source == AiGenerationSource.GEMINI ? GEMINI : LANGGRAPH;
+    }
+}
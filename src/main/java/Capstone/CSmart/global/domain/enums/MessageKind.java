@@ -0,0 +1,6 @@
+package Capstone.CSmart.global.domain.enums;
+
+public enum MessageKind {
+    QUESTION,           // 일반 질문/대화 (AI 응답 생성 대상)
+    CONSULTATION_FORM   // 상담폼 (긴 메시지, 번호 목록 등, AI 응답 생성 안 함)
+}
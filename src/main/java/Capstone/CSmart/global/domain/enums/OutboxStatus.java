@@ -0,0 +1,7 @@
+package Capstone.CSmart.global.domain.enums;
+
+public enum OutboxStatus {
+    PENDING,    // 처리 대기 (재시도 대기 포함)
+    PROCESSED,  // 처리 완료
+    FAILED      // 최대 시도 횟수 초과
+}
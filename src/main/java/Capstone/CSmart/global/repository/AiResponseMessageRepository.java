@@ -0,0 +1,19 @@
+package Capstone.CSmart.global.repository;
+
+import Capstone.CSmart.global.domain.entity.AiResponseMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AiResponseMessageRepository extends JpaRepository<AiResponseMessage, Long> {
+    Optional<AiResponseMessage> findByMessageId(Long messageId);
+    List<AiResponseMessage> findByResponseIdOrderByMessageIdAsc(Long responseId);
+    List<AiResponseMessage> findByResponseIdIn(Collection<Long> responseIds);
+    // 이미 AI 응답에 포함된 메시지 ID 조회
+    @Query("SELECT arm.messageId FROM AiResponseMessage arm WHERE arm.messageId IN :messageIds")
+    List<Long> findCoveredMessageIds(@Param("messageIds") Collection<Long> messageIds);
+}
@@ -3,9 +3,13 @@ package Capstone.CSmart.global.repository;
 import Capstone.CSmart.global.domain.entity.AiResponse;
 import Capstone.CSmart.global.domain.enums.AiResponseStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,17 +17,73 @@ public interface AiResponseRepository extends JpaRepository<AiResponse, Long> {
     List<AiResponse> findByStatusOrderByGeneratedAtDesc(AiResponseStatus status);
     Page<AiResponse> findByStatusOrderByGeneratedAtDesc(AiResponseStatus status, Pageable pageable);
     List<AiResponse> findByTeacherIdAndStatus(Long teacherId, AiResponseStatus status);
+    long countByTeacherIdAndStatus(Long teacherId, AiResponseStatus status);
+    long countByStatus(AiResponseStatus status);
     List<AiResponse> findByStudentIdOrderByGeneratedAtDesc(Long studentId);
-    Optional<AiResponse> findByMessageId(Long messageId);
-    // 가장 최근 생성된 응답만 가져오기 (중복 방지)
-    Optional<AiResponse> findTopByMessageIdOrderByGeneratedAtDesc(Long messageId);
-    // 같은 messageId를 가진 모든 AiResponse 조회
-    List<AiResponse> findAllByMessageId(Long messageId);
-    // 같은 messageId와 상태를 가진 모든 AiResponse 조회
-    List<AiResponse> findAllByMessageIdAndStatus(Long messageId, AiResponseStatus status);
+    // 메시지의 활성 응답 (거부/대체되지 않은 응답, uk_ai_responses_active_message로 최대 1건)
+    Optional<AiResponse> findByActiveMessageId(Long activeMessageId);
+    // 활성 응답이 있는 메시지 ID (스케줄러가 메시지마다 조회하지 않도록 한 번에 확인)
+    @Query("SELECT a.activeMessageId FROM AiResponse a WHERE a.activeMessageId IN :messageIds")
+    List<Long> findActiveMessageIdsIn(@Param("messageIds") Collection<Long> messageIds);
     Page<AiResponse> findByTeacherIdAndStatusOrderByGeneratedAtDesc(Long teacherId, AiResponseStatus status, Pageable pageable);
     // 선생님별 AI 응답 조회 (모든 상태)
     Page<AiResponse> findByTeacherIdOrderByGeneratedAtDesc(Long teacherId, Pageable pageable);
+
+    // 검수 대기열: 메시지별 활성 응답만, (generated_at, response_id) 기준 키셋 페이지네이션
+    // 메시지당 활성 응답은 하나뿐이므로 idx_ai_responses_teacher_status_generated 범위를 그대로 읽음
+    @Query(value = """
+            SELECT a.* FROM ai_responses a
+            WHERE a.teacher_id = :teacherId AND a.status = :status
+              AND a.active_message_id IS NOT NULL
+              AND (a.generated_at < :cursorGeneratedAt
+                   OR (a.generated_at = :cursorGeneratedAt AND a.response_id < :cursorResponseId))
+            ORDER BY a.generated_at DESC, a.response_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AiResponse> findLatestPerMessageForTeacher(@Param("teacherId") Long teacherId,
+                                                    @Param("status") String status,
+                                                    @Param("cursorGeneratedAt") OffsetDateTime cursorGeneratedAt,
+                                                    @Param("cursorResponseId") Long cursorResponseId,
+                                                    @Param("limit") int limit);
+
+    // 전체 선생님 대상 검수 대기열 (관리자 화면)
+    @Query(value = """
+            SELECT a.* FROM ai_responses a
+            WHERE a.status = :status
+              AND a.active_message_id IS NOT NULL
+              AND (a.generated_at < :cursorGeneratedAt
+                   OR (a.generated_at = :cursorGeneratedAt AND a.response_id < :cursorResponseId))
+            ORDER BY a.generated_at DESC, a.response_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AiResponse> findLatestPerMessage(@Param("status") String status,
+                                          @Param("cursorGeneratedAt") OffsetDateTime cursorGeneratedAt,
+                                          @Param("cursorResponseId") Long cursorResponseId,
+                                          @Param("limit") int limit);
+
+    // 압축 대상 메시지: 활성 표시 없는 검수 대기/승인 응답이 있거나, 전송 응답이 있는데 활성 응답이 전송 응답이 아닌 메시지
+    // (컬럼 추가 이전 행, 중복 행; 활성이 아닌 전송 응답은 SENT로 남으므로 활성 전송 응답이 있으면 대상 아님)
+    @Query(value = """
+            SELECT DISTINCT a.message_id FROM ai_responses a
+            WHERE a.active_message_id IS NULL
+              AND (a.status IN ('PENDING_REVIEW', 'APPROVED')
+                   OR (a.status = 'SENT' AND NOT EXISTS (
+                           SELECT 1 FROM ai_responses b
+                           WHERE b.active_message_id = a.message_id AND b.status = 'SENT')))
+            ORDER BY a.message_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findMessageIdsToCompact(@Param("limit") int limit);
+
+    // 압축할 메시지들의 거부/대체되지 않은 응답을 잠금 (인스턴스 간 같은 순서로 잠가 교착 방지)
+    @Query(value = """
+            SELECT a.* FROM ai_responses a
+            WHERE a.message_id IN (:messageIds)
+              AND a.status IN ('PENDING_REVIEW', 'APPROVED', 'SENT')
+            ORDER BY a.message_id, a.response_id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<AiResponse> lockLiveByMessageIds(@Param("messageIds") Collection<Long> messageIds);
 }
 
 
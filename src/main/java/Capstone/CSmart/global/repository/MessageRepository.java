@@ -1,17 +1,36 @@
 package Capstone.CSmart.global.repository;
 
 import Capstone.CSmart.global.domain.entity.Message;
+import Capstone.CSmart.global.domain.enums.MessageKind;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
+    // AI 스케줄러: 워터마크 이후 메시지 중 제외할 종류(상담폼)를 뺀 메시지 조회 (종류는 저장 시 또는 MessageKindBackfill이 채움)
+    // 이 노드가 임대한 파티션(studentId mod partitionCount)에 속하는 학생의 메시지만 조회
+    @Query("SELECT m FROM Message m WHERE m.senderType = :senderType AND m.sentAt > :since " +
+           "AND m.messageKind <> :excludedKind " +
+           "AND MOD(m.studentId, :partitionCount) IN :partitions ORDER BY m.sentAt ASC")
+    List<Message> findInboundMessagesAfterInPartitions(@Param("senderType") String senderType,
+                                                       @Param("since") OffsetDateTime since,
+                                                       @Param("excludedKind") MessageKind excludedKind,
+                                                       @Param("partitionCount") int partitionCount,
+                                                       @Param("partitions") Collection<Integer> partitions);
+    // messageKind 컬럼 추가 이전 메시지 (종류 채우기용)
+    List<Message> findByMessageKindIsNullOrderByMessageIdAsc(Pageable pageable);
     List<Message> findByStudentIdAndSentAtAfterAndSenderType(Long studentId, OffsetDateTime since, String senderType);
     List<Message> findByStudentIdAndSenderTypeOrderBySentAtDesc(Long studentId, String senderType, Pageable pageable);
     List<Message> findByStudentIdOrderBySentAtDesc(Long studentId, Pageable pageable);
+    // 학생 정보 증분 추출: 마지막으로 반영한 메시지 이후 메시지 조회
+    List<Message> findByStudentIdAndMessageIdGreaterThanOrderByMessageIdDesc(Long studentId, Long messageId, Pageable pageable);
     long countByStudentId(Long studentId);
     long countByStudentIdAndSenderType(Long studentId, String senderType);
     
@@ -20,6 +39,12 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     
     // 선생님이 배정된 학생의 메시지 조회 (teacherId가 일치)
     List<Message> findByTeacherIdOrderBySentAtDesc(Long teacherId, Pageable pageable);
+
+    // AI 응답 저장 펜싱: 기록된 토큰보다 클 때만 올림 (커밋까지 메시지 행 잠금, 0이면 더 새 토큰으로 이미 저장됨)
+    @Modifying
+    @Query("UPDATE Message m SET m.fencingToken = :token " +
+           "WHERE m.messageId = :messageId AND (m.fencingToken IS NULL OR m.fencingToken < :token)")
+    int advanceFencingToken(@Param("messageId") Long messageId, @Param("token") Long token);
 }
 
 
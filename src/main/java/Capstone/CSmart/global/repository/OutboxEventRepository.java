@@ -0,0 +1,35 @@
+package Capstone.CSmart.global.repository;
+
+import Capstone.CSmart.global.domain.entity.OutboxEvent;
+import Capstone.CSmart.global.domain.enums.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 처리할 차례가 된 이벤트 (오래된 것부터)
+    List<OutboxEvent> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            OutboxStatus status, OffsetDateTime now, Pageable pageable);
+
+    // 처리 대상 이벤트 잠금 (다른 인스턴스가 잡고 있는 행은 건너뜀, MySQL 8 SKIP LOCKED)
+    @Query(value = "SELECT * FROM outbox_events WHERE id IN (:ids) AND status = 'PENDING' " +
+                   "ORDER BY id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockPendingByIds(@Param("ids") Collection<Long> ids);
+
+    // 처리 전 준비 결과 저장 (아직 처리되지 않은 이벤트만)
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.payload = :payload WHERE e.id = :id AND e.status = :status")
+    int updatePayload(@Param("id") Long id, @Param("payload") String payload, @Param("status") OutboxStatus status);
+
+    // 보관 기간이 지난 처리 완료 이벤트 삭제
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteByStatusAndProcessedAtBefore(@Param("status") OutboxStatus status, @Param("before") OffsetDateTime before);
+}
@@ -1,6 +1,7 @@
 package Capstone.CSmart.global.repository;
 
 import Capstone.CSmart.global.domain.entity.SemanticCache;
+import Capstone.CSmart.global.domain.enums.CacheNamespace;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +25,15 @@ public interface SemanticCacheRepository extends JpaRepository<SemanticCache, Lo
             @Param("minConfidence") Double minConfidence, 
             Pageable pageable);
 
+    /**
+     * 캐시 구역 안에서 신뢰도 점수가 임계값 이상인 캐시 조회
+     */
+    @Query("SELECT sc FROM SemanticCache sc WHERE sc.namespace = :namespace AND sc.confidenceScore >= :minConfidence ORDER BY sc.confidenceScore DESC, sc.hitCount DESC")
+    List<SemanticCache> findByNamespaceAndConfidenceScoreGreaterThanEqual(
+            @Param("namespace") CacheNamespace namespace,
+            @Param("minConfidence") Double minConfidence,
+            Pageable pageable);
+
     /**
      * 특정 기간 이후 생성된 캐시 조회
      */
@@ -42,6 +53,16 @@ public interface SemanticCacheRepository extends JpaRepository<SemanticCache, Lo
      */
     Optional<SemanticCache> findByOriginalResponseId(Long originalResponseId);
 
+    /**
+     * 여러 원본 응답 ID로 캐시 일괄 조회
+     */
+    List<SemanticCache> findAllByOriginalResponseIdIn(Collection<Long> originalResponseIds);
+
+    /**
+     * 질문이 같은 캐시 일괄 조회 (구역이 달라도 포함, 적재 중복 확인용)
+     */
+    List<SemanticCache> findAllByQuestionIn(Collection<String> questions);
+
     /**
      * 캐시 키로 캐시 조회
      */
@@ -57,6 +78,16 @@ public interface SemanticCacheRepository extends JpaRepository<SemanticCache, Lo
            "FROM SemanticCache sc")
     Object[] getCacheStatistics();
 
+    /**
+     * 캐시 구역별 통계
+     */
+    @Query("SELECT " +
+           "COUNT(sc) as totalCount, " +
+           "SUM(sc.hitCount) as totalHits, " +
+           "AVG(sc.confidenceScore) as avgConfidence " +
+           "FROM SemanticCache sc WHERE sc.namespace = :namespace")
+    Object[] getCacheStatistics(@Param("namespace") CacheNamespace namespace);
+
     /**
      * 신뢰도 점수별 캐시 개수
      */
@@ -0,0 +1,12 @@
+package Capstone.CSmart.global.service.ai;
+
+/**
+ * LangGraph 장애로 응답도, 대체 초안도 만들지 못해 생성을 미룸
+ * 스케줄러는 이 예외를 실패 횟수에 포함하지 않고 백오프 후 다시 시도한다.
+ */
+public class AiGenerationDeferredException extends RuntimeException {
+
+    public AiGenerationDeferredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
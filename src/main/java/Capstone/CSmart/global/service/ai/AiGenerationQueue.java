@@ -0,0 +1,276 @@
+package Capstone.CSmart.global.service.ai;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * AI 응답 생성 작업 우선순위 큐
+ * - 우선순위: 선생님 재생성 요청 > 선생님 배정 학생(Transfer 후) > 일반 > 짧은 단답(ㅇㅋ, 네 등)
+ * - 에이징: 대기 시간이 길어질수록 점수가 올라가 낮은 우선순위 작업도 결국 처리됨 (기아 방지)
+ * - 같은 학생의 작업은 보낸 순서를 유지 (학생 단위로 정렬)
+ * - 워터마크: 이 시점 이전 메시지는 모두 처리 완료 (고정 30분 조회 대신 사용, 처리 못한 메시지를 버리지 않음)
+ *   스케줄러 파티션별로 따로 관리 (파티션을 처리하는 노드만 갱신)
+ * - 재시도 백오프: 실패/미룸 작업은 retry-base-delay × 2^(횟수-1) (최대 retry-max-delay) 이후에 다시 처리
+ * - 메트릭: ai.generation.queue.depth, ai.generation.queue.oldest_age_seconds
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AiGenerationQueue {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private static final String WATERMARK_KEY = "ai_scheduler_watermark";
+    private static final String REGENERATION_QUEUE_KEY = "ai_regeneration_queue";
+    private static final String ATTEMPTS_PREFIX = "ai_generation_attempts:";
+    private static final String DEFERRALS_PREFIX = "ai_generation_deferrals:";
+    private static final String RETRY_AT_PREFIX = "ai_generation_retry_at:";
+    private static final long ATTEMPTS_TTL_HOURS = 24;
+
+    // 대기 1분당 가산 점수
+    @Value("${ai.queue.aging-per-minute:10}")
+    private double agingPerMinute;
+
+    // 워터마크가 없을 때(최초 실행) 조회 범위
+    @Value("${ai.queue.initial-lookback:30m}")
+    private Duration initialLookback;
+
+    // 늦게 저장된 메시지를 놓치지 않도록 워터마크를 현재 시각보다 이만큼 뒤에 둠
+    @Value("${ai.queue.watermark-lag:2m}")
+    private Duration watermarkLag;
+
+    // 실패한 작업의 최대 시도 횟수 (초과 시 포기하고 워터마크 진행)
+    @Value("${ai.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    // 재시도 백오프 (실패/미룸 횟수마다 2배, 최대 retry-max-delay)
+    @Value("${ai.queue.retry-base-delay:30s}")
+    private Duration retryBaseDelay;
+
+    @Value("${ai.queue.retry-max-delay:10m}")
+    private Duration retryMaxDelay;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("ai.generation.queue.depth", depth, AtomicLong::get)
+                .description("처리 대기 중인 AI 응답 생성 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("ai.generation.queue.oldest_age_seconds", oldestAgeSeconds, AtomicLong::get)
+                .description("가장 오래 대기 중인 AI 응답 생성 작업의 대기 시간(초)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 작업 종류별 기본 점수
+     */
+    public enum Kind {
+        REGENERATION(300),   // 선생님 재생성 요청
+        TRANSFERRED(200),    // 선생님 배정 학생 (선생님이 답변 대기 중)
+        DEFAULT(100),
+        LOW_VALUE(50);       // 짧은 단답
+
+        private final int baseScore;
+
+        Kind(int baseScore) {
+            this.baseScore = baseScore;
+        }
+    }
+
+    /**
+     * 응답 생성 작업 단위
+     *
+     * @param messageIds 응답이 다룰 메시지 ID (보낸 순서)
+     * @param studentId 학생 ID
+     * @param enqueuedAt 대기 시작 시각 (첫 메시지 전송 시각 또는 재생성 요청 시각)
+     */
+    public record WorkItem(List<Long> messageIds, Long studentId, OffsetDateTime enqueuedAt, Kind kind) {
+        public Long anchorMessageId() {
+            return messageIds.get(messageIds.size() - 1);
+        }
+
+        public WorkItem withStudentId(Long studentId) {
+            return new WorkItem(messageIds, studentId, enqueuedAt, kind);
+        }
+    }
+
+    /**
+     * 작업 점수 = 기본 점수 + 대기 시간(분) × 에이징 가중치
+     */
+    public double priority(WorkItem item, OffsetDateTime now) {
+        double waitingMinutes = Math.max(0, Duration.between(item.enqueuedAt(), now).toMillis()) / 60_000.0;
+        return item.kind().baseScore + waitingMinutes * agingPerMinute;
+    }
+
+    /**
+     * 처리 순서 결정
+     * 학생 단위로 묶어 학생의 최고 점수로 정렬하고, 학생 내부는 보낸 순서를 유지한다.
+     * (같은 학생의 나중 메시지가 먼저 답변되지 않도록)
+     */
+    public List<WorkItem> order(List<WorkItem> items, OffsetDateTime now) {
+        Map<Long, List<WorkItem>> byStudent = new LinkedHashMap<>();
+        for (WorkItem item : items) {
+            byStudent.computeIfAbsent(item.studentId(), k -> new ArrayList<>()).add(item);
+        }
+
+        return byStudent.values().stream()
+                .sorted(Comparator.comparingDouble((List<WorkItem> group) -> group.stream()
+                        .mapToDouble(item -> priority(item, now))
+                        .max()
+                        .orElse(0)).reversed())
+                .flatMap(group -> group.stream().sorted(Comparator.comparing(item -> item.messageIds().get(0))))
+                .toList();
+    }
+
+    /**
+     * 파티션의 현재 워터마크 조회
+     * 없으면 파티션 도입 전의 전체 워터마크, 그것도 없으면 최초 조회 범위 적용
+     */
+    public OffsetDateTime getWatermark(int partition, OffsetDateTime now) {
+        String value = redisTemplate.opsForValue().get(WATERMARK_KEY + ":" + partition);
+        if (value == null) {
+            value = redisTemplate.opsForValue().get(WATERMARK_KEY);
+        }
+        if (value == null) {
+            return now.minus(initialLookback);
+        }
+        return OffsetDateTime.parse(value);
+    }
+
+    /**
+     * 파티션 워터마크 갱신 (현재 시각 - lag 보다 앞으로 가지 않음)
+     */
+    public void advanceWatermark(int partition, OffsetDateTime watermark, OffsetDateTime now) {
+        OffsetDateTime limit = now.minus(watermarkLag);
+        OffsetDateTime next = watermark.isAfter(limit) ? limit : watermark;
+        redisTemplate.opsForValue().set(WATERMARK_KEY + ":" + partition, next.toString());
+        log.debug("AI 스케줄러 워터마크 갱신: partition={}, watermark={}", partition, next);
+    }
+
+    /**
+     * 선생님 재생성 요청 등록
+     */
+    public void requestRegeneration(List<Long> messageIds) {
+        String member = messageIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        redisTemplate.opsForZSet().add(REGENERATION_QUEUE_KEY, member, System.currentTimeMillis());
+        log.info("AI 응답 재생성 요청 등록: messageIds={}", messageIds);
+    }
+
+    /**
+     * 대기 중인 재생성 요청 조회 (studentId는 호출 측에서 채움)
+     */
+    public List<WorkItem> pendingRegenerations() {
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().rangeWithScores(REGENERATION_QUEUE_KEY, 0, -1);
+        if (tuples == null) {
+            return List.of();
+        }
+        return tuples.stream()
+                .filter(tuple -> tuple.getValue() != null && tuple.getScore() != null)
+                .map(tuple -> new WorkItem(
+                        Arrays.stream(tuple.getValue().split(",")).map(Long::valueOf).toList(),
+                        null,
+                        OffsetDateTime.ofInstant(Instant.ofEpochMilli(tuple.getScore().longValue()), ZoneId.systemDefault()),
+                        Kind.REGENERATION))
+                .toList();
+    }
+
+    /**
+     * 작업 완료 처리 (재생성 요청 제거, 실패/미룸 횟수와 백오프 초기화)
+     */
+    public void complete(WorkItem item) {
+        if (item.kind() == Kind.REGENERATION) {
+            String member = item.messageIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+            redisTemplate.opsForZSet().remove(REGENERATION_QUEUE_KEY, member);
+        }
+        Long anchor = item.anchorMessageId();
+        redisTemplate.delete(List.of(ATTEMPTS_PREFIX + anchor, DEFERRALS_PREFIX + anchor, RETRY_AT_PREFIX + anchor));
+    }
+
+    /**
+     * 작업 실패 기록 (백오프 후 재시도)
+     *
+     * @return 재시도 가능하면 true, 최대 시도 횟수를 넘었으면 false
+     */
+    public boolean recordFailure(WorkItem item) {
+        long attempts = increment(ATTEMPTS_PREFIX + item.anchorMessageId());
+        if (attempts >= maxAttempts) {
+            return false;
+        }
+        scheduleRetry(item, attempts);
+        return true;
+    }
+
+    /**
+     * 외부 API 장애로 생성을 미룸 (시도 횟수에 포함하지 않고 백오프만 적용)
+     * 장애가 길어져도 작업을 포기하지 않고, 복구 후 다시 처리된다.
+     *
+     * @return 다음 시도까지 대기 시간
+     */
+    public Duration defer(WorkItem item) {
+        long deferrals = increment(DEFERRALS_PREFIX + item.anchorMessageId());
+        return scheduleRetry(item, deferrals);
+    }
+
+    /**
+     * 백오프 대기 중인 작업인지 확인
+     */
+    public boolean isBackingOff(WorkItem item, OffsetDateTime now) {
+        String retryAt = redisTemplate.opsForValue().get(RETRY_AT_PREFIX + item.anchorMessageId());
+        return retryAt != null && now.toInstant().toEpochMilli() < Long.parseLong(retryAt);
+    }
+
+    private long increment(String key) {
+        Long count = redisTemplate.opsForValue().increment(key);
+        redisTemplate.expire(key, ATTEMPTS_TTL_HOURS, TimeUnit.HOURS);
+        return count != null ? count : 1;
+    }
+
+    private Duration scheduleRetry(WorkItem item, long count) {
+        Duration delay = retryBaseDelay.multipliedBy(1L << Math.min(count - 1, 20));
+        if (delay.compareTo(retryMaxDelay) > 0) {
+            delay = retryMaxDelay;
+        }
+        long retryAt = System.currentTimeMillis() + delay.toMillis();
+        redisTemplate.opsForValue().set(RETRY_AT_PREFIX + item.anchorMessageId(), String.valueOf(retryAt),
+                ATTEMPTS_TTL_HOURS, TimeUnit.HOURS);
+        return delay;
+    }
+
+    /**
+     * 큐 메트릭 갱신
+     */
+    public void updateMetrics(List<WorkItem> remaining, OffsetDateTime now) {
+        depth.set(remaining.size());
+        oldestAgeSeconds.set(remaining.stream()
+                .map(WorkItem::enqueuedAt)
+                .min(Comparator.naturalOrder())
+                .map(oldest -> Math.max(0, Duration.between(oldest, now).toSeconds()))
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,172 @@
+package Capstone.CSmart.global.service.ai;
+
+import Capstone.CSmart.global.service.lock.RedisLease;
+import Capstone.CSmart.global.service.lock.RedisLeaseService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * AI 스케줄러 작업 파티션 임대 관리 (노드 간 작업 분산)
+ * - 학생은 studentId mod partition-count 파티션에 속하고, 파티션은 Redis 임대를 가진 노드 하나만 처리
+ *   (같은 학생의 메시지는 항상 같은 노드에서 보낸 순서대로 처리됨)
+ * - 노드 목록: ai_scheduler_nodes (Sorted Set, 점수: 마지막 하트비트 시각), node-ttl 동안 하트비트가 없으면 제외
+ * - 하트비트마다 살아 있는 노드 수로 나눈 몫(올림)에 맞춰 남는 임대는 반납, 모자라면 빈 파티션을 획득
+ *   (노드가 추가되면 기존 노드가 반납한 파티션을 가져가고, 노드가 빠지면 임대가 만료된 파티션을 나머지가 가져감)
+ * - 파티션 임대는 RedisLeaseService로 획득 (워치독 갱신, 소유자 확인 후 반납)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AiPartitionLeaseManager {
+
+    private static final String NODES_KEY = "ai_scheduler_nodes";
+    private static final String LEASE_PREFIX = "ai_partition_lease:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisLeaseService redisLeaseService;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentSkipListMap<Integer, RedisLease> ownedLeases = new ConcurrentSkipListMap<>();
+
+    @Value("${ai.partitions.count:16}")
+    private int partitionCount;
+
+    @Value("${ai.partitions.lease-ttl:30s}")
+    private Duration leaseTtl;
+
+    // 이 시간 동안 하트비트가 없는 노드는 분배 대상에서 제외
+    @Value("${ai.partitions.node-ttl:30s}")
+    private Duration nodeTtl;
+
+    /**
+     * 하트비트: 노드 등록, 잃은 임대 정리, 살아 있는 노드 수에 맞춰 반납/획득
+     */
+    @Scheduled(fixedDelayString = "${ai.partitions.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        try {
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForZSet().add(NODES_KEY, nodeId, now);
+            redisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, Double.NEGATIVE_INFINITY, now - nodeTtl.toMillis());
+
+            dropLost();
+            rebalance(now);
+        } catch (Exception e) {
+            // Redis 장애 시 분배할 수 없음 (보유 임대는 워치독 갱신이 실패하면 TTL 후 무효)
+            log.warn("AI 파티션 하트비트 실패: error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 이 노드가 처리하는 파티션 (하트비트 시점 기준)
+     */
+    public Set<Integer> ownedPartitions() {
+        return ownedLeases.entrySet().stream()
+                .filter(entry -> entry.getValue().isValid())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * 작업 직전 임대 확인 (반납/만료된 파티션의 작업은 새 소유자에게 넘김)
+     */
+    public boolean stillOwns(int partition) {
+        RedisLease lease = ownedLeases.get(partition);
+        return lease != null && redisLeaseService.isHeld(lease);
+    }
+
+    public int partitionOf(Long studentId) {
+        return (int) Math.floorMod(studentId, (long) partitionCount);
+    }
+
+    public int partitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * 종료 시 보유 임대를 바로 반납하여 다른 노드가 TTL 만료를 기다리지 않고 가져가게 함
+     */
+    @PreDestroy
+    void shutdown() {
+        try {
+            for (Integer partition : List.copyOf(ownedLeases.keySet())) {
+                release(partition);
+            }
+            redisTemplate.opsForZSet().remove(NODES_KEY, nodeId);
+        } catch (Exception e) {
+            log.warn("AI 파티션 임대 반납 실패: error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 워치독 갱신에 실패해 무효가 된 임대 정리 (만료 후 다른 노드가 획득했거나 Redis 장애로 TTL이 지남)
+     */
+    private void dropLost() {
+        ownedLeases.entrySet().removeIf(entry -> {
+            if (entry.getValue().isValid()) {
+                return false;
+            }
+            entry.getValue().close();
+            log.warn("AI 파티션 임대 상실: partition={}", entry.getKey());
+            return true;
+        });
+    }
+
+    /**
+     * 노드당 몫 = ceil(파티션 수 / 살아 있는 노드 수)
+     * 몫보다 많으면 번호가 큰 파티션부터 반납, 적으면 노드별 시작 위치부터 빈 파티션 획득
+     */
+    private void rebalance(long now) {
+        Long liveNodes = redisTemplate.opsForZSet().count(NODES_KEY, now - nodeTtl.toMillis(), Double.POSITIVE_INFINITY);
+        int nodes = liveNodes == null || liveNodes < 1 ? 1 : liveNodes.intValue();
+        int share = (partitionCount + nodes - 1) / nodes;
+
+        if (ownedLeases.size() > share) {
+            List<Integer> extras = new ArrayList<>(ownedLeases.descendingKeySet())
+                    .subList(0, ownedLeases.size() - share);
+            for (Integer partition : extras) {
+                release(partition);
+            }
+            log.info("AI 파티션 반납 (노드 추가): nodes={}, share={}, released={}", nodes, share, extras);
+            return;
+        }
+
+        int start = Math.floorMod(nodeId.hashCode(), partitionCount);
+        List<Integer> acquired = new ArrayList<>();
+        for (int i = 0; i < partitionCount && ownedLeases.size() < share; i++) {
+            int partition = (start + i) % partitionCount;
+            if (ownedLeases.containsKey(partition)) {
+                continue;
+            }
+            Optional<RedisLease> lease = redisLeaseService.tryAcquire(LEASE_PREFIX + partition, leaseTtl);
+            if (lease.isPresent()) {
+                ownedLeases.put(partition, lease.get());
+                acquired.add(partition);
+            }
+        }
+        if (!acquired.isEmpty()) {
+            log.info("AI 파티션 획득: nodes={}, share={}, acquired={}, owned={}", nodes, share, acquired, ownedLeases.keySet());
+        }
+    }
+
+    private void release(int partition) {
+        RedisLease lease = ownedLeases.remove(partition);
+        if (lease != null) {
+            lease.close();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package Capstone.CSmart.global.service.ai;
+
+import Capstone.CSmart.global.domain.entity.AiResponse;
+import Capstone.CSmart.global.repository.AiResponseRepository;
+import Capstone.CSmart.global.service.realtime.DashboardEventService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 메시지별 중복 AiResponse 압축
+ * - 활성 표시(activeMessageId)가 없는 진행 중/전송 응답이 남은 메시지를 batch-size개씩 찾아 한 트랜잭션으로 압축
+ *   (컬럼 추가 이전에 저장된 행의 활성 표시 채우기 + 과거 중복 행 보관 처리)
+ * - 메시지마다 활성 응답 하나만 남기고 나머지 검수 대기/승인 응답은 SUPERSEDED로 바꾸며, 검수 대기열/대시보드에서도 제거
+ *   (전송된 응답은 학생이 받은 답이므로 SENT 그대로 두고 활성 표시만 하나에 남김)
+ * - 한 번 실행에 max-batches-per-run 묶음까지만 처리하여 DB 부하를 제한 (남은 것은 다음 실행에서)
+ * - 압축할 메시지가 남지 않은 것을 확인하기 전까지 AiScheduler는 생성하지 않음
+ *   (활성 표시가 없는 과거 응답은 "이미 응답한 메시지" 확인에 잡히지 않아 중복 초안이 생길 수 있음)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AiResponseCompactor {
+
+    private final AiResponseRepository aiResponseRepository;
+    private final AiResponseTransactionService aiResponseTransactionService;
+    private final ReviewQueueStore reviewQueueStore;
+    private final DashboardEventService dashboardEventService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.compaction.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.compaction.batch-size:200}")
+    private int batchSize;
+
+    @Value("${ai.compaction.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    // 압축할 메시지가 없음을 확인함 (새 응답은 저장 시 활성 표시되므로 한 번 확인하면 계속 유지)
+    private volatile boolean caughtUp;
+
+    /**
+     * 과거 응답 압축이 끝났는지 (압축을 끈 경우 항상 true)
+     */
+    public boolean isCaughtUp() {
+        return caughtUp || !enabled;
+    }
+
+    @Scheduled(initialDelayString = "${ai.compaction.initial-delay-ms:10000}",
+            fixedDelayString = "${ai.compaction.interval-ms:60000}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        int messageCount = 0;
+        int supersededCount = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> messageIds = aiResponseRepository.findMessageIdsToCompact(batchSize);
+            if (messageIds.isEmpty()) {
+                if (!caughtUp) {
+                    caughtUp = true;
+                    log.info("AI 응답 압축 대상 없음: 스케줄러 생성 시작");
+                }
+                break;
+            }
+            List<AiResponse> superseded;
+            try {
+                superseded = aiResponseTransactionService.compactMessages(messageIds);
+            } catch (Exception e) {
+                // 같은 메시지를 계속 다시 고르지 않도록 이번 실행은 중단
+                log.error("AI 응답 압축 실패: messageIds={}~{}, error={}",
+                        messageIds.get(0), messageIds.get(messageIds.size() - 1), e.getMessage(), e);
+                break;
+            }
+            for (AiResponse response : superseded) {
+                reviewQueueStore.remove(response);
+                dashboardEventService.publishDraftResolved(response);
+            }
+            messageCount += messageIds.size();
+            supersededCount += superseded.size();
+            if (messageIds.size() < batchSize) {
+                break;
+            }
+        }
+        if (messageCount > 0) {
+            meterRegistry.counter("ai.response.compacted").increment(supersededCount);
+            log.info("AI 응답 압축 완료: 메시지={}, 보관 처리={}", messageCount, supersededCount);
+        }
+    }
+}
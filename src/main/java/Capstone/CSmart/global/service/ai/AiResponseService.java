@@ -1,29 +1,39 @@
 package Capstone.CSmart.global.service.ai;
 
 import Capstone.CSmart.global.domain.entity.AiResponse;
-import Capstone.CSmart.global.domain.entity.Message;
 import Capstone.CSmart.global.domain.entity.SemanticCache;
-import Capstone.CSmart.global.domain.entity.Student;
+import Capstone.CSmart.global.domain.enums.AiGenerationSource;
 import Capstone.CSmart.global.domain.enums.AiResponseStatus;
+import Capstone.CSmart.global.domain.enums.CacheNamespace;
+import Capstone.CSmart.global.repository.AiResponseMessageRepository;
 import Capstone.CSmart.global.repository.AiResponseRepository;
-import Capstone.CSmart.global.repository.MessageRepository;
-import Capstone.CSmart.global.repository.StudentRepository;
+import Capstone.CSmart.global.service.ai.AiResponseTransactionService.GenerationContext;
+import Capstone.CSmart.global.service.ai.AiResponseTransactionService.ReviewDecision;
+import Capstone.CSmart.global.service.ai.AiResponseTransactionService.ReviewOutcome;
 import Capstone.CSmart.global.service.cache.SemanticCacheService;
+import Capstone.CSmart.global.service.cache.SemanticCacheService.CacheLookup;
 import Capstone.CSmart.global.service.circuitbreaker.CircuitBreakerService;
-import Capstone.CSmart.global.service.confidence.ConfidenceScoreService;
+import Capstone.CSmart.global.service.circuitbreaker.ExternalOperation;
+import Capstone.CSmart.global.service.context.ConversationContextBuilder;
+import Capstone.CSmart.global.service.context.ConversationContextBuilder.ConversationContext;
 import Capstone.CSmart.global.service.gemini.GeminiService;
+import Capstone.CSmart.global.service.http.OutboundHttpClient;
+import Capstone.CSmart.global.service.lock.RedisLease;
+import Capstone.CSmart.global.service.lock.RedisLeaseService;
+import Capstone.CSmart.global.service.lock.StaleLeaseException;
+import Capstone.CSmart.global.service.realtime.DashboardEventService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.http.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -31,51 +41,64 @@ import java.util.concurrent.TimeUnit;
 public class AiResponseService {
 
     private final AiResponseRepository aiResponseRepository;
-    private final MessageRepository messageRepository;
-    private final StudentRepository studentRepository;
+    private final AiResponseMessageRepository aiResponseMessageRepository;
     private final SemanticCacheService semanticCacheService;
-    private final ConfidenceScoreService confidenceScoreService;
     private final GeminiService geminiService;
     private final CircuitBreakerService circuitBreakerService;
-    private final RedisTemplate<String, String> redisTemplate;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final AiResponseTransactionService aiResponseTransactionService;
+    private final OutboundHttpClient outboundHttpClient;
+    private final AiGenerationQueue aiGenerationQueue;
+    private final MeterRegistry meterRegistry;
+    private final ConversationContextBuilder conversationContextBuilder;
+    private final ReviewQueueStore reviewQueueStore;
+    private final DashboardEventService dashboardEventService;
+    private final RedisLeaseService redisLeaseService;
 
     @Value("${langgraph.url}")
     private String langGraphUrl;
+
+    @Value("${langgraph.timeout:60s}")
+    private Duration langGraphTimeout;
+
+    // LangGraph에 함께 보내는 이전 대화 맥락의 최대 토큰 수
+    @Value("${langgraph.context-token-budget:1500}")
+    private int langGraphContextTokenBudget;
+
+    @Value("${ai.review-queue.default-page-size:50}")
+    private int reviewQueueDefaultPageSize;
+
+    @Value("${ai.review-queue.max-page-size:200}")
+    private int reviewQueueMaxPageSize;
     
     private static final String AI_PROCESSING_LOCK_PREFIX = "ai_processing_lock:";
-    private static final long LOCK_TTL_SECONDS = 300; // 5분 (AI 응답 생성 최대 시간)
-    private static final String LANGGRAPH_CIRCUIT_BREAKER = "langgraph-api";
+    // 처리 중에는 워치독이 갱신하므로 생성 시간과 무관, 노드가 죽었을 때 다른 노드가 이어받기까지의 시간
+    private static final Duration LOCK_TTL = Duration.ofSeconds(30);
 
     /**
-     * 상담폼인지 확인 (긴 메시지, 번호 목록 등)
+     * 메시지 묶음에 대한 AI 응답 생성
+     * 같은 학생이 짧은 시간 안에 연달아 보낸 메시지들을 하나의 질문으로 합쳐 응답 하나만 생성한다.
+     * 응답의 messageId는 묶음의 마지막 메시지이며, 묶음의 모든 메시지가 응답에 연결된다.
+     * 원격 호출(임베딩, 시멘틱 검색, LangGraph, Gemini)이 최대 수십 초 걸리므로 메서드 전체를 트랜잭션으로 묶지 않는다.
+     * 1. 짧은 읽기 트랜잭션: 메시지/학생 스냅샷 조회
+     * 2. 트랜잭션 없는 원격 호출 구간
+     * 3. 짧은 쓰기 트랜잭션: 멱등 저장 (이미 저장된 응답이 있으면 그대로 반환)
+     *
+     * @param messageIds 같은 학생의 메시지 ID 목록 (보낸 순서)
      */
-    private boolean isConsultationForm(String content) {
-        if (content == null) return false;
-
-        // 200자 이상 또는 줄바꿈 5개 이상
-        boolean isLong = content.length() > 200 || content.split("\n").length > 5;
-
-        // 번호 목록 (1. 2. 3. 패턴)
-        boolean hasNumberedList = content.contains("1.") && content.contains("2.") && content.contains("3.");
-
-        return isLong || hasNumberedList;
-    }
+    public AiResponse generateResponse(List<Long> messageIds) {
+        Long messageId = messageIds.get(messageIds.size() - 1);
 
-    @Transactional
-    public AiResponse generateResponse(Long messageId) {
         // 이미 AI 응답이 있는지 확인 (가장 최근 것만)
-        Optional<AiResponse> existingResponse = aiResponseRepository.findTopByMessageIdOrderByGeneratedAtDesc(messageId);
+        Optional<AiResponse> existingResponse = findExistingResponse(messageId, messageIds);
         if (existingResponse.isPresent()) {
             log.info("AI Response already exists for messageId: {}", messageId);
             return existingResponse.get();
         }
 
-        // Redis 분산 락으로 중복 호출 방지
-        String lockKey = AI_PROCESSING_LOCK_PREFIX + messageId;
-        Boolean lockAcquired = redisTemplate.opsForValue().setIfAbsent(lockKey, "processing", LOCK_TTL_SECONDS, TimeUnit.SECONDS);
-        
-        if (Boolean.FALSE.equals(lockAcquired)) {
+        // Redis 분산 락으로 중복 호출 방지 (워치독 갱신으로 LangGraph 호출이 길어져도 유지, 펜싱 토큰은 최종 저장 시 확인)
+        Optional<RedisLease> acquired = redisLeaseService.tryAcquire(processingLockKey(messageId), LOCK_TTL);
+
+        if (acquired.isEmpty()) {
             // 이미 처리 중인 경우, 잠시 대기 후 기존 응답 확인
             log.warn("AI Response generation already in progress for messageId: {}, waiting...", messageId);
             
@@ -83,7 +106,7 @@ public class AiResponseService {
             for (int i = 0; i < 30; i++) {
                 try {
                     Thread.sleep(100); // 100ms 대기
-                    Optional<AiResponse> response = aiResponseRepository.findTopByMessageIdOrderByGeneratedAtDesc(messageId);
+                    Optional<AiResponse> response = findExistingResponse(messageId, messageIds);
                     if (response.isPresent()) {
                         log.info("AI Response created by another request for messageId: {}", messageId);
                         return response.get();
@@ -98,31 +121,25 @@ public class AiResponseService {
             throw new RuntimeException("AI Response generation is already in progress for messageId: " + messageId);
         }
 
+        RedisLease lease = acquired.get();
         try {
             // 락 획득 후 다시 한 번 기존 응답 확인 (락 획득 전과 후 사이에 다른 요청이 완료되었을 수 있음)
-            Optional<AiResponse> doubleCheckResponse = aiResponseRepository.findTopByMessageIdOrderByGeneratedAtDesc(messageId);
+            Optional<AiResponse> doubleCheckResponse = findExistingResponse(messageId, messageIds);
             if (doubleCheckResponse.isPresent()) {
                 log.info("AI Response already exists (double check) for messageId: {}", messageId);
                 return doubleCheckResponse.get();
             }
-            // 메시지 조회
-            final Message message = messageRepository.findById(messageId)
-                    .orElseThrow(() -> new RuntimeException("Message not found: " + messageId));
-
-            // 학생 정보 조회
-            final Student student = studentRepository.findById(message.getStudentId())
-                    .orElseThrow(() -> new RuntimeException("Student not found: " + message.getStudentId()));
-
-            // ✅ 상담폼은 AI 응답 생성하지 않음
-            if (isConsultationForm(message.getContent())) {
-                log.info("상담폼 메시지 감지, AI 응답 생성 건너뜀: messageId={}, content length={}",
-                        messageId, message.getContent().length());
-                throw new RuntimeException("상담폼은 AI 응답을 생성하지 않습니다");
+
+            // 1단계: 짧은 읽기 트랜잭션 (메시지 + 학생 스냅샷)
+            final GenerationContext context = aiResponseTransactionService.loadContext(messageIds)
+                    .withFencingToken(lease.fencingToken());
+            if (messageIds.size() > 1) {
+                log.info("메시지 묶음 처리: studentId={}, messageIds={}", context.studentId(), context.messageIds());
             }
 
             // ✅ Transfer 전/후 구분 및 메시지 생성 시점 확인
-            String registrationStatus = student.getRegistrationStatus();
-            Long assignedTeacherId = student.getAssignedTeacherId();
+            String registrationStatus = context.registrationStatus();
+            Long assignedTeacherId = context.assignedTeacherId();
             
             // Transfer 여부 확인: registrationStatus가 "TRANSFERRED_TO_TEACHER"이고 assignedTeacherId가 null이 아닌 경우만 Transfer 후로 간주
             boolean isTransferred = "TRANSFERRED_TO_TEACHER".equals(registrationStatus) 
@@ -132,51 +149,57 @@ public class AiResponseService {
             // Transfer 시점은 student.getUpdatedAt()으로 확인 (Transfer 시 updatedAt이 갱신됨)
             // LocalDateTime을 OffsetDateTime으로 변환하여 비교
             boolean isMessageAfterTransfer = false;
-            if (isTransferred && message.getSentAt() != null && student.getUpdatedAt() != null) {
+            if (isTransferred && context.sentAt() != null && context.studentUpdatedAt() != null) {
                 // LocalDateTime을 OffsetDateTime으로 변환 (시스템 기본 시간대 사용)
-                java.time.OffsetDateTime transferTime = student.getUpdatedAt()
+                java.time.OffsetDateTime transferTime = context.studentUpdatedAt()
                         .atZone(java.time.ZoneId.systemDefault())
                         .toOffsetDateTime();
                 // 메시지가 Transfer 이후에 보낸 메시지인지 확인 (Transfer 시점 이후 1초 여유를 둠)
-                isMessageAfterTransfer = message.getSentAt().isAfter(transferTime.minusSeconds(1));
+                isMessageAfterTransfer = context.sentAt().isAfter(transferTime.minusSeconds(1));
             }
             
             log.info("학생 상태 확인: studentId={}, registrationStatus={}, assignedTeacherId={}, isTransferred={}, messageSentAt={}, studentUpdatedAt={}, isMessageAfterTransfer={}", 
-                    student.getStudentId(), registrationStatus, assignedTeacherId, isTransferred, 
-                    message.getSentAt(), student.getUpdatedAt(), isMessageAfterTransfer);
+                    context.studentId(), registrationStatus, assignedTeacherId, isTransferred, 
+                    context.sentAt(), context.studentUpdatedAt(), isMessageAfterTransfer);
             
             // Transfer 전이거나, Transfer 이후지만 기존 메시지(Transfer 이전에 보낸 메시지)인 경우 Gemini만 사용
             if (!isTransferred || !isMessageAfterTransfer) {
                 // Transfer 전 또는 Transfer 이전에 보낸 기존 메시지: Gemini API로만 응답 생성 (LangGraph 사용 안 함)
                 log.info("✅ Transfer 전 또는 기존 메시지: Gemini API로만 응답 생성 (LangGraph 호출 안 함). messageId={}, studentId={}, registrationStatus={}, isTransferred={}, isMessageAfterTransfer={}", 
-                        messageId, student.getStudentId(), registrationStatus, isTransferred, isMessageAfterTransfer);
-                return generateResponseWithGemini(message, student);
+                        messageId, context.studentId(), registrationStatus, isTransferred, isMessageAfterTransfer);
+                return generateResponseWithGemini(context);
             }
 
             // Transfer 이후에 생성된 새로운 메시지만 LangGraph 사용
             log.info("✅ Transfer 이후 새로운 메시지: LangGraph로 응답 생성. messageId={}, studentId={}, teacherId={}, messageSentAt={}", 
-                    messageId, student.getStudentId(), assignedTeacherId, message.getSentAt());
+                    messageId, context.studentId(), assignedTeacherId, context.sentAt());
 
+            // 2단계: 트랜잭션 밖 원격 호출 구간
             // 🆕 1. 시멘틱 캐시에서 유사한 답변 검색
-            Optional<SemanticCache> cachedAnswer = semanticCacheService.findSimilarAnswer(message.getContent());
+            CacheLookup cacheLookup = semanticCacheService.lookup(context.content());
+            Optional<SemanticCache> cachedAnswer = cacheLookup.match();
 
             if (cachedAnswer.isPresent()) {
                 log.info("✅ 캐시 히트! LangGraph 호출 생략. messageId={}, cacheId={}",
                     messageId, cachedAnswer.get().getCacheId());
-                log.info("📝 현재 메시지: {}", message.getContent());
+                log.info("📝 현재 메시지: {}", context.content());
                 log.info("💾 캐시된 질문: {}", cachedAnswer.get().getQuestion());
 
                 // 캐시된 답변으로 AiResponse 생성
                 AiResponse aiResponse = AiResponse.builder()
                     .messageId(messageId)
-                    .studentId(message.getStudentId())
-                    .teacherId(student.getAssignedTeacherId())
+                    .studentId(context.studentId())
+                    .teacherId(assignedTeacherId)
                     .recommendedResponse(cachedAnswer.get().getAnswer())
                     .status(AiResponseStatus.PENDING_REVIEW)
+                    .generationSource(AiGenerationSource.SEMANTIC_CACHE)
+                    .degraded(false)
                     .generatedAt(OffsetDateTime.now())
+                    .fencingToken(context.fencingToken())
                     .build();
 
-                AiResponse savedResponse = aiResponseRepository.save(aiResponse);
+                // 3단계: 짧은 쓰기 트랜잭션
+                AiResponse savedResponse = savePendingResponse(aiResponse, context.messageIds());
                 log.info("캐시 기반 AI Response 생성 완료: responseId={}", savedResponse.getResponseId());
                 return savedResponse;
             }
@@ -184,9 +207,10 @@ public class AiResponseService {
             // 🆕 2. 캐시 미스 → LangGraph 호출
             log.info("❌ 캐시 미스. LangGraph 호출 필요. messageId={}", messageId);
 
-            // ✅ 개별 메시지 처리 (메시지 결합 제거)
-            String question = message.getContent();
-            log.info("개별 메시지 처리: messageId={}, question length={}", messageId, question.length());
+            // 묶음 메시지는 줄바꿈으로 합쳐 하나의 질문으로 처리
+            String question = context.content();
+            log.info("질문 구성: messageId={}, messages={}, question length={}",
+                    messageId, context.messageIds().size(), question.length());
 
             // LangGraph 요청 데이터 구성
             Map<String, Object> langGraphRequest = new HashMap<>();
@@ -194,27 +218,43 @@ public class AiResponseService {
 
             // 학생 프로필 구성
             Map<String, String> studentProfile = new HashMap<>();
-            studentProfile.put("target_university", student.getTargetUniversity() != null ? student.getTargetUniversity() : "미지정");
+            studentProfile.put("target_university", context.targetUniversity() != null ? context.targetUniversity() : "미지정");
             studentProfile.put("track", "계열 미지정");
             langGraphRequest.put("student_profile", studentProfile);
 
-            log.info("LangGraph 요청 구성: question length={}", question.length());
+            // 이전 대화 맥락 (질문 메시지 제외, 질문과 관련 있는 대화 위주로 토큰 예산 안에서 구성)
+            ConversationContext conversation = conversationContextBuilder.build(
+                    context.studentId(), question, langGraphContextTokenBudget, context.messageIds());
+            if (!conversation.isEmpty()) {
+                langGraphRequest.put("conversation_history", conversation.text());
+            }
 
-            // LangGraph API 호출
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(langGraphRequest, headers);
+            log.info("LangGraph 요청 구성: question length={}, history messages={}, history tokens={}",
+                    question.length(), conversation.messageIds().size(), conversation.estimatedTokens());
+
+            // LangGraph Circuit이 열려 있으면 호출 없이 바로 대체 경로로 (장애 중에도 초안 생성 처리량 유지)
+            if (circuitBreakerService.isCallBlocked(ExternalOperation.LANGGRAPH.getCircuitBreakerName())) {
+                log.warn("LangGraph Circuit OPEN, 대체 경로로 초안 생성: messageId={}", messageId);
+                return generateDegradedResponse(context, null);
+            }
 
             String langGraphEndpoint = langGraphUrl + "/api/chat";
             log.info("Calling LangGraph API: {}", langGraphEndpoint);
 
-            // LangGraph API 호출 (Circuit Breaker로 보호)
-            ResponseEntity<Map> response = circuitBreakerService.execute(
-                    LANGGRAPH_CIRCUIT_BREAKER,
-                    () -> restTemplate.exchange(langGraphEndpoint, HttpMethod.POST, request, Map.class)
-            );
-
-            Map<String, Object> responseBody = response.getBody();
+            // LangGraph API 호출 (벌크헤드 + Circuit Breaker + TimeLimiter로 보호)
+            Map<String, Object> responseBody;
+            try {
+                responseBody = circuitBreakerService.execute(
+                        ExternalOperation.LANGGRAPH,
+                        () -> outboundHttpClient.postAsync(langGraphEndpoint, null, langGraphRequest, Map.class, langGraphTimeout)
+                );
+            } catch (RuntimeException e) {
+                if (!CircuitBreakerService.isUnavailable(e)) {
+                    throw e;
+                }
+                log.warn("LangGraph 호출 불가, 대체 경로로 초안 생성: messageId={}, error={}", messageId, e.getMessage());
+                return generateDegradedResponse(context, e);
+            }
             if (responseBody == null) {
                 throw new RuntimeException("LangGraph API returned null response");
             }
@@ -238,52 +278,90 @@ public class AiResponseService {
             // AiResponse 엔티티 생성 및 저장
             AiResponse aiResponse = AiResponse.builder()
                     .messageId(messageId)
-                    .studentId(message.getStudentId())
-                    .teacherId(student.getAssignedTeacherId())
+                    .studentId(context.studentId())
+                    .teacherId(assignedTeacherId)
                     .recommendedResponse(finalAnswer)
                     .status(AiResponseStatus.PENDING_REVIEW)
+                    .generationSource(AiGenerationSource.LANGGRAPH)
+                    .degraded(false)
                     .generatedAt(OffsetDateTime.now())
+                    .fencingToken(context.fencingToken())
                     .build();
 
-            AiResponse savedResponse = aiResponseRepository.save(aiResponse);
+            // 3단계: 짧은 쓰기 트랜잭션 (시멘틱 캐시 적재는 같은 트랜잭션에 아웃박스로 기록, 검색 때 계산한 임베딩 재사용)
+            AiResponse savedResponse = upsertPending(messageId, () -> aiResponseTransactionService.saveIfAbsentWithCacheInsert(
+                    aiResponse, context.messageIds(), CacheNamespace.LANGGRAPH, question, cacheLookup.queryEmbedding()));
             log.info("AI Response saved: responseId={}", savedResponse.getResponseId());
 
-            // 🆕 3. 새로 생성된 응답을 캐시에 저장
-            try {
-                semanticCacheService.saveToCache(
-                    question,
-                    finalAnswer,
-                    savedResponse.getResponseId(),
-                    0.5 // 기본 신뢰도
-                );
-                log.info("캐시 저장 완료: responseId={}", savedResponse.getResponseId());
-            } catch (Exception cacheError) {
-                log.warn("캐시 저장 실패 (서비스는 정상 진행): {}", cacheError.getMessage());
-            }
-
             return savedResponse;
 
+        } catch (AiGenerationDeferredException e) {
+            // 스케줄러가 백오프 후 재시도하도록 그대로 전달
+            throw e;
         } catch (Exception e) {
             log.error("AI Response generation failed for messageId: {}, error: {}", messageId, e.getMessage(), e);
             throw new RuntimeException("AI Response generation failed: " + e.getMessage(), e);
         } finally {
-            // 처리 완료 후 락 해제
-            redisTemplate.delete(lockKey);
+            // 처리 완료 후 락 해제 (내 토큰일 때만 삭제)
+            lease.close();
             log.debug("AI processing lock released for messageId: {}", messageId);
         }
     }
 
+    /**
+     * 메시지별 AI 응답 생성 락 키 (저장 트랜잭션에서 펜싱 토큰 확인에도 사용)
+     */
+    static String processingLockKey(Long messageId) {
+        return AI_PROCESSING_LOCK_PREFIX + messageId;
+    }
+
+    /**
+     * 대표 메시지의 활성 응답 또는 묶음의 메시지 중 하나라도 포함한 응답이 있으면 그 응답을 반환
+     * (재생성 요청으로 거부된 응답은 활성 표시가 해제되어 제외)
+     */
+    private Optional<AiResponse> findExistingResponse(Long messageId, List<Long> messageIds) {
+        return aiResponseRepository.findByActiveMessageId(messageId)
+                .or(() -> messageIds.stream()
+                        .map(aiResponseMessageRepository::findByMessageId)
+                        .flatMap(Optional::stream)
+                        .findFirst()
+                        .flatMap(link -> aiResponseRepository.findById(link.getResponseId())));
+    }
+
     /**
      * Transfer 전: Gemini API로 간단한 상담 응답 생성
+     * 시멘틱 캐시의 Gemini 구역을 먼저 검색하고, 미스일 때만 Gemini를 호출한 뒤 같은 구역에 적재한다.
      */
-    private AiResponse generateResponseWithGemini(Message message, Student student) {
+    private AiResponse generateResponseWithGemini(GenerationContext context) {
         try {
-            String question = message.getContent();
+            String question = context.content();
+
+            CacheLookup cacheLookup = semanticCacheService.lookup(question, CacheNamespace.GEMINI);
+            if (cacheLookup.match().isPresent()) {
+                SemanticCache cached = cacheLookup.match().get();
+                AiResponse aiResponse = AiResponse.builder()
+                        .messageId(context.messageId())
+                        .studentId(context.studentId())
+                        .teacherId(null) // Transfer 전에는 선생님 배정 안 됨
+                        .recommendedResponse(cached.getAnswer())
+                        .status(AiResponseStatus.PENDING_REVIEW)
+                        .generationSource(AiGenerationSource.SEMANTIC_CACHE)
+                        .degraded(false)
+                        .generatedAt(OffsetDateTime.now())
+                        .fencingToken(context.fencingToken())
+                        .build();
+
+                AiResponse savedResponse = savePendingResponse(aiResponse, context.messageIds());
+                log.info("✅ Gemini 구역 캐시 히트, Gemini 호출 생략: messageId={}, cacheId={}, responseId={}",
+                        context.messageId(), cached.getCacheId(), savedResponse.getResponseId());
+                return savedResponse;
+            }
+
             log.info("Gemini API로 상담 응답 생성: messageId={}, question length={}", 
-                    message.getMessageId(), question.length());
+                    context.messageId(), question.length());
 
-            // Gemini API 호출
-            String geminiAnswer = geminiService.generateChatResponse(question);
+            // Gemini API 호출 (트랜잭션 밖, 실패 시 안내 문구가 초안/캐시에 저장되지 않도록 예외로 받아 스케줄러가 재시도)
+            String geminiAnswer = geminiService.requestChatResponse(question);
 
             if (geminiAnswer == null || geminiAnswer.trim().isEmpty()) {
                 throw new RuntimeException("Gemini API가 빈 응답을 반환했습니다");
@@ -291,15 +369,20 @@ public class AiResponseService {
 
             // AiResponse 엔티티 생성 및 저장
             AiResponse aiResponse = AiResponse.builder()
-                    .messageId(message.getMessageId())
-                    .studentId(message.getStudentId())
+                    .messageId(context.messageId())
+                    .studentId(context.studentId())
                     .teacherId(null) // Transfer 전에는 선생님 배정 안 됨
                     .recommendedResponse(geminiAnswer)
                     .status(AiResponseStatus.PENDING_REVIEW)
+                    .generationSource(AiGenerationSource.GEMINI)
+                    .degraded(false)
                     .generatedAt(OffsetDateTime.now())
+                    .fencingToken(context.fencingToken())
                     .build();
 
-            AiResponse savedResponse = aiResponseRepository.save(aiResponse);
+            // 시멘틱 캐시 적재는 같은 트랜잭션에 아웃박스로 기록 (검색 때 계산한 임베딩 재사용)
+            AiResponse savedResponse = upsertPending(context.messageId(), () -> aiResponseTransactionService.saveIfAbsentWithCacheInsert(
+                    aiResponse, context.messageIds(), CacheNamespace.GEMINI, question, cacheLookup.queryEmbedding()));
             log.info("Gemini 기반 AI Response 생성 완료: responseId={}, answer length={}", 
                     savedResponse.getResponseId(), geminiAnswer.length());
 
@@ -307,127 +390,272 @@ public class AiResponseService {
 
         } catch (Exception e) {
             log.error("Gemini 응답 생성 실패: messageId={}, error: {}", 
-                    message.getMessageId(), e.getMessage(), e);
+                    context.messageId(), e.getMessage(), e);
             throw new RuntimeException("Gemini 응답 생성 실패: " + e.getMessage(), e);
         }
     }
 
-    public List<AiResponse> getPendingResponsesForTeacher(Long teacherId) {
-        List<AiResponse> allResponses = aiResponseRepository.findByTeacherIdAndStatus(teacherId, AiResponseStatus.PENDING_REVIEW);
-        
-        // 같은 messageId에 대해 여러 AiResponse가 있으면, 가장 최신 것만 반환
-        return allResponses.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                    AiResponse::getMessageId,
-                    java.util.stream.Collectors.collectingAndThen(
-                        java.util.stream.Collectors.toList(),
-                        list -> list.stream()
-                            .max(Comparator.comparing(AiResponse::getGeneratedAt))
-                            .orElse(null)
-                    )
-                ))
-                .values()
-                .stream()
-                .filter(java.util.Objects::nonNull)
-                .sorted(Comparator.comparing(AiResponse::getGeneratedAt).reversed())
-                .collect(java.util.stream.Collectors.toList());
+    /**
+     * LangGraph 장애 시 대체 초안 생성 (Transfer 후 학생)
+     * 1. 완화된 기준의 시멘틱 캐시 매칭 (저신뢰 초안)
+     * 2. Gemini 채팅 응답 초안
+     * 3. 둘 다 실패하면 생성을 미루고 스케줄러가 백오프 후 재시도
+     * 대체 초안은 degraded=true로 저장하여 선생님이 검수 시 구분할 수 있게 하고, 시멘틱 캐시에는 저장하지 않는다.
+     *
+     * @param cause LangGraph 호출 실패 원인 (Circuit OPEN으로 호출하지 않은 경우 null)
+     */
+    private AiResponse generateDegradedResponse(GenerationContext context, Exception cause) {
+        String question = context.content();
+
+        Optional<SemanticCache> relaxedMatch = semanticCacheService.findSimilarAnswerRelaxed(question);
+        if (relaxedMatch.isPresent()) {
+            log.info("완화 기준 캐시 매칭으로 대체 초안 생성: messageId={}, cacheId={}",
+                    context.messageId(), relaxedMatch.get().getCacheId());
+            return saveDegradedResponse(context, relaxedMatch.get().getAnswer(), AiGenerationSource.RELAXED_CACHE);
+        }
+
+        try {
+            String geminiAnswer = geminiService.requestChatResponse(question);
+            if (geminiAnswer != null && !geminiAnswer.isBlank()) {
+                log.info("Gemini로 대체 초안 생성: messageId={}, answer length={}",
+                        context.messageId(), geminiAnswer.length());
+                return saveDegradedResponse(context, geminiAnswer, AiGenerationSource.GEMINI_FALLBACK);
+            }
+        } catch (Exception e) {
+            log.warn("Gemini 대체 초안 생성 실패: messageId={}, error={}", context.messageId(), e.getMessage());
+        }
+
+        throw new AiGenerationDeferredException(
+                "LangGraph 장애로 응답 생성 보류: messageId=" + context.messageId(), cause);
     }
 
-    public List<AiResponse> getAllPendingResponses() {
-        List<AiResponse> allResponses = aiResponseRepository.findByStatusOrderByGeneratedAtDesc(AiResponseStatus.PENDING_REVIEW);
-        
-        // 같은 messageId에 대해 여러 AiResponse가 있으면, 가장 최신 것만 반환
-        return allResponses.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                    AiResponse::getMessageId,
-                    java.util.stream.Collectors.collectingAndThen(
-                        java.util.stream.Collectors.toList(),
-                        list -> list.stream()
-                            .max(Comparator.comparing(AiResponse::getGeneratedAt))
-                            .orElse(null)
-                    )
-                ))
-                .values()
-                .stream()
-                .filter(java.util.Objects::nonNull)
-                .sorted(Comparator.comparing(AiResponse::getGeneratedAt).reversed())
-                .collect(java.util.stream.Collectors.toList());
+    private AiResponse saveDegradedResponse(GenerationContext context, String answer, AiGenerationSource source) {
+        AiResponse aiResponse = AiResponse.builder()
+                .messageId(context.messageId())
+                .studentId(context.studentId())
+                .teacherId(context.assignedTeacherId())
+                .recommendedResponse(answer)
+                .status(AiResponseStatus.PENDING_REVIEW)
+                .generationSource(source)
+                .degraded(true)
+                .generatedAt(OffsetDateTime.now())
+                .fencingToken(context.fencingToken())
+                .build();
+
+        AiResponse savedResponse = savePendingResponse(aiResponse, context.messageIds());
+        meterRegistry.counter("ai.response.degraded", "source", source.name()).increment();
+        log.info("대체 초안 저장 완료: responseId={}, source={}", savedResponse.getResponseId(), source);
+        return savedResponse;
     }
 
-    @Transactional
-    public void approveAndSend(Long responseId) {
-        try {
-            AiResponse aiResponse = aiResponseRepository.findById(responseId)
-                    .orElseThrow(() -> new RuntimeException("AI Response not found: " + responseId));
+    /**
+     * 검수 대기 응답 페이지
+     *
+     * @param items 메시지별 가장 최근 검수 대기 응답 (최신순)
+     * @param nextCursor 다음 페이지 커서 (마지막 페이지면 null)
+     */
+    public record ReviewQueuePage(List<AiResponse> items, String nextCursor) {
+    }
+
+    /**
+     * 검수 대기 응답 조회 (키셋 페이지네이션)
+     * 같은 messageId에 여러 응답이 있으면 가장 최신 것만 DB에서 골라 반환한다.
+     *
+     * @param teacherId 담당 선생님 (null이면 전체)
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @param limit 페이지 크기 (null이면 기본값, 최대 max-page-size)
+     */
+    public ReviewQueuePage getPendingReviewPage(Long teacherId, String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? reviewQueueDefaultPageSize : Math.min(limit, reviewQueueMaxPageSize);
+        ReviewCursor position = ReviewCursor.decode(cursor);
+        String status = AiResponseStatus.PENDING_REVIEW.name();
+
+        // 다음 페이지 존재 여부 확인을 위해 하나 더 조회 (Redis 대기열 우선, 사용할 수 없으면 MySQL)
+        List<AiResponse> rows = readReviewQueue(teacherId, position, pageSize + 1)
+                .orElseGet(() -> teacherId != null
+                        ? aiResponseRepository.findLatestPerMessageForTeacher(
+                                teacherId, status, position.generatedAt(), position.responseId(), pageSize + 1)
+                        : aiResponseRepository.findLatestPerMessage(
+                                status, position.generatedAt(), position.responseId(), pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new ReviewQueuePage(rows, null);
+        }
+        List<AiResponse> items = rows.subList(0, pageSize);
+        AiResponse last = items.get(pageSize - 1);
+        return new ReviewQueuePage(items, new ReviewCursor(last.getGeneratedAt(), last.getResponseId()).encode());
+    }
+
+    /**
+     * 검수 대기 건수 (Redis 대기열 ZCARD, 사용할 수 없으면 MySQL COUNT)
+     *
+     * @param teacherId 담당 선생님 (null이면 전체)
+     */
+    public long countPendingResponses(Long teacherId) {
+        OptionalLong queued = reviewQueueStore.count(teacherId);
+        if (queued.isPresent()) {
+            return queued.getAsLong();
+        }
+        return teacherId != null
+                ? aiResponseRepository.countByTeacherIdAndStatus(teacherId, AiResponseStatus.PENDING_REVIEW)
+                : aiResponseRepository.countByStatus(AiResponseStatus.PENDING_REVIEW);
+    }
 
-            // 최종 응답 설정
-            aiResponse.setFinalResponse(aiResponse.getRecommendedResponse());
+    /**
+     * Redis 대기열에서 응답 ID를 읽고 PK로 조회
+     * 이미 처리된 응답(다른 인스턴스의 반영 지연 등)이 섞여 있으면 대기열에서 빼고 한 번 더 읽는다.
+     */
+    private Optional<List<AiResponse>> readReviewQueue(Long teacherId, ReviewCursor position, int count) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Optional<List<Long>> queued = reviewQueueStore.page(teacherId, position.generatedAt(), position.responseId(), count);
+            if (queued.isEmpty()) {
+                return Optional.empty();
+            }
+            List<AiResponse> loaded = aiResponseRepository.findAllById(queued.get());
+            List<AiResponse> pending = new ArrayList<>(loaded.size());
+            for (AiResponse aiResponse : loaded) {
+                if (aiResponse.getStatus() == AiResponseStatus.PENDING_REVIEW) {
+                    pending.add(aiResponse);
+                } else {
+                    reviewQueueStore.remove(aiResponse);
+                }
+            }
+            if (pending.size() == loaded.size() || attempt == 1) {
+                pending.sort(Comparator.comparing(AiResponse::getGeneratedAt)
+                        .thenComparing(AiResponse::getResponseId)
+                        .reversed());
+                return Optional.of(pending);
+            }
+        }
+        return Optional.empty();
+    }
 
-            // 전송 성공 후 상태 업데이트
-            aiResponse.setStatus(AiResponseStatus.SENT);
-            aiResponse.setReviewedAt(OffsetDateTime.now());
-            aiResponse.setSentAt(OffsetDateTime.now());
+    /**
+     * 검수 대기 응답 저장 (짧은 쓰기 트랜잭션) 후 선생님 검수 대기열에 추가하고 대시보드에 알림
+     */
+    private AiResponse savePendingResponse(AiResponse aiResponse, List<Long> messageIds) {
+        return upsertPending(aiResponse.getMessageId(), () -> aiResponseTransactionService.saveIfAbsent(aiResponse, messageIds));
+    }
 
-            aiResponseRepository.save(aiResponse);
+    /**
+     * 멱등 저장: 다른 워커가 같은 메시지의 활성 응답을 먼저 저장했으면 유니크 제약(또는 펜싱 토큰 확인)으로
+     * 이쪽 트랜잭션이 실패하므로, 먼저 저장된 응답을 읽어 반환한다.
+     */
+    private AiResponse upsertPending(Long messageId, Supplier<AiResponse> save) {
+        AiResponse savedResponse;
+        try {
+            savedResponse = save.get();
+        } catch (DataIntegrityViolationException e) {
+            savedResponse = aiResponseTransactionService.findActiveResponse(messageId).orElseThrow(() -> e);
+            log.info("동시에 저장된 활성 응답 사용: messageId={}, responseId={}", messageId, savedResponse.getResponseId());
+        } catch (StaleLeaseException e) {
+            // 락이 만료된 사이 다른 워커가 다시 획득함: 그 워커가 이미 저장했으면 그 응답을 사용 (아니면 실패 처리, 그 워커가 저장)
+            savedResponse = aiResponseTransactionService.findActiveResponse(messageId).orElseThrow(() -> e);
+            log.warn("만료된 락으로 생성한 응답 폐기, 활성 응답 사용: messageId={}, responseId={}", messageId, savedResponse.getResponseId());
+        }
+        reviewQueueStore.add(savedResponse);
+        dashboardEventService.publishDraftCreated(savedResponse);
+        return savedResponse;
+    }
 
-            // 승인 후 캐시 신뢰도 업데이트
+    /**
+     * 검수 대기열 커서: 마지막 항목의 (generatedAt, responseId)를 Base64(URL-safe)로 인코딩
+     */
+    private record ReviewCursor(OffsetDateTime generatedAt, Long responseId) {
+
+        // 첫 페이지: 모든 행보다 뒤의 위치
+        private static final ReviewCursor FIRST = new ReviewCursor(
+                OffsetDateTime.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+        static ReviewCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return FIRST;
+            }
             try {
-                double newConfidenceScore = confidenceScoreService.calculateConfidenceScore(aiResponse);
-
-                semanticCacheService.getCacheRepository()
-                    .findByOriginalResponseId(responseId)
-                    .ifPresent(cache -> {
-                        cache.setConfidenceScore(newConfidenceScore);
-                        semanticCacheService.getCacheRepository().save(cache);
-                        log.info("✅ 승인 후 캐시 신뢰도 업데이트: responseId={}, 신뢰도: {}",
-                            responseId, newConfidenceScore);
-                    });
-
-            } catch (Exception e) {
-                log.warn("승인 후 캐시 신뢰도 업데이트 실패: responseId={}", responseId, e);
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                return new ReviewCursor(OffsetDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
             }
+        }
 
-            log.info("AI Response {} approved and marked as SENT", responseId);
+        String encode() {
+            String raw = generatedAt + "|" + responseId;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 선생님의 AI 응답 재생성 요청
+     * 기존 응답은 거부 처리하고, 같은 메시지에 대한 생성 작업을 우선순위 큐에 높은 우선순위로 등록한다.
+     * 거부된 답변이 다시 캐시 히트로 재사용되지 않도록 해당 응답으로 만든 캐시도 삭제한다.
+     */
+    public void requestRegeneration(Long responseId) {
+        List<Long> messageIds = aiResponseTransactionService.rejectForRegeneration(responseId);
+        aiResponseRepository.findById(responseId).ifPresent(rejected -> {
+            reviewQueueStore.remove(rejected);
+            dashboardEventService.publishDraftResolved(rejected);
+        });
 
+        try {
+            semanticCacheService.getCacheRepository()
+                .findByOriginalResponseId(responseId)
+                .ifPresent(cache -> {
+                    semanticCacheService.getCacheRepository().delete(cache);
+                    log.info("거부된 응답의 캐시 삭제: responseId={}, cacheId={}", responseId, cache.getCacheId());
+                });
         } catch (Exception e) {
-            log.error("Failed to approve AI Response: {}", responseId, e);
-            throw new RuntimeException("Failed to approve and mark as sent: " + e.getMessage());
+            log.warn("거부된 응답의 캐시 삭제 실패: responseId={}", responseId, e);
         }
+
+        aiGenerationQueue.requestRegeneration(messageIds);
+        log.info("AI Response {} rejected, regeneration queued: messageIds={}", responseId, messageIds);
     }
 
-    @Transactional
-    public void editAndSend(Long responseId, String editedContent) {
+    /**
+     * 승인 후 전송 처리
+     * 상태 변경과 캐시 갱신 아웃박스 기록은 한 트랜잭션으로 커밋하고, 커밋 후 검수 대기열 제거와 대시보드 알림을 수행한다.
+     */
+    public void approveAndSend(Long responseId) {
         try {
-            AiResponse aiResponse = aiResponseRepository.findById(responseId)
-                    .orElseThrow(() -> new RuntimeException("AI Response not found: " + responseId));
+            AiResponse aiResponse = aiResponseTransactionService.markSent(responseId, null);
+            afterReviewed(aiResponse);
 
-            // 수정된 내용으로 최종 응답 설정
-            aiResponse.setFinalResponse(editedContent);
-
-            // 전송 성공 후 상태 업데이트
-            aiResponse.setStatus(AiResponseStatus.SENT);
-            aiResponse.setReviewedAt(OffsetDateTime.now());
-            aiResponse.setSentAt(OffsetDateTime.now());
+            log.info("AI Response {} approved and marked as SENT", responseId);
 
-            aiResponseRepository.save(aiResponse);
+        } catch (Exception e) {
+            log.error("Failed to approve AI Response: {}", responseId, e);
+            throw new RuntimeException("Failed to approve and mark as sent: " + e.getMessage());
+        }
+    }
 
-            // 수정 및 승인 후 캐시 신뢰도 업데이트
-            try {
-                double newConfidenceScore = confidenceScoreService.calculateConfidenceScore(aiResponse);
-
-                semanticCacheService.getCacheRepository()
-                    .findByOriginalResponseId(responseId)
-                    .ifPresent(cache -> {
-                        cache.setConfidenceScore(newConfidenceScore);
-                        cache.setAnswer(editedContent);
-                        semanticCacheService.getCacheRepository().save(cache);
-                        log.info("✅ 수정 후 캐시 업데이트: responseId={}, 신뢰도: {}",
-                            responseId, newConfidenceScore);
-                    });
-
-            } catch (Exception e) {
-                log.warn("수정 후 캐시 업데이트 실패: responseId={}", responseId, e);
+    /**
+     * 일괄 승인/수정 후 전송 처리
+     * DB 반영은 한 번의 짧은 트랜잭션(일괄 조회 + 배치 UPDATE + 아웃박스 기록)으로 처리하고,
+     * 커밋 후 검수 대기열 제거와 대시보드 알림을 수행한다. (캐시 갱신은 아웃박스 처리기에서)
+     *
+     * @return 요청 순서대로의 항목별 결과
+     */
+    public List<ReviewOutcome> bulkReview(List<ReviewDecision> decisions) {
+        List<ReviewOutcome> outcomes = aiResponseTransactionService.applyReviewDecisions(decisions);
+        for (ReviewOutcome outcome : outcomes) {
+            if (outcome.isSuccess()) {
+                afterReviewed(outcome.response());
             }
+        }
+        return outcomes;
+    }
+
+    /**
+     * 수정 후 전송 처리 (커밋 후 부수 효과는 approveAndSend와 같음)
+     */
+    public void editAndSend(Long responseId, String editedContent) {
+        try {
+            AiResponse aiResponse = aiResponseTransactionService.markSent(responseId, editedContent);
+            afterReviewed(aiResponse);
 
             log.info("AI Response {} edited and marked as SENT", responseId);
 
@@ -436,4 +664,12 @@ public class AiResponseService {
             throw new RuntimeException("Failed to edit and mark as sent: " + e.getMessage());
         }
     }
+
+    /**
+     * 검수 반영이 커밋된 뒤의 부수 효과 (커밋되지 않은 상태가 Redis/대시보드에 보이지 않게 트랜잭션 밖에서 수행)
+     */
+    private void afterReviewed(AiResponse aiResponse) {
+        reviewQueueStore.remove(aiResponse);
+        dashboardEventService.publishDraftResolved(aiResponse);
+    }
 }
@@ -0,0 +1,429 @@
+package Capstone.CSmart.global.service.ai;
+
+import Capstone.CSmart.global.domain.entity.AiResponse;
+import Capstone.CSmart.global.domain.entity.AiResponseMessage;
+import Capstone.CSmart.global.domain.entity.Message;
+import Capstone.CSmart.global.domain.entity.Student;
+import Capstone.CSmart.global.domain.enums.AiResponseStatus;
+import Capstone.CSmart.global.domain.enums.CacheNamespace;
+import Capstone.CSmart.global.repository.AiResponseMessageRepository;
+import Capstone.CSmart.global.repository.AiResponseRepository;
+import Capstone.CSmart.global.repository.MessageRepository;
+import Capstone.CSmart.global.repository.StudentRepository;
+import Capstone.CSmart.global.service.cache.ReviewFeedbackHandler;
+import Capstone.CSmart.global.service.cache.SemanticCacheInsertHandler;
+import Capstone.CSmart.global.service.lock.RedisLeaseService;
+import Capstone.CSmart.global.service.lock.StaleLeaseException;
+import Capstone.CSmart.global.service.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * AI 응답 생성의 DB 구간 전용 서비스
+ * 임베딩/시멘틱 검색/LangGraph 같은 원격 호출은 트랜잭션 밖에서 수행하고,
+ * 여기서는 짧은 읽기 트랜잭션과 짧은 쓰기 트랜잭션만 담당한다.
+ * (커넥션 풀 고갈 방지: 원격 호출 동안 JDBC 커넥션을 잡고 있지 않음)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AiResponseTransactionService {
+
+    private final AiResponseRepository aiResponseRepository;
+    private final AiResponseMessageRepository aiResponseMessageRepository;
+    private final MessageRepository messageRepository;
+    private final StudentRepository studentRepository;
+    private final OutboxService outboxService;
+    private final RedisLeaseService redisLeaseService;
+
+    // 검수가 끝나 다시 승인/전송할 수 없는 상태
+    private static final Set<AiResponseStatus> FINISHED_STATUSES =
+            EnumSet.of(AiResponseStatus.SENT, AiResponseStatus.REJECTED, AiResponseStatus.SUPERSEDED);
+
+    // 압축 시 활성 응답으로 남길 우선순위 (max가 남음, 같은 상태면 이미 활성인 응답 > 최근 응답)
+    private static final Comparator<AiResponse> KEEPER_ORDER = Comparator
+            .comparingInt((AiResponse response) -> switch (response.getStatus()) {
+                case SENT -> 2;
+                case APPROVED -> 1;
+                default -> 0;
+            })
+            .thenComparing(response -> response.getActiveMessageId() != null)
+            .thenComparing(AiResponse::getGeneratedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(AiResponse::getResponseId);
+
+    /**
+     * 1단계: 응답 생성에 필요한 메시지/학생 정보를 읽기 전용 트랜잭션으로 조회
+     * 엔티티 대신 값 스냅샷을 반환하여 트랜잭션 종료 후에도 안전하게 사용
+     */
+    @Transactional(readOnly = true)
+    public GenerationContext loadContext(Long messageId) {
+        return loadContext(List.of(messageId));
+    }
+
+    /**
+     * 1단계: 메시지 묶음(같은 학생이 연달아 보낸 메시지)의 스냅샷 조회
+     * 보낸 순서대로 정렬하며, 마지막 메시지가 응답의 대표 메시지(messageId)가 된다.
+     */
+    @Transactional(readOnly = true)
+    public GenerationContext loadContext(List<Long> messageIds) {
+        List<Message> messages = messageRepository.findAllById(messageIds).stream()
+                .sorted(Comparator.comparing(Message::getSentAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Message::getMessageId))
+                .toList();
+        if (messages.size() != messageIds.size()) {
+            throw new RuntimeException("Message not found: " + messageIds);
+        }
+
+        Message last = messages.get(messages.size() - 1);
+        boolean sameStudent = messages.stream().allMatch(m -> last.getStudentId().equals(m.getStudentId()));
+        if (!sameStudent) {
+            throw new RuntimeException("Messages belong to different students: " + messageIds);
+        }
+
+        Student student = studentRepository.findById(last.getStudentId())
+                .orElseThrow(() -> new RuntimeException("Student not found: " + last.getStudentId()));
+
+        return new GenerationContext(
+                last.getMessageId(),
+                messages.stream().map(Message::getMessageId).toList(),
+                last.getStudentId(),
+                messages.stream().map(Message::getContent).toList(),
+                last.getSentAt(),
+                student.getRegistrationStatus(),
+                student.getAssignedTeacherId(),
+                student.getTargetUniversity(),
+                student.getUpdatedAt(),
+                null
+        );
+    }
+
+    /**
+     * 3단계: AiResponse 저장 (멱등)
+     * 같은 messageId의 응답이 이미 저장되어 있으면 새로 저장하지 않고 기존 응답을 반환
+     */
+    @Transactional
+    public AiResponse saveIfAbsent(AiResponse aiResponse) {
+        return saveIfAbsent(aiResponse, List.of(aiResponse.getMessageId()));
+    }
+
+    /**
+     * 3단계: AiResponse 저장 + 응답이 다루는 메시지 연결 (멱등)
+     * 묶음 중 하나라도 이미 다른 응답에 포함되어 있으면 새로 저장하지 않고 기존 응답을 반환
+     */
+    @Transactional
+    public AiResponse saveIfAbsent(AiResponse aiResponse, List<Long> coveredMessageIds) {
+        return findSavedResponse(aiResponse, coveredMessageIds)
+                .orElseGet(() -> insert(aiResponse, coveredMessageIds));
+    }
+
+    /**
+     * 3단계: AiResponse 저장 + 시멘틱 캐시 적재 아웃박스 기록 (같은 트랜잭션, 멱등)
+     * 이미 저장된 응답이 있으면 캐시 적재도 기록하지 않는다.
+     *
+     * @param namespace 적재할 캐시 구역
+     * @param question 캐시에 저장할 질문
+     * @param queryEmbedding 캐시 검색 때 계산한 질문 임베딩 (없으면 null, 적재 시 생성)
+     */
+    @Transactional
+    public AiResponse saveIfAbsentWithCacheInsert(AiResponse aiResponse, List<Long> coveredMessageIds,
+                                                  CacheNamespace namespace, String question, List<Double> queryEmbedding) {
+        Optional<AiResponse> existing = findSavedResponse(aiResponse, coveredMessageIds);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        AiResponse saved = insert(aiResponse, coveredMessageIds);
+        outboxService.enqueue(SemanticCacheInsertHandler.EVENT_TYPE, saved.getResponseId(),
+                SemanticCacheInsertHandler.payload(saved.getResponseId(), namespace, question, queryEmbedding));
+        return saved;
+    }
+
+    /**
+     * 메시지의 활성 응답 조회 (동시 저장으로 유니크 제약에 걸린 쪽이 먼저 저장된 응답을 읽을 때 사용)
+     */
+    @Transactional(readOnly = true)
+    public Optional<AiResponse> findActiveResponse(Long messageId) {
+        return aiResponseRepository.findByActiveMessageId(messageId);
+    }
+
+    private Optional<AiResponse> findSavedResponse(AiResponse aiResponse, List<Long> coveredMessageIds) {
+        Optional<AiResponse> existing = aiResponseRepository.findByActiveMessageId(aiResponse.getMessageId())
+                .or(() -> findCoveringResponse(coveredMessageIds));
+        existing.ifPresent(saved -> log.info("AI Response already saved by another worker, skip insert: messageId={}, responseId={}",
+                aiResponse.getMessageId(), saved.getResponseId()));
+        return existing;
+    }
+
+    /**
+     * 활성 응답으로 저장 (같은 메시지의 활성 응답이 동시에 저장되면 uk_ai_responses_active_message 위반)
+     * 펜싱 토큰이 있으면 저장 전에 두 단계로 확인
+     * - Redis: 메시지 락의 현재 토큰인지 (락이 만료된 사이 다른 워커가 다시 획득했으면, 그 워커가 아직 원격 호출 중이어도 거부)
+     * - DB: 메시지 행에 기록된 토큰보다 큰지 조건부 UPDATE (커밋까지 행 잠금을 잡으므로 확인 후 락이 만료되어도
+     *   더 새 토큰의 저장과 순서가 뒤바뀌지 않음)
+     */
+    private AiResponse insert(AiResponse aiResponse, List<Long> coveredMessageIds) {
+        Long fencingToken = aiResponse.getFencingToken();
+        if (fencingToken != null
+                && (!redisLeaseService.isCurrent(AiResponseService.processingLockKey(aiResponse.getMessageId()), fencingToken)
+                    || messageRepository.advanceFencingToken(aiResponse.getMessageId(), fencingToken) == 0)) {
+            throw new StaleLeaseException("만료된 락으로 생성한 응답 저장 거부: messageId=" + aiResponse.getMessageId()
+                    + ", fencingToken=" + fencingToken);
+        }
+        aiResponse.setActiveMessageId(aiResponse.getMessageId());
+        AiResponse saved = aiResponseRepository.save(aiResponse);
+        List<AiResponseMessage> links = coveredMessageIds.stream()
+                .map(messageId -> AiResponseMessage.builder()
+                        .responseId(saved.getResponseId())
+                        .messageId(messageId)
+                        .build())
+                .toList();
+        aiResponseMessageRepository.saveAll(links);
+        return saved;
+    }
+
+    /**
+     * 재생성 요청: 응답을 거부 상태로 바꾸고 메시지 연결을 해제하여 다시 생성될 수 있게 함
+     *
+     * @return 다시 생성해야 할 메시지 ID 목록 (보낸 순서)
+     */
+    @Transactional
+    public List<Long> rejectForRegeneration(Long responseId) {
+        AiResponse aiResponse = aiResponseRepository.findById(responseId)
+                .orElseThrow(() -> new RuntimeException("AI Response not found: " + responseId));
+        if (aiResponse.getStatus() == AiResponseStatus.SENT) {
+            throw new RuntimeException("이미 전송된 응답은 재생성할 수 없습니다: " + responseId);
+        }
+
+        List<AiResponseMessage> links = aiResponseMessageRepository.findByResponseIdOrderByMessageIdAsc(responseId);
+        List<Long> messageIds = links.isEmpty()
+                ? List.of(aiResponse.getMessageId())
+                : links.stream().map(AiResponseMessage::getMessageId).toList();
+        aiResponseMessageRepository.deleteAll(links);
+
+        aiResponse.setStatus(AiResponseStatus.REJECTED);
+        aiResponse.setActiveMessageId(null);
+        aiResponse.setReviewedAt(OffsetDateTime.now());
+        aiResponseRepository.save(aiResponse);
+        return messageIds;
+    }
+
+    /**
+     * 메시지별 응답 압축: 메시지마다 활성 응답 하나만 남기고, 나머지 검수 대기/승인 응답은 SUPERSEDED로 보관 처리
+     * - 활성 응답: 전송된 응답 > 승인된 응답 > 검수 대기 응답, 같은 상태면 이미 활성인 것 > 가장 최근 것
+     * - 전송된 응답은 학생이 실제로 받은 답이므로 활성이 아니어도 SENT 그대로 둠 (전송 이력/통계 보존)
+     * - 활성이 아닌 응답의 메시지 연결은 활성 응답으로 옮김 (전송 시각 등 나머지 값은 그대로 보존)
+     *
+     * @return 보관 처리된 응답
+     */
+    @Transactional
+    public List<AiResponse> compactMessages(List<Long> messageIds) {
+        Map<Long, List<AiResponse>> byMessage = aiResponseRepository.lockLiveByMessageIds(messageIds).stream()
+                .collect(Collectors.groupingBy(AiResponse::getMessageId, LinkedHashMap::new, Collectors.toList()));
+
+        List<AiResponse> keepers = new ArrayList<>(byMessage.size());
+        List<AiResponse> inactive = new ArrayList<>();
+        List<AiResponse> superseded = new ArrayList<>();
+        Map<Long, Long> keeperByInactiveId = new HashMap<>();
+        for (List<AiResponse> rows : byMessage.values()) {
+            AiResponse keeper = rows.stream().max(KEEPER_ORDER).orElseThrow();
+            keepers.add(keeper);
+            for (AiResponse row : rows) {
+                if (row == keeper) {
+                    continue;
+                }
+                row.setActiveMessageId(null);
+                if (row.getStatus() != AiResponseStatus.SENT) {
+                    row.setStatus(AiResponseStatus.SUPERSEDED);
+                    superseded.add(row);
+                }
+                inactive.add(row);
+                keeperByInactiveId.put(row.getResponseId(), keeper.getResponseId());
+            }
+        }
+
+        // 유니크 제약: 기존 활성 표시 해제를 먼저 반영한 뒤 남길 응답에 표시
+        aiResponseRepository.saveAll(inactive);
+        aiResponseRepository.flush();
+        keepers.forEach(keeper -> keeper.setActiveMessageId(keeper.getMessageId()));
+        aiResponseRepository.saveAll(keepers);
+
+        if (!inactive.isEmpty()) {
+            List<AiResponseMessage> links = aiResponseMessageRepository.findByResponseIdIn(keeperByInactiveId.keySet());
+            links.forEach(link -> link.setResponseId(keeperByInactiveId.get(link.getResponseId())));
+            aiResponseMessageRepository.saveAll(links);
+        }
+        return superseded;
+    }
+
+    /**
+     * 검수 반영: 전송 상태로 변경 + 캐시 신뢰도/답변 갱신 아웃박스 기록 (같은 트랜잭션)
+     * 이미 전송/재생성 요청/대체된 응답은 다시 전송하지 않음 (메시지에 전송 응답이 둘 생기지 않도록)
+     *
+     * @param editedContent 선생님이 수정한 내용 (승인이면 null, 추천 응답을 그대로 전송)
+     */
+    @Transactional
+    public AiResponse markSent(Long responseId, String editedContent) {
+        AiResponse aiResponse = aiResponseRepository.findById(responseId)
+                .orElseThrow(() -> new RuntimeException("AI Response not found: " + responseId));
+        if (FINISHED_STATUSES.contains(aiResponse.getStatus())) {
+            throw new RuntimeException("이미 처리된 응답입니다: " + aiResponse.getStatus());
+        }
+
+        boolean edited = editedContent != null;
+        aiResponse.setFinalResponse(edited ? editedContent : aiResponse.getRecommendedResponse());
+
+        // 전송 성공 후 상태 업데이트
+        OffsetDateTime now = OffsetDateTime.now();
+        aiResponse.setStatus(AiResponseStatus.SENT);
+        aiResponse.setReviewedAt(now);
+        aiResponse.setSentAt(now);
+        AiResponse saved = aiResponseRepository.save(aiResponse);
+
+        // 캐시 신뢰도/답변 갱신은 아웃박스로 (상태 변경과 함께 커밋, 요청 경로 밖에서 처리)
+        outboxService.enqueue(ReviewFeedbackHandler.EVENT_TYPE, responseId,
+                ReviewFeedbackHandler.payload(responseId, edited));
+        return saved;
+    }
+
+    /**
+     * 일괄 검수 반영 (승인 또는 수정 후 전송 처리)
+     * 응답을 한 번에 조회하고, 변경분은 saveAll로 모아 JDBC 배치 UPDATE로 반영한다.
+     * 캐시 신뢰도/답변 갱신은 같은 트랜잭션에 아웃박스 이벤트로 기록하여 요청 경로 밖에서 처리한다.
+     * 이미 전송/재생성 요청/대체된 응답은 건너뛰고 항목별 결과에 사유를 남긴다.
+     *
+     * @return 요청 순서대로의 항목별 결과
+     */
+    @Transactional
+    public List<ReviewOutcome> applyReviewDecisions(List<ReviewDecision> decisions) {
+        Map<Long, AiResponse> responses = aiResponseRepository.findAllById(
+                        decisions.stream().map(ReviewDecision::responseId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(AiResponse::getResponseId, Function.identity()));
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<ReviewOutcome> outcomes = new ArrayList<>(decisions.size());
+        Map<Long, AiResponse> updated = new LinkedHashMap<>();
+        Set<Long> editedResponseIds = new HashSet<>();
+        for (ReviewDecision decision : decisions) {
+            Long responseId = decision.responseId();
+            AiResponse aiResponse = responses.get(responseId);
+            if (aiResponse == null) {
+                outcomes.add(new ReviewOutcome(responseId, null, "AI Response not found: " + responseId));
+                continue;
+            }
+            if (updated.containsKey(responseId)) {
+                outcomes.add(new ReviewOutcome(responseId, null, "같은 요청에 중복된 응답입니다: " + responseId));
+                continue;
+            }
+            if (FINISHED_STATUSES.contains(aiResponse.getStatus())) {
+                outcomes.add(new ReviewOutcome(responseId, null, "이미 처리된 응답입니다: " + aiResponse.getStatus()));
+                continue;
+            }
+
+            boolean edited = decision.editedContent() != null;
+            aiResponse.setFinalResponse(edited ? decision.editedContent() : aiResponse.getRecommendedResponse());
+            aiResponse.setStatus(AiResponseStatus.SENT);
+            aiResponse.setReviewedAt(now);
+            aiResponse.setSentAt(now);
+            updated.put(responseId, aiResponse);
+            if (edited) {
+                editedResponseIds.add(responseId);
+            }
+            outcomes.add(new ReviewOutcome(responseId, aiResponse, null));
+        }
+        if (updated.isEmpty()) {
+            return outcomes;
+        }
+        aiResponseRepository.saveAll(updated.values());
+
+        // 캐시 신뢰도/답변 갱신은 아웃박스로 (같은 트랜잭션에 기록, 처리기가 모아서 처리)
+        outboxService.enqueueAll(updated.keySet().stream()
+                .map(responseId -> outboxService.newEvent(ReviewFeedbackHandler.EVENT_TYPE, responseId,
+                        ReviewFeedbackHandler.payload(responseId, editedResponseIds.contains(responseId))))
+                .toList());
+
+        log.info("일괄 검수 반영: 요청={}, 반영={}, 수정={}", decisions.size(), updated.size(), editedResponseIds.size());
+        return outcomes;
+    }
+
+    private Optional<AiResponse> findCoveringResponse(List<Long> messageIds) {
+        return messageIds.stream()
+                .map(aiResponseMessageRepository::findByMessageId)
+                .flatMap(Optional::stream)
+                .findFirst()
+                .flatMap(link -> aiResponseRepository.findById(link.getResponseId()));
+    }
+
+    /**
+     * 일괄 검수 항목
+     *
+     * @param editedContent 수정한 답변 (null이면 추천 답변 그대로 승인)
+     */
+    public record ReviewDecision(Long responseId, String editedContent) {
+    }
+
+    /**
+     * 일괄 검수 항목별 결과 (성공 시 response, 실패 시 error)
+     */
+    public record ReviewOutcome(Long responseId, AiResponse response, String error) {
+
+        public boolean isSuccess() {
+            return response != null;
+        }
+    }
+
+    /**
+     * 응답 생성에 필요한 메시지/학생 정보 스냅샷
+     *
+     * @param messageId 대표 메시지 ID (묶음의 마지막 메시지)
+     * @param messageIds 응답이 다루는 모든 메시지 ID (보낸 순서)
+     * @param contents 메시지별 내용 (보낸 순서)
+     * @param sentAt 대표 메시지 전송 시간
+     */
+    public record GenerationContext(
+            Long messageId,
+            List<Long> messageIds,
+            Long studentId,
+            List<String> contents,
+            OffsetDateTime sentAt,
+            String registrationStatus,
+            Long assignedTeacherId,
+            String targetUniversity,
+            LocalDateTime studentUpdatedAt,
+            Long fencingToken
+    ) {
+        /**
+         * 메시지 락의 펜싱 토큰을 담은 컨텍스트 (생성한 응답 저장 시 확인)
+         */
+        public GenerationContext withFencingToken(Long fencingToken) {
+            return new GenerationContext(messageId, messageIds, studentId, contents, sentAt, registrationStatus,
+                    assignedTeacherId, targetUniversity, studentUpdatedAt, fencingToken);
+        }
+
+        /**
+         * 묶음 메시지를 하나의 질문으로 합친 내용
+         */
+        public String content() {
+            return contents.stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.joining("\n"));
+        }
+    }
+}
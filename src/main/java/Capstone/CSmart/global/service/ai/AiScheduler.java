@@ -1,19 +1,32 @@
 package Capstone.CSmart.global.service.ai;
 
 import Capstone.CSmart.global.domain.entity.Message;
+import Capstone.CSmart.global.domain.entity.Student;
+import Capstone.CSmart.global.domain.enums.MessageKind;
+import Capstone.CSmart.global.repository.AiResponseMessageRepository;
 import Capstone.CSmart.global.repository.AiResponseRepository;
 import Capstone.CSmart.global.repository.MessageRepository;
+import Capstone.CSmart.global.repository.StudentRepository;
+import Capstone.CSmart.global.service.ai.AiGenerationQueue.Kind;
+import Capstone.CSmart.global.service.ai.AiGenerationQueue.WorkItem;
+import Capstone.CSmart.global.service.ingest.MessageKindBackfill;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -23,84 +36,331 @@ public class AiScheduler {
 
     private final MessageRepository messageRepository;
     private final AiResponseRepository aiResponseRepository;
+    private final AiResponseMessageRepository aiResponseMessageRepository;
+    private final StudentRepository studentRepository;
     private final AiResponseService aiResponseService;
-    private final RedisTemplate<String, String> redisTemplate;
-    
-    private static final String SCHEDULER_LOCK_KEY = "ai_scheduler_processing";
-    private static final long SCHEDULER_LOCK_TTL_SECONDS = 600; // 10분 (스케줄러 실행 최대 시간)
+    private final AiGenerationQueue aiGenerationQueue;
+    private final AiPartitionLeaseManager partitionLeaseManager;
+    private final AiResponseCompactor aiResponseCompactor;
+    private final MessageKindBackfill messageKindBackfill;
+
+    // 메시지 묶음(버스트) 설정: 같은 학생의 연속 메시지 간격이 debounce-window 이내면 하나의 응답으로 생성
+    @Value("${ai.coalescing.debounce-window:20s}")
+    private Duration debounceWindow;
+
+    @Value("${ai.coalescing.max-messages:10}")
+    private int maxMessagesPerBurst;
+
+    // 학생이 계속 입력 중이어도 묶음의 첫 메시지가 이 시간보다 오래되면 더 기다리지 않고 처리
+    @Value("${ai.coalescing.max-wait:2m}")
+    private Duration maxWait;
+
+    // 실행당 최대 처리 작업 수 (나머지는 다음 실행으로, 에이징으로 우선순위 상승)
+    @Value("${ai.queue.max-per-run:30}")
+    private int maxPerRun;
+
+    // 이 길이 이하의 메시지로만 이루어진 묶음은 낮은 우선순위 (예: "네", "ㅇㅋ", "감사합니다")
+    @Value("${ai.queue.low-value-max-length:5}")
+    private int lowValueMaxLength;
 
     /**
-     * 1분 30초마다 신규 메시지를 모아서 LangGraph 배치 처리
-     * - 각 메시지를 개별적으로 처리
-     * - 상담폼은 자동으로 건너뜀
-     * - AI 응답이 없는 신규 메시지만 처리
+     * 1분 30초마다 신규 메시지를 모아서 우선순위 순으로 처리
+     * - 이 노드가 임대한 파티션(studentId mod partition-count)의 학생만 처리하여 노드 수만큼 동시에 생성
+     *   (같은 학생은 한 파티션에 속하므로 한 노드에서 보낸 순서대로 처리됨)
+     * - 파티션별 워터마크 이후의 미처리 메시지 + 선생님 재생성 요청을 작업 큐로 구성
+     * - 같은 학생이 연달아 보낸 메시지는 하나로 묶어 응답 하나만 생성
+     * - 우선순위(재생성 > 선생님 배정 학생 > 일반 > 단답) + 대기 시간 에이징 순으로 실행당 최대 max-per-run개 처리
+     * - 상담폼은 저장 시 분류된 messageKind로 조회 단계에서 제외
+     * - 처리하지 못한 작업(미룸/실패/한도 초과)은 워터마크를 넘기지 않아 다음 실행에서 다시 처리
+     * - 과거 응답 압축이 끝나기 전에는 실행하지 않음 (활성 표시 없는 과거 응답이 있는 메시지에 중복 초안 방지)
+     * - 과거 메시지 종류 채우기가 끝나기 전에도 실행하지 않음 (종류가 없는 메시지는 조회에 잡히지 않음)
      */
     @Scheduled(fixedDelay = 90000)  // 1분 30초 = 90,000ms
     public void processPendingMessages() {
-        // Redis 분산 락으로 중복 실행 방지
-        Boolean lockAcquired = redisTemplate.opsForValue().setIfAbsent(
-                SCHEDULER_LOCK_KEY, "processing", SCHEDULER_LOCK_TTL_SECONDS, TimeUnit.SECONDS);
-        
-        if (Boolean.FALSE.equals(lockAcquired)) {
-            log.warn("AI 스케줄러가 이미 실행 중입니다. 중복 실행 방지.");
+        if (!aiResponseCompactor.isCaughtUp()) {
+            log.info("과거 AI 응답 압축이 끝나지 않아 이번 실행을 건너뜁니다.");
+            return;
+        }
+        if (!messageKindBackfill.isCaughtUp()) {
+            log.info("과거 메시지 종류 채우기가 끝나지 않아 이번 실행을 건너뜁니다.");
+            return;
+        }
+
+        Set<Integer> partitions = partitionLeaseManager.ownedPartitions();
+        if (partitions.isEmpty()) {
+            log.debug("임대한 AI 파티션이 없어 이번 실행을 건너뜁니다.");
             return;
         }
 
-        try {
-            OffsetDateTime since = OffsetDateTime.now().minusMinutes(30);
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<Integer, OffsetDateTime> watermarks = new HashMap<>();
+        for (Integer partition : partitions) {
+            watermarks.put(partition, aiGenerationQueue.getWatermark(partition, now));
+        }
+        OffsetDateTime since = Collections.min(watermarks.values());
 
-            log.info("AI 스케줄러 시작: 최근 30분간 신규 메시지 개별 처리");
+        log.info("AI 스케줄러 시작: partitions={}, watermark={} 이후 신규 메시지 + 재생성 요청 처리", partitions, since);
 
-        // AI 응답이 없는 메시지만 필터링 (가장 최근 것만 확인)
-        List<Message> inboundMessages = messageRepository.findAll().stream()
-                .filter(m -> "student".equals(m.getSenderType()))
-                .filter(m -> m.getSentAt() != null && m.getSentAt().isAfter(since))
-                .filter(m -> aiResponseRepository.findTopByMessageIdOrderByGeneratedAtDesc(m.getMessageId()).isEmpty())
-                .sorted((m1, m2) -> m1.getSentAt().compareTo(m2.getSentAt())) // 오래된 순
+        // 상담폼은 저장 시 분류된 messageKind로 조회 단계에서 제외 (락/예외/반복 확인 없음)
+        // 가장 이른 파티션 워터마크로 조회한 뒤 파티션별 워터마크 이후 메시지만 사용
+        List<Message> recentMessages = messageRepository.findInboundMessagesAfterInPartitions(
+                        "student", since, MessageKind.CONSULTATION_FORM, partitionLeaseManager.partitionCount(), partitions)
+                .stream()
+                .filter(m -> m.getSentAt().isAfter(watermarks.get(partitionLeaseManager.partitionOf(m.getStudentId()))))
                 .toList();
 
-        if (inboundMessages.isEmpty()) {
+        // 선생님 재생성 요청 (워터마크와 무관하게 처리, 이 노드의 파티션 학생만)
+        List<WorkItem> regenerations = withStudentIds(aiGenerationQueue.pendingRegenerations()).stream()
+                .filter(item -> partitions.contains(partitionOf(item)))
+                .toList();
+        Set<Long> regeneratingMessageIds = regenerations.stream()
+                .flatMap(item -> item.messageIds().stream())
+                .collect(Collectors.toSet());
+
+        // 이미 AI 응답에 포함된 메시지 제외 (묶음 연결 + 대표 메시지, 재생성 요청으로 거부된 응답은 제외)
+        List<Long> recentMessageIds = recentMessages.stream().map(Message::getMessageId).toList();
+        Set<Long> coveredMessageIds = recentMessages.isEmpty() ? Set.of() : new HashSet<>(
+                aiResponseMessageRepository.findCoveredMessageIds(recentMessageIds));
+        Set<Long> activeMessageIds = recentMessages.isEmpty() ? Set.of() : new HashSet<>(
+                aiResponseRepository.findActiveMessageIdsIn(recentMessageIds));
+
+        List<Message> inboundMessages = recentMessages.stream()
+                .filter(m -> !coveredMessageIds.contains(m.getMessageId()))
+                .filter(m -> !regeneratingMessageIds.contains(m.getMessageId()))
+                .filter(m -> !activeMessageIds.contains(m.getMessageId()))
+                .sorted(Comparator.comparing(Message::getSentAt).thenComparing(Message::getMessageId)) // 오래된 순
+                .toList();
+
+        List<List<Message>> deferred = new ArrayList<>();
+        List<List<Message>> bursts = groupIntoBursts(inboundMessages, now, deferred);
+
+        List<WorkItem> items = new ArrayList<>(regenerations);
+        items.addAll(toWorkItems(bursts));
+        List<WorkItem> ordered = aiGenerationQueue.order(items, now);
+
+        if (ordered.isEmpty()) {
             log.info("처리할 신규 메시지가 없습니다.");
+            finishRun(recentMessages, List.of(), deferred, now, watermarks);
             return;
         }
 
-        log.info("{}개의 미처리 메시지 발견", inboundMessages.size());
+        log.info("{}개의 미처리 메시지 발견, 작업 {}개 (재생성 {}개), 이번 실행 최대 {}개 처리",
+                inboundMessages.size(), ordered.size(), regenerations.size(), maxPerRun);
 
         int processedCount = 0;
-        int skippedCount = 0;
         int failedCount = 0;
+        int postponedCount = 0;
+        int handedOverCount = 0;
+        List<WorkItem> remaining = new ArrayList<>();
+
+        // 재시도 백오프 중인 작업은 이번 실행에서 제외 (처리 한도를 차지하지 않음)
+        List<WorkItem> due = new ArrayList<>();
+        for (WorkItem item : ordered) {
+            if (aiGenerationQueue.isBackingOff(item, now)) {
+                remaining.add(item);
+            } else {
+                due.add(item);
+            }
+        }
+
+        // ✅ 우선순위 순으로 묶음 단위 처리 (단일 메시지는 크기 1인 묶음)
+        for (int i = 0; i < due.size(); i++) {
+            WorkItem item = due.get(i);
+            if (i >= maxPerRun) {
+                remaining.add(item);
+                continue;
+            }
+            // 실행 도중 노드 추가로 반납했거나 임대가 만료된 파티션은 새 소유자가 처리
+            if (!partitionLeaseManager.stillOwns(partitionOf(item))) {
+                handedOverCount++;
+                remaining.add(item);
+                continue;
+            }
 
-        // ✅ 각 메시지를 개별적으로 처리
-        for (Message message : inboundMessages) {
             try {
-                log.info("메시지 처리 중: messageId={}, studentId={}",
-                        message.getMessageId(), message.getStudentId());
+                log.info("메시지 처리 중: messageIds={}, kind={}, priority={}",
+                        item.messageIds(), item.kind(), String.format("%.1f", aiGenerationQueue.priority(item, now)));
 
-                // AI 응답 생성 (상담폼은 AiResponseService에서 자동으로 건너뜀)
-                aiResponseService.generateResponse(message.getMessageId());
+                // AI 응답 생성
+                aiResponseService.generateResponse(item.messageIds());
+                aiGenerationQueue.complete(item);
                 processedCount++;
 
+            } catch (AiGenerationDeferredException e) {
+                // LangGraph 장애 + 대체 초안도 실패: 시도 횟수를 소모하지 않고 백오프 후 재시도
+                postponedCount++;
+                remaining.add(item);
+                log.warn("메시지 처리 보류 (외부 API 장애, {}초 후 재시도): messageIds={}, reason={}",
+                        aiGenerationQueue.defer(item).toSeconds(), item.messageIds(), e.getMessage());
             } catch (Exception e) {
-                // 상담폼인 경우 에러가 발생하지만 정상 동작
-                if (e.getMessage().contains("상담폼")) {
-                    skippedCount++;
-                    log.info("상담폼 메시지 건너뜀: messageId={}", message.getMessageId());
+                failedCount++;
+                if (aiGenerationQueue.recordFailure(item)) {
+                    remaining.add(item);
+                    log.error("메시지 처리 실패 (다음 실행에서 재시도): messageIds={}, error={}",
+                            item.messageIds(), e.getMessage(), e);
                 } else {
-                    failedCount++;
-                    log.error("메시지 처리 실패: messageId={}, error={}",
-                            message.getMessageId(), e.getMessage(), e);
+                    aiGenerationQueue.complete(item);
+                    log.error("메시지 처리 실패 (최대 시도 횟수 초과, 포기): messageIds={}, error={}",
+                            item.messageIds(), e.getMessage(), e);
+                }
+            }
+        }
+
+        finishRun(recentMessages, remaining, deferred, now, watermarks);
+
+        log.info("AI 스케줄러 완료: 처리={}, 실패={}, 보류(장애)={}, 파티션 이관={}, 남은 작업={}",
+                processedCount, failedCount, postponedCount, handedOverCount, remaining.size() + deferred.size());
+    }
+
+    /**
+     * 파티션별 워터마크 갱신 + 큐 메트릭 갱신
+     * 남은 작업(미룸/재시도/한도 초과) 중 가장 오래된 메시지 직전까지만 워터마크를 진행한다.
+     * 실행 도중 임대를 잃은 파티션의 워터마크는 새 소유자에게 맡기고 건드리지 않는다.
+     */
+    private void finishRun(List<Message> recentMessages, List<WorkItem> remaining, List<List<Message>> deferred,
+                           OffsetDateTime now, Map<Integer, OffsetDateTime> watermarks) {
+        List<WorkItem> pending = new ArrayList<>(remaining);
+        pending.addAll(toWorkItems(deferred));
+        pending.addAll(aiGenerationQueue.pendingRegenerations().stream()
+                .filter(item -> remaining.stream().noneMatch(r -> r.messageIds().equals(item.messageIds())))
+                .toList());
+
+        Set<Long> pendingMessageIds = pending.stream()
+                .filter(item -> item.kind() != Kind.REGENERATION)
+                .map(item -> item.messageIds().get(0))
+                .collect(Collectors.toSet());
+
+        Map<Integer, List<Message>> messagesByPartition = recentMessages.stream()
+                .collect(Collectors.groupingBy(m -> partitionLeaseManager.partitionOf(m.getStudentId())));
+
+        watermarks.forEach((partition, watermark) -> {
+            if (!partitionLeaseManager.stillOwns(partition)) {
+                return;
+            }
+            List<Message> messages = messagesByPartition.getOrDefault(partition, List.of());
+            OffsetDateTime next = messages.stream()
+                    .filter(m -> pendingMessageIds.contains(m.getMessageId()))
+                    .map(m -> m.getSentAt().minusNanos(1))
+                    .findFirst()
+                    .orElseGet(() -> messages.isEmpty()
+                            ? watermark
+                            : messages.get(messages.size() - 1).getSentAt());
+            aiGenerationQueue.advanceWatermark(partition, next, now);
+        });
+        aiGenerationQueue.updateMetrics(pending, now);
+    }
+
+    /**
+     * 작업이 속한 파티션 (학생을 찾지 못한 재생성 요청은 0번 파티션에서 처리하여 재시도 후 정리)
+     */
+    private int partitionOf(WorkItem item) {
+        return item.studentId() == null ? 0 : partitionLeaseManager.partitionOf(item.studentId());
+    }
+
+    /**
+     * 메시지 묶음을 작업 단위로 변환 (학생 상태/내용으로 우선순위 종류 결정)
+     */
+    private List<WorkItem> toWorkItems(List<List<Message>> bursts) {
+        Set<Long> studentIds = bursts.stream().map(b -> b.get(0).getStudentId()).collect(Collectors.toSet());
+        Map<Long, Student> students = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getStudentId, student -> student));
+
+        return bursts.stream()
+                .map(burst -> new WorkItem(
+                        burst.stream().map(Message::getMessageId).toList(),
+                        burst.get(0).getStudentId(),
+                        burst.get(0).getSentAt(),
+                        classify(burst, students.get(burst.get(0).getStudentId()))))
+                .toList();
+    }
+
+    /**
+     * 작업 종류 결정
+     * - 선생님이 배정된 학생(Transfer 후): 선생님이 검수 후 답변을 기다리므로 우선 처리
+     * - 짧은 단답(네, ㅇㅋ 등)만 있는 묶음: 낮은 우선순위
+     */
+    private Kind classify(List<Message> burst, Student student) {
+        if (student != null && "TRANSFERRED_TO_TEACHER".equals(student.getRegistrationStatus())
+                && student.getAssignedTeacherId() != null) {
+            return Kind.TRANSFERRED;
+        }
+        boolean lowValue = burst.stream()
+                .map(Message::getContent)
+                .allMatch(content -> content == null || content.strip().length() <= lowValueMaxLength);
+        return lowValue ? Kind.LOW_VALUE : Kind.DEFAULT;
+    }
+
+    /**
+     * 재생성 요청에 학생 ID 채우기 (학생 단위 순서 유지용)
+     */
+    private List<WorkItem> withStudentIds(List<WorkItem> regenerations) {
+        if (regenerations.isEmpty()) {
+            return regenerations;
+        }
+        Map<Long, Long> studentIdByMessageId = messageRepository.findAllById(regenerations.stream()
+                        .map(WorkItem::anchorMessageId)
+                        .toList()).stream()
+                .collect(Collectors.toMap(Message::getMessageId, Message::getStudentId));
+        return regenerations.stream()
+                .map(item -> item.withStudentId(studentIdByMessageId.get(item.anchorMessageId())))
+                .toList();
+    }
+
+    /**
+     * 학생별로 연속 메시지를 묶음으로 분할
+     * - 직전 메시지와의 간격이 debounce-window 이내이고 최대 개수 미만이면 같은 묶음
+     * - 마지막 묶음의 마지막 메시지가 아직 debounce-window 안이면 학생이 입력 중일 수 있으므로 다음 실행으로 미룸
+     *   (단, 묶음의 첫 메시지가 max-wait보다 오래되었으면 바로 처리)
+     *
+     * @param deferred 다음 실행으로 미룬 묶음을 담을 목록
+     * @return 메시지 묶음 목록 (묶음 내부는 보낸 순서, 묶음은 첫 메시지가 오래된 순)
+     */
+    List<List<Message>> groupIntoBursts(List<Message> messages, OffsetDateTime now,
+                                        List<List<Message>> deferred) {
+        Map<Long, List<Message>> byStudent = messages.stream()
+                .collect(Collectors.groupingBy(Message::getStudentId, LinkedHashMap::new, Collectors.toList()));
+
+        List<List<Message>> bursts = new ArrayList<>();
+
+        for (List<Message> studentMessages : byStudent.values()) {
+            List<Message> burst = new ArrayList<>();
+            for (Message message : studentMessages) {
+                if (!burst.isEmpty() && !canJoin(burst, message)) {
+                    bursts.add(burst);
+                    burst = new ArrayList<>();
                 }
+                burst.add(message);
+            }
+
+            if (burst.isEmpty()) {
+                continue;
+            }
+            if (isStillOpen(burst, now)) {
+                deferred.add(burst);
+                log.debug("입력 중인 메시지 묶음, 다음 실행으로 미룸: studentId={}, size={}",
+                        burst.get(0).getStudentId(), burst.size());
+            } else {
+                bursts.add(burst);
             }
         }
 
-            log.info("AI 스케줄러 완료: 처리={}, 스킵(상담폼)={}, 실패={}",
-                    processedCount, skippedCount, failedCount);
-        } finally {
-            // 처리 완료 후 락 해제
-            redisTemplate.delete(SCHEDULER_LOCK_KEY);
-            log.debug("AI 스케줄러 락 해제");
+        if (!deferred.isEmpty()) {
+            log.info("입력 중인 메시지 묶음 {}개를 다음 실행으로 미룸", deferred.size());
         }
+
+        return bursts;
     }
-}
 
+    private boolean canJoin(List<Message> burst, Message next) {
+        Message previous = burst.get(burst.size() - 1);
+        return burst.size() < maxMessagesPerBurst
+                && Duration.between(previous.getSentAt(), next.getSentAt()).compareTo(debounceWindow) <= 0;
+    }
 
+    private boolean isStillOpen(List<Message> burst, OffsetDateTime now) {
+        Message last = burst.get(burst.size() - 1);
+        return burst.size() < maxMessagesPerBurst
+                && Duration.between(last.getSentAt(), now).compareTo(debounceWindow) < 0
+                && Duration.between(burst.get(0).getSentAt(), now).compareTo(maxWait) < 0;
+    }
+}
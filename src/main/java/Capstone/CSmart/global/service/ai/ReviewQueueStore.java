@@ -0,0 +1,257 @@
+package Capstone.CSmart.global.service.ai;
+
+import Capstone.CSmart.global.domain.entity.AiResponse;
+import Capstone.CSmart.global.domain.enums.AiResponseStatus;
+import Capstone.CSmart.global.repository.AiResponseRepository;
+import Capstone.CSmart.global.service.lock.RedisLease;
+import Capstone.CSmart.global.service.lock.RedisLeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * 선생님별 검수 대기열 (Redis Sorted Set)
+ * - 키: review_queue:{teacherId} (전체 대기열은 review_queue:all), 멤버: 19자리 0 채움 responseId, 점수: 생성 시각(epoch ms)
+ *   멤버를 0으로 채워 같은 점수 안에서도 (generatedAt, responseId) 순서가 유지되므로 키셋 커서를 그대로 쓸 수 있다.
+ * - 응답 생성 시 추가, 승인/수정 전송/재생성 요청 시 제거
+ * - review_queue_synced:{owner} 표시가 없으면(최초, 만료, Redis 초기화) MySQL에서 다시 구성
+ *   (재구성 중 추가/제거는 임시 키에도 반영하여 누락 방지, 표시 TTL마다 주기적으로 다시 맞춤)
+ * - Redis 장애나 재구성 중에는 empty를 반환하여 호출 측이 MySQL 조회로 대체
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewQueueStore {
+
+    private static final String QUEUE_PREFIX = "review_queue:";
+    private static final String SYNCED_PREFIX = "review_queue_synced:";
+    private static final String REBUILD_LOCK_PREFIX = "review_queue_rebuild_lock:";
+    private static final String REBUILDING_SUFFIX = ":rebuilding";
+    private static final String ALL_OWNER = "all";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofSeconds(30);
+    private static final OffsetDateTime REBUILD_START_AT = OffsetDateTime.parse("9999-12-31T23:59:59Z");
+
+    private final AiResponseRepository aiResponseRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisLeaseService redisLeaseService;
+
+    @Value("${ai.review-queue.redis.enabled:true}")
+    private boolean enabled;
+
+    // 이 간격마다 MySQL 기준으로 다시 구성 (누락/잔여 항목 정리)
+    @Value("${ai.review-queue.redis.resync-interval:10m}")
+    private Duration resyncInterval;
+
+    @Value("${ai.review-queue.redis.rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    /**
+     * 검수 대기 응답 추가 (생성 트랜잭션 커밋 후 호출)
+     */
+    public void add(AiResponse aiResponse) {
+        if (!enabled || aiResponse.getStatus() != AiResponseStatus.PENDING_REVIEW || aiResponse.getGeneratedAt() == null) {
+            return;
+        }
+        try {
+            double score = score(aiResponse.getGeneratedAt());
+            String member = member(aiResponse.getResponseId());
+            for (String owner : owners(aiResponse.getTeacherId())) {
+                redisTemplate.opsForZSet().add(QUEUE_PREFIX + owner, member, score);
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(REBUILD_LOCK_PREFIX + owner))) {
+                    redisTemplate.opsForZSet().add(QUEUE_PREFIX + owner + REBUILDING_SUFFIX, member, score);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("검수 대기열 추가 실패: responseId={}, error={}", aiResponse.getResponseId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 검수 대기열에서 제거 (승인/수정 전송, 재생성 요청, 삭제 시)
+     */
+    public void remove(AiResponse aiResponse) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String member = member(aiResponse.getResponseId());
+            for (String owner : owners(aiResponse.getTeacherId())) {
+                redisTemplate.opsForZSet().remove(QUEUE_PREFIX + owner, member);
+                redisTemplate.opsForZSet().remove(QUEUE_PREFIX + owner + REBUILDING_SUFFIX, member);
+            }
+        } catch (Exception e) {
+            log.warn("검수 대기열 제거 실패: responseId={}, error={}", aiResponse.getResponseId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 검수 대기 건수 (ZCARD)
+     *
+     * @param teacherId 담당 선생님 (null이면 전체)
+     * @return 사용할 수 없으면 empty
+     */
+    public OptionalLong count(Long teacherId) {
+        String owner = owner(teacherId);
+        try {
+            if (!ensureSynced(teacherId, owner)) {
+                return OptionalLong.empty();
+            }
+            Long size = redisTemplate.opsForZSet().zCard(QUEUE_PREFIX + owner);
+            return size == null ? OptionalLong.empty() : OptionalLong.of(size);
+        } catch (Exception e) {
+            log.warn("검수 대기 건수 조회 실패: owner={}, error={}", owner, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * 커서 이후의 응답 ID 조회 (최신순, ZREVRANGEBYSCORE)
+     *
+     * @param cursorGeneratedAt 이전 페이지 마지막 항목의 생성 시각 (첫 페이지는 먼 미래)
+     * @param cursorResponseId 이전 페이지 마지막 항목의 ID (첫 페이지는 Long.MAX_VALUE)
+     * @param count 조회 개수
+     * @return 사용할 수 없으면 empty
+     */
+    public Optional<List<Long>> page(Long teacherId, OffsetDateTime cursorGeneratedAt, Long cursorResponseId, int count) {
+        String owner = owner(teacherId);
+        try {
+            if (!ensureSynced(teacherId, owner)) {
+                return Optional.empty();
+            }
+            String key = QUEUE_PREFIX + owner;
+            double maxScore = score(cursorGeneratedAt);
+            String cursorMember = member(cursorResponseId);
+
+            // 커서와 같은 점수의 앞선 항목은 건너뜀 (같은 ms에 생성된 응답이 드물게 있을 수 있음)
+            List<Long> responseIds = new ArrayList<>(count);
+            long offset = 0;
+            while (responseIds.size() < count) {
+                Set<TypedTuple<String>> batch = redisTemplate.opsForZSet()
+                        .reverseRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, maxScore, offset, count);
+                if (batch == null || batch.isEmpty()) {
+                    break;
+                }
+                for (TypedTuple<String> tuple : batch) {
+                    boolean afterCursor = tuple.getScore() < maxScore || tuple.getValue().compareTo(cursorMember) < 0;
+                    if (afterCursor && responseIds.size() < count) {
+                        responseIds.add(Long.parseLong(tuple.getValue()));
+                    }
+                }
+                if (batch.size() < count) {
+                    break;
+                }
+                offset += batch.size();
+            }
+            return Optional.of(responseIds);
+        } catch (Exception e) {
+            log.warn("검수 대기열 조회 실패: owner={}, error={}", owner, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 다음 조회 시 MySQL에서 다시 구성하도록 표시 삭제
+     */
+    public void invalidate(Long teacherId) {
+        try {
+            redisTemplate.delete(SYNCED_PREFIX + owner(teacherId));
+        } catch (Exception e) {
+            log.warn("검수 대기열 무효화 실패: teacherId={}, error={}", teacherId, e.getMessage());
+        }
+    }
+
+    /**
+     * 동기화 표시가 없으면 재구성
+     *
+     * @return 대기열을 읽어도 되면 true (다른 인스턴스가 재구성 중이면 false)
+     */
+    private boolean ensureSynced(Long teacherId, String owner) {
+        if (!enabled) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(SYNCED_PREFIX + owner))) {
+            return true;
+        }
+        Optional<RedisLease> lease = redisLeaseService.tryAcquire(REBUILD_LOCK_PREFIX + owner, REBUILD_LOCK_TTL);
+        if (lease.isEmpty()) {
+            return false;
+        }
+        try (RedisLease ignored = lease.get()) {
+            rebuild(teacherId, owner);
+            return true;
+        }
+    }
+
+    /**
+     * MySQL 검수 대기열(메시지별 최신 응답)로 임시 키를 채운 뒤 RENAME으로 교체
+     */
+    private void rebuild(Long teacherId, String owner) {
+        String key = QUEUE_PREFIX + owner;
+        String rebuildingKey = key + REBUILDING_SUFFIX;
+        String status = AiResponseStatus.PENDING_REVIEW.name();
+
+        OffsetDateTime cursorGeneratedAt = REBUILD_START_AT;
+        Long cursorResponseId = Long.MAX_VALUE;
+        int total = 0;
+        while (true) {
+            List<AiResponse> rows = teacherId != null
+                    ? aiResponseRepository.findLatestPerMessageForTeacher(
+                            teacherId, status, cursorGeneratedAt, cursorResponseId, rebuildBatchSize)
+                    : aiResponseRepository.findLatestPerMessage(
+                            status, cursorGeneratedAt, cursorResponseId, rebuildBatchSize);
+            Set<TypedTuple<String>> tuples = new HashSet<>();
+            for (AiResponse row : rows) {
+                if (row.getGeneratedAt() != null) {
+                    tuples.add(new DefaultTypedTuple<>(member(row.getResponseId()), score(row.getGeneratedAt())));
+                }
+            }
+            if (!tuples.isEmpty()) {
+                redisTemplate.opsForZSet().add(rebuildingKey, tuples);
+            }
+            total += rows.size();
+            if (rows.size() < rebuildBatchSize) {
+                break;
+            }
+            AiResponse last = rows.get(rows.size() - 1);
+            cursorGeneratedAt = last.getGeneratedAt();
+            cursorResponseId = last.getResponseId();
+        }
+
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(rebuildingKey))) {
+            redisTemplate.rename(rebuildingKey, key);
+        } else {
+            redisTemplate.delete(key);
+        }
+        redisTemplate.opsForValue().set(SYNCED_PREFIX + owner, OffsetDateTime.now().toString(), resyncInterval);
+        log.info("검수 대기열 재구성 완료: owner={}, 건수={}", owner, total);
+    }
+
+    private static List<String> owners(Long teacherId) {
+        return teacherId == null ? List.of(ALL_OWNER) : List.of(ALL_OWNER, teacherId.toString());
+    }
+
+    private static String owner(Long teacherId) {
+        return teacherId == null ? ALL_OWNER : teacherId.toString();
+    }
+
+    private static double score(OffsetDateTime generatedAt) {
+        return generatedAt.toInstant().toEpochMilli();
+    }
+
+    private static String member(Long responseId) {
+        return String.format("%019d", responseId);
+    }
+}
@@ -4,6 +4,7 @@ import Capstone.CSmart.global.domain.entity.AiResponse;
 import Capstone.CSmart.global.domain.entity.Message;
 import Capstone.CSmart.global.domain.entity.SemanticCache;
 import Capstone.CSmart.global.domain.enums.AiResponseStatus;
+import Capstone.CSmart.global.domain.enums.CacheNamespace;
 import Capstone.CSmart.global.repository.AiResponseRepository;
 import Capstone.CSmart.global.repository.MessageRepository;
 import lombok.RequiredArgsConstructor;
@@ -94,7 +95,8 @@ public class CacheWarmupService {
                         message.getContent(),
                         aiResponse.getFinalResponse(),
                         aiResponse.getResponseId(),
-                        confidenceScore
+                        confidenceScore,
+                        CacheNamespace.of(aiResponse.getGenerationSource())
                     );
 
                     successCount.incrementAndGet();
@@ -179,7 +181,8 @@ public class CacheWarmupService {
                         message.getContent(),
                         aiResponse.getFinalResponse(),
                         aiResponse.getResponseId(),
-                        confidenceScore
+                        confidenceScore,
+                        CacheNamespace.of(aiResponse.getGenerationSource())
                     );
 
                     successCount.incrementAndGet();
@@ -0,0 +1,90 @@
+package Capstone.CSmart.global.service.cache;
+
+import Capstone.CSmart.global.domain.entity.AiResponse;
+import Capstone.CSmart.global.domain.entity.OutboxEvent;
+import Capstone.CSmart.global.domain.entity.SemanticCache;
+import Capstone.CSmart.global.repository.AiResponseRepository;
+import Capstone.CSmart.global.repository.SemanticCacheRepository;
+import Capstone.CSmart.global.service.confidence.ConfidenceScoreService;
+import Capstone.CSmart.global.service.outbox.OutboxEventHandler;
+import Capstone.CSmart.global.service.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 검수 완료(승인/수정 후 전송) 후속 처리: 캐시 신뢰도 재계산과 수정된 답변 반영
+ * 선생님 요청 경로에서는 아웃박스 이벤트만 기록하고, 여기서 모아서 처리한다.
+ * 응답의 현재 상태(finalResponse)로 다시 계산하므로 같은 이벤트를 여러 번 처리해도 결과가 같다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewFeedbackHandler implements OutboxEventHandler {
+
+    public static final String EVENT_TYPE = "AI_RESPONSE_REVIEWED";
+
+    private final AiResponseRepository aiResponseRepository;
+    private final SemanticCacheRepository semanticCacheRepository;
+    private final ConfidenceScoreService confidenceScoreService;
+    private final SemanticCacheService semanticCacheService;
+    private final OutboxService outboxService;
+
+    /**
+     * 이벤트 내용
+     *
+     * @param responseId 검수된 응답
+     * @param edited 선생님이 답변을 수정했는지 (수정했으면 캐시 답변도 finalResponse로 교체)
+     */
+    public static Map<String, Object> payload(Long responseId, boolean edited) {
+        return Map.of("responseId", responseId, "edited", edited);
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Set<Long> responseIds = new HashSet<>();
+        Set<Long> editedResponseIds = new HashSet<>();
+        for (OutboxEvent event : events) {
+            Map<String, Object> payload = outboxService.readPayload(event);
+            Long responseId = ((Number) payload.get("responseId")).longValue();
+            responseIds.add(responseId);
+            if (Boolean.TRUE.equals(payload.get("edited"))) {
+                editedResponseIds.add(responseId);
+            }
+        }
+
+        Map<Long, AiResponse> responses = aiResponseRepository.findAllById(responseIds).stream()
+                .collect(Collectors.toMap(AiResponse::getResponseId, Function.identity()));
+        List<SemanticCache> caches = semanticCacheRepository.findAllByOriginalResponseIdIn(responseIds);
+
+        List<Long> editedCacheIds = new ArrayList<>();
+        for (SemanticCache cache : caches) {
+            AiResponse aiResponse = responses.get(cache.getOriginalResponseId());
+            if (aiResponse == null) {
+                continue;
+            }
+            cache.setConfidenceScore(confidenceScoreService.calculateConfidenceScore(aiResponse, cache));
+            if (editedResponseIds.contains(aiResponse.getResponseId()) && aiResponse.getFinalResponse() != null) {
+                cache.setAnswer(aiResponse.getFinalResponse());
+                editedCacheIds.add(cache.getCacheId());
+            }
+        }
+        semanticCacheRepository.saveAll(caches);
+        semanticCacheService.evictRedisCopies(editedCacheIds);
+
+        log.info("검수 후속 처리 완료: 이벤트={}, 캐시 갱신={}, 답변 수정={}", events.size(), caches.size(), editedCacheIds.size());
+    }
+}
@@ -0,0 +1,135 @@
+package Capstone.CSmart.global.service.cache;
+
+import Capstone.CSmart.global.domain.entity.AiResponse;
+import Capstone.CSmart.global.domain.entity.OutboxEvent;
+import Capstone.CSmart.global.domain.enums.AiResponseStatus;
+import Capstone.CSmart.global.domain.enums.CacheNamespace;
+import Capstone.CSmart.global.repository.AiResponseRepository;
+import Capstone.CSmart.global.service.cache.SemanticCacheService.CacheInsert;
+import Capstone.CSmart.global.service.confidence.ConfidenceScoreService;
+import Capstone.CSmart.global.service.outbox.OutboxEventHandler;
+import Capstone.CSmart.global.service.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 새로 생성된 응답의 시멘틱 캐시 적재
+ * AiResponse 저장과 같은 트랜잭션에 아웃박스 이벤트로 기록되고, 여기서 모아서 한 번에 적재한다.
+ * - 캐시 검색 때 계산한 질문 임베딩을 이벤트에 담아 재사용 (캐시 미스당 임베딩 호출 1회 절감)
+ * - 임베딩이 없는 이벤트는 prepare(트랜잭션 밖)에서 한 번에 생성하여 이벤트 내용에 저장
+ * - 같은 응답 또는 같은 구역/질문으로 이미 적재된 캐시가 있으면 건너뛰므로 재시도해도 한 번만 적재됨
+ * - 적재 전에 재생성 요청(REJECTED)된 응답은 적재하지 않고, 이미 검수된 응답은 최종 답변과 신뢰도로 적재
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SemanticCacheInsertHandler implements OutboxEventHandler {
+
+    public static final String EVENT_TYPE = "SEMANTIC_CACHE_INSERT";
+    private static final double DEFAULT_CONFIDENCE = 0.5;
+
+    private final AiResponseRepository aiResponseRepository;
+    private final SemanticCacheService semanticCacheService;
+    private final ConfidenceScoreService confidenceScoreService;
+    private final OutboxService outboxService;
+
+    /**
+     * 이벤트 내용
+     *
+     * @param namespace 적재할 캐시 구역
+     * @param question 캐시에 저장할 질문
+     * @param queryEmbedding 캐시 검색 때 계산한 질문 임베딩 (없으면 null)
+     */
+    public static Map<String, Object> payload(Long responseId, CacheNamespace namespace, String question, List<Double> queryEmbedding) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("responseId", responseId);
+        payload.put("namespace", namespace.name());
+        payload.put("question", question);
+        payload.put("embedding", queryEmbedding);
+        return payload;
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void prepare(List<OutboxEvent> events) {
+        Map<Long, Map<String, Object>> missing = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            Map<String, Object> payload = outboxService.readPayload(event);
+            if (payload.get("embedding") == null) {
+                missing.put(event.getId(), payload);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Double>> embeddings = semanticCacheService.embedQuestions(missing.values().stream()
+                .map(payload -> (String) payload.get("question"))
+                .distinct()
+                .toList());
+        missing.forEach((eventId, payload) -> {
+            List<Double> embedding = embeddings.get((String) payload.get("question"));
+            if (embedding != null) {
+                payload.put("embedding", embedding);
+                outboxService.updatePayload(eventId, payload);
+            }
+        });
+        log.info("캐시 적재용 임베딩 준비: 대상={}, 생성={}", missing.size(), embeddings.size());
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        List<Map<String, Object>> payloads = events.stream().map(outboxService::readPayload).toList();
+        Map<Long, AiResponse> responses = aiResponseRepository.findAllById(payloads.stream()
+                        .map(payload -> ((Number) payload.get("responseId")).longValue())
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(AiResponse::getResponseId, Function.identity()));
+
+        List<CacheInsert> inserts = new ArrayList<>(payloads.size());
+        for (Map<String, Object> payload : payloads) {
+            AiResponse aiResponse = responses.get(((Number) payload.get("responseId")).longValue());
+            if (aiResponse == null || aiResponse.getStatus() == AiResponseStatus.REJECTED) {
+                continue;
+            }
+            boolean reviewed = aiResponse.getStatus() != AiResponseStatus.PENDING_REVIEW;
+            String answer = aiResponse.getFinalResponse() != null ? aiResponse.getFinalResponse() : aiResponse.getRecommendedResponse();
+            double confidence = reviewed ? confidenceScoreService.calculateConfidenceScore(aiResponse, null) : DEFAULT_CONFIDENCE;
+            inserts.add(new CacheInsert(namespace(payload), (String) payload.get("question"), answer,
+                    aiResponse.getResponseId(), confidence, toVector(payload.get("embedding"))));
+        }
+        if (!inserts.isEmpty()) {
+            semanticCacheService.insertAll(inserts);
+        }
+    }
+
+    // 구역 도입 전에 기록된 이벤트는 LangGraph 구역
+    private static CacheNamespace namespace(Map<String, Object> payload) {
+        Object value = payload.get("namespace");
+        return value == null ? CacheNamespace.LANGGRAPH : CacheNamespace.valueOf(value.toString());
+    }
+
+    private static List<Double> toVector(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return null;
+        }
+        List<Double> vector = new ArrayList<>(list.size());
+        for (Object element : list) {
+            vector.add(((Number) element).doubleValue());
+        }
+        return vector;
+    }
+}
@@ -2,21 +2,31 @@ package Capstone.CSmart.global.service.cache;
 
 import Capstone.CSmart.global.domain.entity.AiResponse;
 import Capstone.CSmart.global.domain.entity.SemanticCache;
+import Capstone.CSmart.global.domain.enums.CacheNamespace;
 import Capstone.CSmart.global.repository.AiResponseRepository;
 import Capstone.CSmart.global.repository.SemanticCacheRepository;
 import Capstone.CSmart.global.service.embedding.EmbeddingService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,21 +37,71 @@ public class SemanticCacheService {
     private final EmbeddingService embeddingService;
     private final RedisTemplate<String, String> redisTemplate;
     private final AiResponseRepository aiResponseRepository;
+    private final MeterRegistry meterRegistry;
 
     @Value("${semantic-cache.similarity-threshold:0.85}")
     private double similarityThreshold;
 
+    // LangGraph 장애 시 대체 초안용 완화 기준
+    @Value("${semantic-cache.relaxed-similarity-threshold:0.85}")
+    private double relaxedSimilarityThreshold;
+
+    @Value("${semantic-cache.relaxed-confidence-threshold:0.5}")
+    private double relaxedConfidenceThreshold;
+
+    // Transfer 전 Gemini 상담 응답 구역 기준 (짧은 FAQ 위주라 LangGraph 구역과 따로 조정)
+    @Value("${semantic-cache.gemini.similarity-threshold:0.92}")
+    private double geminiSimilarityThreshold;
+
+    @Value("${semantic-cache.gemini.min-confidence:0.7}")
+    private double geminiMinConfidence;
+
     @Value("${semantic-cache.cache-ttl:604800}") // 7일
     private long cacheTtl;
 
     private static final String REDIS_KEY_PREFIX = "semantic_cache:";
     private static final String REDIS_STATS_KEY = "semantic_cache_stats";
+    private static final double HIGH_CONFIDENCE_THRESHOLD = 0.7;
 
     /**
      * 시멘틱 캐시에서 유사한 답변 검색
      * 성능 최적화: 고신뢰도 캐시만 조회 + 유사도 1회만 계산
      */
     public Optional<SemanticCache> findSimilarAnswer(String question) {
+        return lookup(question).match();
+    }
+
+    /**
+     * 시멘틱 캐시 검색 + 검색에 사용한 질문 임베딩 반환
+     * 캐시 미스 후 새 답변을 캐시에 적재할 때 같은 임베딩을 재사용하여 임베딩 호출을 한 번 줄인다.
+     */
+    public CacheLookup lookup(String question) {
+        return lookup(question, CacheNamespace.LANGGRAPH);
+    }
+
+    /**
+     * 캐시 구역별 검색 (구역마다 유사도/신뢰도 기준과 히트/미스 통계가 따로 관리됨)
+     */
+    public CacheLookup lookup(String question, CacheNamespace namespace) {
+        CacheLookup result = namespace == CacheNamespace.GEMINI
+                ? findSimilarAnswer(question, namespace, geminiSimilarityThreshold, geminiMinConfidence)
+                : findSimilarAnswer(question, namespace, similarityThreshold, HIGH_CONFIDENCE_THRESHOLD);
+        meterRegistry.counter("semantic_cache.lookup",
+                "namespace", namespace.name(),
+                "result", result.match().isPresent() ? "hit" : "miss").increment();
+        return result;
+    }
+
+    /**
+     * 완화된 기준으로 유사한 답변 검색 (LangGraph 장애 시 대체 초안용)
+     * 유사도/신뢰도 기준을 낮추는 대신 키워드 필터는 그대로 적용
+     */
+    public Optional<SemanticCache> findSimilarAnswerRelaxed(String question) {
+        return findSimilarAnswer(question, CacheNamespace.LANGGRAPH, relaxedSimilarityThreshold, relaxedConfidenceThreshold).match();
+    }
+
+    private CacheLookup findSimilarAnswer(String question, CacheNamespace namespace, double threshold, double minConfidence) {
+        List<Double> questionEmbedding = null;
         try {
             log.debug("Searching semantic cache for question: {}", question.substring(0, Math.min(question.length(), 100)));
 
@@ -49,19 +109,20 @@ public class SemanticCacheService {
             String normalizedQuestion = normalizeTextForKeywords(question);
             
             // 2. 질문을 임베딩으로 변환 (정규화된 텍스트 사용)
-            List<Double> questionEmbedding = embeddingService.generateEmbedding(normalizedQuestion);
+            questionEmbedding = embeddingService.generateEmbedding(normalizedQuestion);
 
-            // 2. 신뢰도 높은 캐시만 조회 (성능 최적화)
-            // 신뢰도 0.7 이상의 캐시만 검색 대상으로 함
+            // 2. 같은 구역의 신뢰도 높은 캐시만 조회 (성능 최적화)
+            // 신뢰도 minConfidence(기본 0.7) 이상의 캐시만 검색 대상으로 함
             List<SemanticCache> highQualityCaches = cacheRepository
-                .findByConfidenceScoreGreaterThanEqualOrderByConfidenceScoreDescHitCountDesc(
-                    0.7,
+                .findByNamespaceAndConfidenceScoreGreaterThanEqual(
+                    namespace,
+                    minConfidence,
                     org.springframework.data.domain.PageRequest.of(0, 200) // 최대 200개만
                 );
 
             if (highQualityCaches.isEmpty()) {
-                log.debug("No high-quality cache entries found");
-                return Optional.empty();
+                log.debug("No high-quality cache entries found: namespace={}", namespace);
+                return new CacheLookup(Optional.empty(), questionEmbedding);
             }
 
             log.debug("Searching {} high-quality cache entries", highQualityCaches.size());
@@ -81,7 +142,7 @@ public class SemanticCacheService {
                     List<Double> cacheEmbedding = embeddingService.jsonToVector(cache.getEmbeddingJson());
                     double similarity = embeddingService.cosineSimilarity(questionEmbedding, cacheEmbedding);
 
-                    if (similarity >= similarityThreshold) {
+                    if (similarity >= threshold) {
                         // 키워드 기반 필터링: 핵심 키워드가 완전히 다르면 제외
                         // 캐시된 질문도 정규화하여 비교
                         String normalizedCacheQuestion = normalizeTextForKeywords(cache.getQuestion());
@@ -146,8 +207,8 @@ public class SemanticCacheService {
             }
 
             if (similarityMap.isEmpty()) {
-                log.debug("No cache entries above similarity threshold {}", similarityThreshold);
-                return Optional.empty();
+                log.debug("No cache entries above similarity threshold {}", threshold);
+                return new CacheLookup(Optional.empty(), questionEmbedding);
             }
 
             // 4. 가장 유사도가 높은 캐시 선택
@@ -177,15 +238,15 @@ public class SemanticCacheService {
                 String redisKey = REDIS_KEY_PREFIX + freshCache.getCacheId();
                 redisTemplate.opsForValue().set(redisKey, freshCache.getAnswer(), cacheTtl, TimeUnit.SECONDS);
 
-                return Optional.of(freshCache);
+                return new CacheLookup(Optional.of(freshCache), questionEmbedding);
             }
 
-            log.debug("No similar cache found above threshold {}", similarityThreshold);
-            return Optional.empty();
+            log.debug("No similar cache found above threshold {}", threshold);
+            return new CacheLookup(Optional.empty(), questionEmbedding);
 
         } catch (Exception e) {
             log.error("Failed to search semantic cache", e);
-            return Optional.empty();
+            return new CacheLookup(Optional.empty(), questionEmbedding);
         }
     }
 
@@ -193,7 +254,7 @@ public class SemanticCacheService {
      * 새로운 답변을 캐시에 저장
      */
     @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
-    public SemanticCache saveToCache(String question, String answer, Long responseId, double confidenceScore) {
+    public SemanticCache saveToCache(String question, String answer, Long responseId, double confidenceScore, CacheNamespace namespace) {
         try {
             log.info("Saving to semantic cache: question={}, responseId={}, confidenceScore={}",
                 question.substring(0, Math.min(question.length(), 50)), responseId, confidenceScore);
@@ -214,6 +275,7 @@ public class SemanticCacheService {
 
             // 4. 캐시 엔트티 생성
             SemanticCache cache = SemanticCache.builder()
+                .namespace(namespace)
                 .question(question)
                 .answer(answer)
                 .embeddingJson(embeddingJson)
@@ -244,6 +306,97 @@ public class SemanticCacheService {
         }
     }
 
+    /**
+     * 캐시 적재 전에 질문 임베딩을 한 번에 생성 (트랜잭션 밖에서 호출, 검색과 같은 정규화 텍스트 기준)
+     *
+     * @return 질문별 임베딩 (생성에 실패한 질문은 빠짐)
+     */
+    public Map<String, List<Double>> embedQuestions(Collection<String> questions) {
+        Map<String, String> normalized = new LinkedHashMap<>();
+        for (String question : questions) {
+            normalized.put(question, normalizeTextForKeywords(question));
+        }
+        Map<String, List<Double>> generated = embeddingService.generateEmbeddingsBatch(
+                normalized.values().stream().distinct().toList());
+
+        Map<String, List<Double>> embeddings = new LinkedHashMap<>();
+        normalized.forEach((question, text) -> {
+            List<Double> embedding = generated.get(text);
+            if (embedding != null) {
+                embeddings.put(question, embedding);
+            }
+        });
+        return embeddings;
+    }
+
+    /**
+     * 아웃박스에서 넘어온 새 답변을 캐시에 일괄 적재 (호출한 트랜잭션에 참여)
+     * - 이미 같은 응답으로 적재된 캐시가 있거나, 같은 구역/질문(정규화 기준)이 이미 저장되어 있거나 같은 묶음 안에 있으면 건너뜀
+     * - 임베딩은 적재 전에 준비되어 있어야 함 (원격 호출을 트랜잭션 안에서 하지 않도록, 없으면 예외로 재시도)
+     * - Redis 사본과 통계는 커밋 후에 기록 (롤백되면 Redis에 남지 않음)
+     *
+     * @return 새로 저장된 캐시
+     */
+    @Transactional
+    public List<SemanticCache> insertAll(List<CacheInsert> inserts) {
+        Set<Long> existingResponseIds = cacheRepository.findAllByOriginalResponseIdIn(
+                        inserts.stream().map(CacheInsert::responseId).toList())
+                .stream()
+                .map(SemanticCache::getOriginalResponseId)
+                .collect(Collectors.toSet());
+        Set<String> existingQuestions = cacheRepository.findAllByQuestionIn(
+                        inserts.stream().map(CacheInsert::question).distinct().toList())
+                .stream()
+                .map(cache -> cache.getNamespace() + ":" + normalizeTextForKeywords(cache.getQuestion()))
+                .collect(Collectors.toSet());
+
+        Map<String, CacheInsert> unique = new LinkedHashMap<>();
+        for (CacheInsert insert : inserts) {
+            String key = insert.namespace() + ":" + normalizeTextForKeywords(insert.question());
+            if (!existingResponseIds.contains(insert.responseId()) && !existingQuestions.contains(key)) {
+                unique.putIfAbsent(key, insert);
+            }
+        }
+        if (unique.isEmpty()) {
+            return List.of();
+        }
+
+        long missing = unique.values().stream().filter(insert -> insert.embedding() == null).count();
+        if (missing > 0) {
+            throw new IllegalStateException("임베딩이 준비되지 않은 캐시 적재 항목: " + missing + "건");
+        }
+
+        List<SemanticCache> caches = new ArrayList<>(unique.size());
+        for (CacheInsert insert : unique.values()) {
+            caches.add(SemanticCache.builder()
+                    .namespace(insert.namespace())
+                    .question(insert.question())
+                    .answer(insert.answer())
+                    .embeddingJson(embeddingService.vectorToJson(insert.embedding()))
+                    .confidenceScore(insert.confidenceScore())
+                    .hitCount(0)
+                    .lastHitAt(OffsetDateTime.now())
+                    .originalResponseId(insert.responseId())
+                    .cacheKey(generateCacheKey(insert.question()))
+                    .embeddingModel(embeddingService.getEmbeddingModel())
+                    .build());
+        }
+        List<SemanticCache> saved = cacheRepository.saveAll(caches);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (SemanticCache cache : saved) {
+                    redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + cache.getCacheId(), cache.getAnswer(), cacheTtl, TimeUnit.SECONDS);
+                }
+                updateCacheStatsAsync();
+            }
+        });
+
+        log.info("✅ 캐시 일괄 적재: 요청={}, 저장={}", inserts.size(), saved.size());
+        return saved;
+    }
+
     /**
      * 캐시 답변 수정
      * REQUIRES_NEW를 사용하여 새로운 트랜잭션에서 처리하고, 1차 캐시 문제를 방지
@@ -288,11 +441,11 @@ public class SemanticCacheService {
                                     originalResponse.getResponseId(), messageId, cacheId);
                         }
                         
-                        // 같은 messageId를 가진 모든 PENDING_REVIEW 상태의 AiResponse 찾아서 업데이트
-                        List<AiResponse> pendingResponses = aiResponseRepository.findAllByMessageIdAndStatus(
-                                messageId, 
-                                Capstone.CSmart.global.domain.enums.AiResponseStatus.PENDING_REVIEW
-                        );
+                        // 같은 messageId의 활성 응답이 PENDING_REVIEW 상태면 업데이트 (메시지당 활성 응답은 하나)
+                        List<AiResponse> pendingResponses = aiResponseRepository.findByActiveMessageId(messageId)
+                                .filter(response -> response.getStatus() == Capstone.CSmart.global.domain.enums.AiResponseStatus.PENDING_REVIEW)
+                                .stream()
+                                .toList();
                         
                         int updatedCount = 0;
                         for (AiResponse response : pendingResponses) {
@@ -585,8 +738,20 @@ public class SemanticCacheService {
      * 캐시 통계 조회
      */
     public CacheStatistics getCacheStatistics() {
+        return getCacheStatistics(null);
+    }
+
+    /**
+     * 캐시 구역별 통계 조회
+     *
+     * @param namespace 캐시 구역 (null이면 전체)
+     */
+    public CacheStatistics getCacheStatistics(CacheNamespace namespace) {
+        double threshold = namespace == CacheNamespace.GEMINI ? geminiSimilarityThreshold : similarityThreshold;
         try {
-            Object[] stats = cacheRepository.getCacheStatistics();
+            Object[] stats = namespace == null
+                    ? cacheRepository.getCacheStatistics()
+                    : cacheRepository.getCacheStatistics(namespace);
 
             long totalCount = stats != null && stats.length > 0 ? ((Number) stats[0]).longValue() : 0;
             long totalHits = stats != null && stats.length > 1 && stats[1] != null ? ((Number) stats[1]).longValue() : 0;
@@ -603,7 +768,7 @@ public class SemanticCacheService {
                 .hitRate(hitRate)
                 .averageConfidenceScore(avgConfidence)
                 .estimatedCostSavings(estimatedSavings)
-                .similarityThreshold(similarityThreshold)
+                .similarityThreshold(threshold)
                 .build();
 
         } catch (Exception e) {
@@ -614,7 +779,7 @@ public class SemanticCacheService {
                 .hitRate(0.0)
                 .averageConfidenceScore(0.0)
                 .estimatedCostSavings(0.0)
-                .similarityThreshold(similarityThreshold)
+                .similarityThreshold(threshold)
                 .build();
         }
     }
@@ -661,6 +826,20 @@ public class SemanticCacheService {
         }
     }
 
+    /**
+     * 답변이 바뀐 캐시의 Redis 사본을 한 번에 삭제 (DB가 원본)
+     */
+    public void evictRedisCopies(Collection<Long> cacheIds) {
+        if (cacheIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(cacheIds.stream().map(cacheId -> REDIS_KEY_PREFIX + cacheId).toList());
+        } catch (Exception e) {
+            log.warn("캐시 Redis 사본 삭제 실패: cacheIds={}, error={}", cacheIds, e.getMessage());
+        }
+    }
+
     /**
      * Repository 접근 (CacheWarmupService용)
      */
@@ -668,6 +847,25 @@ public class SemanticCacheService {
         return cacheRepository;
     }
 
+    /**
+     * 캐시 검색 결과
+     *
+     * @param match 유사한 캐시 (없으면 empty)
+     * @param queryEmbedding 검색에 사용한 질문 임베딩 (정규화 텍스트 기준, 임베딩 실패 시 null)
+     */
+    public record CacheLookup(Optional<SemanticCache> match, List<Double> queryEmbedding) {
+    }
+
+    /**
+     * 캐시 적재 항목
+     *
+     * @param namespace 적재할 캐시 구역
+     * @param embedding 질문 임베딩 (검색 단계에서 계산했거나 적재 전에 준비, 없으면 적재 실패)
+     */
+    public record CacheInsert(CacheNamespace namespace, String question, String answer, Long responseId,
+                              double confidenceScore, List<Double> embedding) {
+    }
+
     /**
      * 캐시 통계 DTO
      */
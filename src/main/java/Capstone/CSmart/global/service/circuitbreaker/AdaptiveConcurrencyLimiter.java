@@ -0,0 +1,155 @@
+package Capstone.CSmart.global.service.circuitbreaker;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 외부 API별 적응형 동시 호출 제한 (AIMD)
+ * Circuit Breaker는 실패가 쌓여야 열리므로, 외부 API가 "느려지기만" 할 때는 같은 부하를 계속 보내게 된다.
+ * 응답 지연을 관찰하여 동시 호출 한도를 자동으로 조절한다.
+ *
+ * - 증가(Additive Increase): 응답 시간이 기준선 × tolerance 이내면 한도 += 1/한도 (한도만큼 성공하면 약 +1)
+ * - 감소(Multiplicative Decrease): 응답이 기준선보다 크게 느리거나 타임아웃/5xx/429면 한도 × backoffRatio
+ * - 기준선: 정상 응답 시간의 지수 이동 평균 (지속적인 지연 증가에는 천천히 적응)
+ * - 한도를 넘는 호출은 최대 maxWait 동안, 최대 maxQueue개까지만 대기하고 나머지는 즉시 거부
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BASELINE_ALPHA = 0.05;
+
+    @Getter
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final Duration maxWait;
+    private final int maxQueue;
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double baselineLatencyNanos;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double latencyTolerance,
+                                      Duration maxWait, int maxQueue) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.maxWait = maxWait;
+        this.maxQueue = maxQueue;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 호출 허가 획득 (한도 초과 시 maxWait 동안 대기)
+     *
+     * @throws ConcurrencyLimitExceededException 대기열이 가득 찼거나 대기 시간 초과
+     */
+    public synchronized void acquire() {
+        if (inFlight < currentLimit()) {
+            inFlight++;
+            return;
+        }
+        if (waiting >= maxQueue || maxWait.isZero()) {
+            throw reject();
+        }
+
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        waiting++;
+        try {
+            while (inFlight >= currentLimit()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw reject();
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject();
+        } finally {
+            waiting--;
+        }
+    }
+
+    /**
+     * 정상 응답: 응답 시간으로 한도 조절
+     */
+    public synchronized void onSuccess(long latencyNanos) {
+        inFlight--;
+        if (baselineLatencyNanos == 0) {
+            baselineLatencyNanos = latencyNanos;
+        }
+
+        if (latencyNanos > baselineLatencyNanos * latencyTolerance) {
+            decrease();
+        } else {
+            baselineLatencyNanos += BASELINE_ALPHA * (latencyNanos - baselineLatencyNanos);
+            // 한도가 꽉 찬 상태에서만 증가 (여유가 있을 때 늘리면 한도가 무한히 커짐)
+            if (inFlight + 1 >= currentLimit()) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+        notifyAll();
+    }
+
+    /**
+     * 과부하 신호(타임아웃, 5xx, 429): 한도 감소
+     */
+    public synchronized void onOverload() {
+        inFlight--;
+        decrease();
+        notifyAll();
+    }
+
+    /**
+     * 부하와 무관한 결과(4xx, Circuit Open 등): 한도 조절 없이 반납
+     */
+    public synchronized void onIgnore() {
+        inFlight--;
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return currentLimit();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getWaiting() {
+        return waiting;
+    }
+
+    public synchronized long getBaselineLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((long) baselineLatencyNanos);
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    private ConcurrencyLimitExceededException reject() {
+        rejectedCount.incrementAndGet();
+        return new ConcurrencyLimitExceededException(name, currentLimit(), inFlight);
+    }
+}
@@ -1,16 +1,41 @@
 package Capstone.CSmart.global.service.circuitbreaker;
 
+import Capstone.CSmart.global.config.AdaptiveLimitProperties;
+import Capstone.CSmart.global.service.http.OutboundHttpClient;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
  * Circuit Breaker 서비스
  * 외부 API 호출에 대한 장애 격리 및 자동 복구
+ * + 응답 지연 기반 적응형 동시 호출 제한 (외부 API가 느려지면 보내는 양 자체를 줄임)
  */
 @Service
 @RequiredArgsConstructor
@@ -18,9 +43,20 @@ import java.util.function.Supplier;
 public class CircuitBreakerService {
 
     private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final AdaptiveLimitProperties adaptiveLimitProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    // TimeLimiter 타임아웃 감지용 (Bean으로 등록하지 않음: @Scheduled 기본 스케줄러 선택에 영향을 주지 않도록)
+    private final ScheduledExecutorService timeoutScheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("TimeLimiter-"));
 
     /**
      * Circuit Breaker로 보호된 실행
+     * 적응형 동시 호출 제한을 먼저 통과해야 하며, 한도를 넘으면 짧게 대기 후 ConcurrencyLimitExceededException
      * 
      * @param circuitBreakerName Circuit Breaker 인스턴스 이름
      * @param supplier 실행할 함수
@@ -28,18 +64,176 @@ public class CircuitBreakerService {
      */
     public <T> T execute(String circuitBreakerName, Supplier<T> supplier) {
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(circuitBreakerName);
+        AdaptiveConcurrencyLimiter limiter = limiter(circuitBreakerName);
+        limiter.acquire();
+        long start = System.nanoTime();
         
-        return CircuitBreaker.decorateSupplier(circuitBreaker, () -> {
-            try {
-                T result = supplier.get();
-                log.debug("Circuit breaker execution success: name={}", circuitBreakerName);
-                return result;
-            } catch (Exception e) {
-                log.error("Circuit breaker execution failed: name={}, error={}", 
-                        circuitBreakerName, e.getMessage());
-                throw e;
+        try {
+            T result = CircuitBreaker.decorateSupplier(circuitBreaker, () -> {
+                try {
+                    T value = supplier.get();
+                    log.debug("Circuit breaker execution success: name={}", circuitBreakerName);
+                    return value;
+                } catch (Exception e) {
+                    log.error("Circuit breaker execution failed: name={}, error={}", 
+                            circuitBreakerName, e.getMessage());
+                    throw e;
+                }
+            }).get();
+            limiter.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            release(limiter, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Circuit Breaker로 보호된 비동기 실행
+     * 호출 결과(CompletableFuture)가 완료되는 시점에 성공/실패가 기록됨
+     *
+     * @param circuitBreakerName Circuit Breaker 인스턴스 이름
+     * @param supplier 비동기 호출을 시작하는 함수
+     * @return 실행 결과 Future
+     */
+    public <T> CompletableFuture<T> executeAsync(String circuitBreakerName, Supplier<CompletableFuture<T>> supplier) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(circuitBreakerName);
+        AdaptiveConcurrencyLimiter limiter = limiter(circuitBreakerName);
+
+        try {
+            limiter.acquire();
+        } catch (ConcurrencyLimitExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+
+        try {
+            return circuitBreaker.executeCompletionStage(supplier::get)
+                    .toCompletableFuture()
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            release(limiter, error);
+                            log.error("Circuit breaker execution failed: name={}, error={}",
+                                    circuitBreakerName, error.getMessage());
+                        } else {
+                            limiter.onSuccess(System.nanoTime() - start);
+                            log.debug("Circuit breaker execution success: name={}", circuitBreakerName);
+                        }
+                    });
+        } catch (Exception e) {
+            // Circuit Open 등으로 호출 자체가 거부된 경우
+            release(limiter, e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 외부 API 호출 실행 (동기)
+     * 비동기 호출 결과를 기다리며, 타임아웃/벌크헤드 초과 시 예외
+     *
+     * @param operation 호출 종류 (벌크헤드/Circuit Breaker/TimeLimiter 결정)
+     * @param supplier 비동기 호출을 시작하는 함수
+     */
+    public <T> T execute(ExternalOperation operation, Supplier<CompletableFuture<T>> supplier) {
+        return OutboundHttpClient.await(executeAsync(operation, supplier));
+    }
+
+    /**
+     * 외부 API 호출 실행 (비동기)
+     * 벌크헤드(호출 종류별) → 적응형 동시 호출 제한 → Circuit Breaker → TimeLimiter 순으로 감싼다.
+     * - 벌크헤드: 호출 종류별 최대 동시 실행 수, 초과 시 대기 없이 BulkheadFullException
+     * - TimeLimiter: resilience4j.timelimiter 설정 시간 안에 끝나지 않으면 TimeoutException (Circuit Breaker 실패로 기록)
+     *   TimeLimiter는 자기 Future만 실패로 완료하므로, 결과가 먼저 끝나면(시간 초과, 호출 측 취소) 진행 중인 호출 Future를
+     *   여기서 직접 취소한다 (OutboundHttpClient는 취소되면 HTTP 요청도 중단하여 커넥션과 스레드를 반환)
+     */
+    public <T> CompletableFuture<T> executeAsync(ExternalOperation operation, Supplier<CompletableFuture<T>> supplier) {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(operation.getBulkheadName());
+        TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter(operation.getCircuitBreakerName());
+
+        AtomicReference<CompletableFuture<T>> call = new AtomicReference<>();
+        Supplier<CompletableFuture<T>> trackedCall = () -> {
+            CompletableFuture<T> future = supplier.get();
+            call.set(future);
+            return future;
+        };
+
+        CompletableFuture<T> result;
+        try {
+            result = bulkhead.executeCompletionStage(() -> executeAsync(
+                            operation.getCircuitBreakerName(),
+                            () -> timeLimiter.executeCompletionStage(timeoutScheduler, trackedCall::get).toCompletableFuture()))
+                    .toCompletableFuture();
+        } catch (Exception e) {
+            // 벌크헤드가 가득 찬 경우
+            log.warn("Bulkhead full: operation={}, error={}", operation, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+
+        result.whenComplete((value, error) -> {
+            CompletableFuture<T> future = call.get();
+            if (error != null && future != null && !future.isDone()) {
+                future.cancel(true);
             }
-        }).get();
+        });
+        return result;
+    }
+
+    @PreDestroy
+    void shutdownTimeoutScheduler() {
+        timeoutScheduler.shutdownNow();
+    }
+
+    /**
+     * 적응형 동시 호출 제한 조회 (없으면 생성)
+     */
+    public AdaptiveConcurrencyLimiter limiter(String circuitBreakerName) {
+        return limiters.computeIfAbsent(circuitBreakerName, name -> {
+            AdaptiveLimitProperties.Instance config = adaptiveLimitProperties.getInstance(name);
+            int maxLimit = adaptiveLimitProperties.isEnabled() ? config.getMaxLimit() : Integer.MAX_VALUE;
+            int initialLimit = adaptiveLimitProperties.isEnabled() ? config.getInitialLimit() : Integer.MAX_VALUE;
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    name, initialLimit, config.getMinLimit(), maxLimit,
+                    config.getBackoffRatio(), config.getLatencyTolerance(),
+                    config.getMaxWait(), config.getMaxQueue());
+
+            Gauge.builder("adaptive.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("외부 API 동시 호출 한도")
+                    .tag("name", name)
+                    .register(meterRegistry);
+            Gauge.builder("adaptive.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("외부 API 진행 중 호출 수")
+                    .tag("name", name)
+                    .register(meterRegistry);
+            FunctionCounter.builder("adaptive.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                    .description("동시 호출 한도 초과로 거부된 호출 수")
+                    .tag("name", name)
+                    .register(meterRegistry);
+            return limiter;
+        });
+    }
+
+    /**
+     * 생성된 모든 적응형 동시 호출 제한 조회
+     */
+    public Map<String, AdaptiveConcurrencyLimiter> getLimiters() {
+        return Map.copyOf(limiters);
+    }
+
+    /**
+     * 실패 결과에 따라 허가 반납
+     * 타임아웃/네트워크 오류/5xx/429만 과부하 신호로 보고 한도를 줄인다.
+     */
+    private void release(AdaptiveConcurrencyLimiter limiter, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        boolean overload = cause instanceof TimeoutException
+                || cause instanceof ResourceAccessException
+                || cause instanceof HttpServerErrorException
+                || cause instanceof HttpClientErrorException.TooManyRequests;
+        if (overload) {
+            limiter.onOverload();
+        } else {
+            limiter.onIgnore();
+        }
     }
 
     /**
@@ -50,6 +244,38 @@ public class CircuitBreakerService {
         return circuitBreaker.getState();
     }
 
+    /**
+     * Circuit Breaker가 호출을 막고 있는지 확인 (OPEN / FORCED_OPEN)
+     */
+    public boolean isCallBlocked(String circuitBreakerName) {
+        CircuitBreaker.State state = getState(circuitBreakerName);
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    /**
+     * 외부 API를 일시적으로 쓸 수 없어 실패한 것인지 판단
+     * (Circuit Open, 벌크헤드/동시 호출/할당량 한도 초과, 타임아웃, 연결 실패, 5xx, 429)
+     * 잘못된 요청(4xx)이나 응답 내용 문제는 포함하지 않음
+     */
+    public static boolean isUnavailable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CallNotPermittedException
+                    || cause instanceof BulkheadFullException
+                    || cause instanceof ConcurrencyLimitExceededException
+                    || cause instanceof QuotaExceededException
+                    || cause instanceof TimeoutException
+                    || cause instanceof ResourceAccessException
+                    || cause instanceof HttpServerErrorException
+                    || cause instanceof HttpClientErrorException.TooManyRequests) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
     /**
      * Circuit Breaker 메트릭 조회
      */
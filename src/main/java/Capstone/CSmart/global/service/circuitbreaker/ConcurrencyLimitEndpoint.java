@@ -0,0 +1,37 @@
+package Capstone.CSmart.global.service.circuitbreaker;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 적응형 동시 호출 제한 상태 조회 (GET /actuator/concurrencylimits)
+ */
+@Component
+@Endpoint(id = "concurrencylimits")
+@RequiredArgsConstructor
+public class ConcurrencyLimitEndpoint {
+
+    private final CircuitBreakerService circuitBreakerService;
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> limits() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        circuitBreakerService.getLimiters().forEach((name, limiter) -> {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("limit", limiter.getLimit());
+            status.put("inFlight", limiter.getInFlight());
+            status.put("waiting", limiter.getWaiting());
+            status.put("rejected", limiter.getRejectedCount());
+            status.put("baselineLatencyMs", limiter.getBaselineLatencyMillis());
+            status.put("circuitState", circuitBreakerService.getState(name).name());
+            result.put(name, status);
+        });
+        return result;
+    }
+}
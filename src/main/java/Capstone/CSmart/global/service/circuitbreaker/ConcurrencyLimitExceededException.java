@@ -0,0 +1,17 @@
+package Capstone.CSmart.global.service.circuitbreaker;
+
+import lombok.Getter;
+
+/**
+ * 적응형 동시 호출 한도 초과로 외부 API 호출이 거부됨
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String limiterName;
+
+    public ConcurrencyLimitExceededException(String limiterName, int limit, int inFlight) {
+        super(String.format("Concurrency limit exceeded: name=%s, limit=%d, inFlight=%d", limiterName, limit, inFlight));
+        this.limiterName = limiterName;
+    }
+}
@@ -0,0 +1,23 @@
+package Capstone.CSmart.global.service.circuitbreaker;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 외부 API 호출 종류
+ * - circuitBreakerName: 같은 외부 서버를 쓰는 호출은 Circuit Breaker / TimeLimiter / 적응형 동시 호출 제한을 공유
+ * - bulkheadName: 호출 종류별로 동시 실행 수를 분리 (멈춘 임베딩 호출이 채팅/추출 용량을 잠식하지 않도록)
+ * - quotaName: 같은 API 할당량(RPM/TPM)을 쓰는 호출끼리 클라이언트 측 속도 제한을 공유 (없으면 null)
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExternalOperation {
+    EMBEDDING("gemini-api", "embedding", "gemini-embedding"),
+    CHAT("gemini-api", "gemini-chat", "gemini-generate"),
+    EXTRACTION("gemini-api", "gemini-extraction", "gemini-generate"),
+    LANGGRAPH("langgraph-api", "langgraph", null);
+
+    private final String circuitBreakerName;
+    private final String bulkheadName;
+    private final String quotaName;
+}
@@ -0,0 +1,17 @@
+package Capstone.CSmart.global.service.circuitbreaker;
+
+import lombok.Getter;
+
+/**
+ * 클라이언트 측 할당량(RPM/TPM) 대기 시간이 한도를 넘어 외부 API 호출을 보내지 않음
+ */
+@Getter
+public class QuotaExceededException extends RuntimeException {
+
+    private final String quotaName;
+
+    public QuotaExceededException(String quotaName, long waitMillis) {
+        super(String.format("Quota exceeded: name=%s, wait=%dms", quotaName, waitMillis));
+        this.quotaName = quotaName;
+    }
+}
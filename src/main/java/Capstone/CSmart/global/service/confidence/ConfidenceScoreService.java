@@ -31,6 +31,19 @@ public class ConfidenceScoreService {
      * - 응답 품질 (10%)
      */
     public double calculateConfidenceScore(AiResponse response) {
+        return calculateConfidenceScore(response, null, true);
+    }
+
+    /**
+     * 이미 조회한 캐시 엔트리로 신뢰도 계산 (일괄 검수 시 응답마다 캐시를 다시 조회하지 않음)
+     *
+     * @param cache 응답의 캐시 엔트리 (없으면 null)
+     */
+    public double calculateConfidenceScore(AiResponse response, SemanticCache cache) {
+        return calculateConfidenceScore(response, cache, false);
+    }
+
+    private double calculateConfidenceScore(AiResponse response, SemanticCache knownCache, boolean lookupCache) {
         try {
             double totalScore = 0.0;
 
@@ -43,7 +56,7 @@ public class ConfidenceScoreService {
             totalScore += modificationScore * 0.3;
 
             // 3. 사용 빈도 점수 (20% 가중치)
-            double frequencyScore = calculateFrequencyScore(response);
+            double frequencyScore = calculateFrequencyScore(response, knownCache, lookupCache);
             totalScore += frequencyScore * 0.2;
 
             // 4. 응답 품질 점수 (10% 가중치)
@@ -73,6 +86,7 @@ public class ConfidenceScoreService {
             case APPROVED -> 0.9;       // 승인됨
             case PENDING_REVIEW -> 0.5; // 검토 중
             case REJECTED -> 0.1;       // 거절됨
+            case SUPERSEDED -> 0.1;     // 다른 응답으로 대체됨
         };
     }
 
@@ -101,17 +115,17 @@ public class ConfidenceScoreService {
     /**
      * 사용 빈도에 따른 점수 계산
      */
-    private double calculateFrequencyScore(AiResponse response) {
+    private double calculateFrequencyScore(AiResponse response, SemanticCache knownCache, boolean lookupCache) {
         try {
             // 해당 응답의 캐시 엔트리 조회
-            Optional<SemanticCache> cacheOpt = semanticCacheRepository
-                .findByOriginalResponseId(response.getResponseId());
+            SemanticCache cache = lookupCache
+                ? semanticCacheRepository.findByOriginalResponseId(response.getResponseId()).orElse(null)
+                : knownCache;
             
-            if (cacheOpt.isEmpty()) {
+            if (cache == null) {
                 return 0.5; // 캐시에 없으면 기본값
             }
 
-            SemanticCache cache = cacheOpt.get();
             int hitCount = cache.getHitCount();
 
             // 히트 수에 따른 점수 계산
@@ -191,32 +205,34 @@ public class ConfidenceScoreService {
     }
 
     /**
-     * 레벤슈타인 거리 계산
+     * 레벤슈타인 거리 계산 (이전 행/현재 행 두 줄만 유지)
      */
     private int levenshteinDistance(String s1, String s2) {
         int m = s1.length();
         int n = s2.length();
         
-        int[][] dp = new int[m + 1][n + 1];
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
         
-        for (int i = 0; i <= m; i++) {
-            dp[i][0] = i;
-        }
         for (int j = 0; j <= n; j++) {
-            dp[0][j] = j;
+            previous[j] = j;
         }
         
         for (int i = 1; i <= m; i++) {
+            current[0] = i;
             for (int j = 1; j <= n; j++) {
                 if (s1.charAt(i - 1) == s2.charAt(j - 1)) {
-                    dp[i][j] = dp[i - 1][j - 1];
+                    current[j] = previous[j - 1];
                 } else {
-                    dp[i][j] = 1 + Math.min(Math.min(dp[i - 1][j], dp[i][j - 1]), dp[i - 1][j - 1]);
+                    current[j] = 1 + Math.min(Math.min(previous[j], current[j - 1]), previous[j - 1]);
                 }
             }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
         
-        return dp[m][n];
+        return previous[n];
     }
 
     /**
@@ -0,0 +1,263 @@
+package Capstone.CSmart.global.service.context;
+
+import Capstone.CSmart.global.domain.entity.Message;
+import Capstone.CSmart.global.repository.MessageRepository;
+import Capstone.CSmart.global.service.gemini.TokenEstimator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 대화 맥락 구성 (Gemini 정보 추출, LangGraph 질문에 함께 전달)
+ * - 선택: 최근 메시지 몇 개는 항상 포함하고, 나머지는 최신성 + 질문과의 관련도 점수 순으로 토큰 예산 안에서 채움
+ * - 관련도: 공백을 제외한 글자 2-gram 겹침 비율 (형태소 분석 없이 한국어에 적용 가능)
+ * - 토큰 수: TokenEstimator (한글 약 1.5자당 1토큰)
+ * - 중복 제거: 이미 포함된 줄과 같은 줄(공백 정규화)은 다시 넣지 않음 (반복 인사/복사 붙여넣기 등)
+ * - 결과는 대화 순서대로 정렬하고, 학생별로 Redis에 캐시 (새 메시지가 저장되면 invalidate)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationContextBuilder {
+
+    private static final String CACHE_PREFIX = "conversation_context:";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MessageRepository messageRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 후보로 조회하는 최근 메시지 수
+    @Value("${conversation-context.candidate-limit:50}")
+    private int candidateLimit;
+
+    // 예산과 관계없이 항상 포함하는 최근 메시지 수 (예산을 넘으면 최신 것부터)
+    @Value("${conversation-context.always-include-recent:4}")
+    private int alwaysIncludeRecent;
+
+    @Value("${conversation-context.recency-weight:0.6}")
+    private double recencyWeight;
+
+    @Value("${conversation-context.relevance-weight:0.4}")
+    private double relevanceWeight;
+
+    @Value("${conversation-context.cache-ttl:1h}")
+    private Duration cacheTtl;
+
+    /**
+     * 구성된 대화 맥락
+     *
+     * @param text 대화 순서대로 "senderType: 내용" 줄을 이은 문자열
+     * @param messageIds 포함된 메시지 ID (대화 순서)
+     * @param lastMessageId 포함된 메시지 중 가장 최근 ID (없으면 null)
+     * @param estimatedTokens 추정 토큰 수
+     */
+    public record ConversationContext(String text, List<Long> messageIds, Long lastMessageId, int estimatedTokens) {
+
+        public boolean isEmpty() {
+            return messageIds.isEmpty();
+        }
+    }
+
+    /**
+     * 학생의 최근 대화에서 맥락 구성 (캐시 사용)
+     *
+     * @param focus 관련도 기준 문장 (질문 등, 없으면 최신성만 사용)
+     * @param tokenBudget 최대 토큰 수
+     * @param excludeMessageIds 제외할 메시지 (질문 자체로 따로 전달되는 메시지 등)
+     */
+    public ConversationContext build(Long studentId, String focus, int tokenBudget, Collection<Long> excludeMessageIds) {
+        String cacheField = cacheField(focus, tokenBudget, excludeMessageIds);
+        ConversationContext cached = readCache(studentId, cacheField);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Message> candidates = messageRepository.findByStudentIdOrderBySentAtDesc(
+                        studentId, PageRequest.of(0, candidateLimit))
+                .stream()
+                .filter(message -> excludeMessageIds == null || !excludeMessageIds.contains(message.getMessageId()))
+                .toList();
+        ConversationContext context = select(candidates, focus, tokenBudget);
+        writeCache(studentId, cacheField, context);
+        log.debug("대화 맥락 구성: studentId={}, 후보={}, 선택={}, 토큰={}",
+                studentId, candidates.size(), context.messageIds().size(), context.estimatedTokens());
+        return context;
+    }
+
+    /**
+     * 주어진 메시지로 맥락 구성 (캐시 없음, 최신성만 사용)
+     *
+     * @param newestFirst 최신순 메시지
+     */
+    public ConversationContext fromMessages(List<Message> newestFirst, int tokenBudget) {
+        return select(newestFirst, null, tokenBudget);
+    }
+
+    /**
+     * 학생의 캐시된 맥락 삭제 (새 메시지 저장 시 호출)
+     */
+    public void invalidate(Long studentId) {
+        try {
+            redisTemplate.delete(CACHE_PREFIX + studentId);
+        } catch (Exception e) {
+            log.warn("대화 맥락 캐시 삭제 실패: studentId={}, error={}", studentId, e.getMessage());
+        }
+    }
+
+    private ConversationContext select(List<Message> newestFirst, String focus, int tokenBudget) {
+        Set<String> focusGrams = bigrams(focus);
+        int total = newestFirst.size();
+
+        List<Candidate> ranked = new ArrayList<>(total);
+        for (int rank = 0; rank < total; rank++) {
+            Message message = newestFirst.get(rank);
+            if (message.getContent() == null || message.getContent().isBlank()) {
+                continue;
+            }
+            double recency = 1.0 - (double) rank / total;
+            double relevance = focusGrams.isEmpty() ? 0.0 : overlap(focusGrams, bigrams(message.getContent()));
+            // 항상 포함하는 최근 메시지는 일반 점수(최대 1.0)보다 높게, 최신 것부터
+            double score = rank < alwaysIncludeRecent
+                    ? 2.0 + alwaysIncludeRecent - rank
+                    : recencyWeight * recency + relevanceWeight * relevance;
+            ranked.add(new Candidate(rank, message, score));
+        }
+        ranked.sort(Comparator.comparingDouble(Candidate::score).reversed());
+
+        // 점수 순으로 예산 안에서 선택 (중복 줄은 제외하고 토큰 계산)
+        Set<String> seenLines = new HashSet<>();
+        List<Selected> selected = new ArrayList<>();
+        int usedTokens = 0;
+        for (Candidate candidate : ranked) {
+            Set<String> newLines = new HashSet<>();
+            String content = dedupe(candidate.message().getContent(), seenLines, newLines);
+            if (content.isEmpty()) {
+                continue;
+            }
+            String line = candidate.message().getSenderType() + ": " + content + "\n";
+            int tokens = TokenEstimator.estimate(line);
+            if (usedTokens + tokens > tokenBudget) {
+                continue; // 더 짧은 메시지는 들어갈 수 있으므로 계속 확인
+            }
+            usedTokens += tokens;
+            seenLines.addAll(newLines);
+            selected.add(new Selected(candidate.rank(), candidate.message().getMessageId(), line));
+        }
+
+        // 대화 순서(오래된 것부터)로 정렬
+        selected.sort(Comparator.comparingInt(Selected::rank).reversed());
+        StringBuilder text = new StringBuilder();
+        List<Long> messageIds = new ArrayList<>(selected.size());
+        Long lastMessageId = null;
+        for (Selected item : selected) {
+            text.append(item.line());
+            messageIds.add(item.messageId());
+            if (lastMessageId == null || item.messageId() > lastMessageId) {
+                lastMessageId = item.messageId();
+            }
+        }
+        return new ConversationContext(text.toString(), messageIds, lastMessageId, usedTokens);
+    }
+
+    /**
+     * 이미 포함된 줄과 같은 줄 제거 (공백 정규화 후 비교)
+     * 남긴 줄은 newLines에 모아 두고, 메시지가 실제로 선택될 때만 seenLines에 반영한다.
+     */
+    private static String dedupe(String content, Set<String> seenLines, Set<String> newLines) {
+        StringBuilder kept = new StringBuilder(content.length());
+        for (String line : content.split("\n")) {
+            String normalized = WHITESPACE.matcher(line.trim()).replaceAll(" ");
+            if (normalized.isEmpty() || seenLines.contains(normalized) || !newLines.add(normalized)) {
+                continue;
+            }
+            if (!kept.isEmpty()) {
+                kept.append('\n');
+            }
+            kept.append(line.trim());
+        }
+        return kept.toString();
+    }
+
+    private static Set<String> bigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        if (text == null) {
+            return grams;
+        }
+        String compact = WHITESPACE.matcher(text).replaceAll("");
+        for (int i = 0; i + 1 < compact.length(); i++) {
+            grams.add(compact.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    private static double overlap(Set<String> focusGrams, Set<String> messageGrams) {
+        int shared = 0;
+        for (String gram : messageGrams) {
+            if (focusGrams.contains(gram)) {
+                shared++;
+            }
+        }
+        return (double) shared / focusGrams.size();
+    }
+
+    private ConversationContext readCache(Long studentId, String field) {
+        try {
+            Object json = redisTemplate.opsForHash().get(CACHE_PREFIX + studentId, field);
+            return json == null ? null : objectMapper.readValue(json.toString(), ConversationContext.class);
+        } catch (Exception e) {
+            log.warn("대화 맥락 캐시 조회 실패: studentId={}, error={}", studentId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCache(Long studentId, String field, ConversationContext context) {
+        try {
+            String key = CACHE_PREFIX + studentId;
+            redisTemplate.opsForHash().put(key, field, objectMapper.writeValueAsString(context));
+            redisTemplate.expire(key, cacheTtl);
+        } catch (Exception e) {
+            log.warn("대화 맥락 캐시 저장 실패: studentId={}, error={}", studentId, e.getMessage());
+        }
+    }
+
+    /**
+     * 캐시 항목 키: 예산 + 기준 문장/제외 메시지 해시
+     */
+    private static String cacheField(String focus, int tokenBudget, Collection<Long> excludeMessageIds) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(focus).getBytes(StandardCharsets.UTF_8));
+            if (excludeMessageIds != null) {
+                excludeMessageIds.stream().sorted().forEach(id ->
+                        digest.update((":" + id).getBytes(StandardCharsets.UTF_8)));
+            }
+            return tokenBudget + ":" + HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Candidate(int rank, Message message, double score) {
+    }
+
+    private record Selected(int rank, Long messageId, String line) {
+    }
+}
@@ -1,28 +1,37 @@
 package Capstone.CSmart.global.service.embedding;
 
 import Capstone.CSmart.global.service.circuitbreaker.CircuitBreakerService;
+import Capstone.CSmart.global.service.circuitbreaker.ExternalOperation;
+import Capstone.CSmart.global.service.gemini.GeminiRateGovernor;
+import Capstone.CSmart.global.service.gemini.TokenEstimator;
+import Capstone.CSmart.global.service.http.OutboundHttpClient;
+import Capstone.CSmart.global.service.http.RequestHedger;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmbeddingService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final OutboundHttpClient outboundHttpClient;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final CircuitBreakerService circuitBreakerService;
-    
-    private static final String GEMINI_CIRCUIT_BREAKER = "gemini-api";
+    private final MeterRegistry meterRegistry;
+    private final GeminiRateGovernor geminiRateGovernor;
 
     @Value("${gemini.api-key}")
     private String apiKey;
@@ -33,66 +42,114 @@ public class EmbeddingService {
     @Value("${semantic-cache.embedding.dimensions:768}")
     private Integer embeddingDimensions;
 
-    /**
-     * 텍스트를 벡터 임베딩으로 변환
-     * Google AI Embeddings API 사용
-     */
-    public List<Double> generateEmbedding(String text) {
-        try {
-            // Google AI Embeddings API URL
-            String url = String.format(
-                "https://generativelanguage.googleapis.com/v1beta/models/%s:embedContent?key=%s",
-                embeddingModel, apiKey
-            );
+    @Value("${gemini.timeout:30s}")
+    private Duration timeout;
 
-            // 요청 헤더 설정
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+    // 임베딩 API 주소 (지연 주입 스텁 서버로 바꿔 헤지 효과를 측정할 수 있음)
+    @Value("${semantic-cache.embedding.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String embeddingBaseUrl;
 
-            // 요청 본문 구성
-            Map<String, Object> content = new HashMap<>();
-            Map<String, Object> parts = new HashMap<>();
-            parts.put("text", text);
-            content.put("parts", List.of(parts));
+    // 헤지 요청 설정 (시멘틱 캐시 조회 경로의 꼬리 지연 감소)
+    @Value("${semantic-cache.embedding.hedging.enabled:false}")
+    private boolean hedgingEnabled;
 
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("content", content);
+    @Value("${semantic-cache.embedding.hedging.percentile:0.95}")
+    private double hedgingPercentile;
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+    @Value("${semantic-cache.embedding.hedging.min-delay:100ms}")
+    private Duration hedgingMinDelay;
 
-            log.debug("Generating embedding for text length: {} with model: {}", text.length(), embeddingModel);
+    @Value("${semantic-cache.embedding.hedging.max-delay:2s}")
+    private Duration hedgingMaxDelay;
 
-            // API 호출 (Circuit Breaker로 보호)
-            ResponseEntity<Map> response = circuitBreakerService.execute(
-                    GEMINI_CIRCUIT_BREAKER,
-                    () -> restTemplate.exchange(url, HttpMethod.POST, request, Map.class)
-            );
+    @Value("${semantic-cache.embedding.hedging.budget-ratio:0.05}")
+    private double hedgingBudgetRatio;
 
-            if (response.getBody() == null) {
-                throw new RuntimeException("Google Embeddings API returned null response");
-            }
+    @Value("${semantic-cache.embedding.hedging.sample-size:200}")
+    private int hedgingSampleSize;
 
-            // 응답 파싱
-            Map<String, Object> responseBody = response.getBody();
-            Map<String, Object> embedding = (Map<String, Object>) responseBody.get("embedding");
-            
-            if (embedding == null) {
-                throw new RuntimeException("No embedding found in API response");
-            }
+    private RequestHedger hedger;
 
-            List<Double> values = (List<Double>) embedding.get("values");
-            
-            if (values == null || values.isEmpty()) {
-                throw new RuntimeException("Empty embedding values in API response");
-            }
+    @PostConstruct
+    void initHedger() {
+        if (hedgingEnabled) {
+            hedger = new RequestHedger("embedding", hedgingPercentile, hedgingMinDelay, hedgingMaxDelay,
+                    hedgingBudgetRatio, hedgingSampleSize, meterRegistry);
+            log.info("Embedding request hedging enabled: percentile={}, budgetRatio={}", hedgingPercentile, hedgingBudgetRatio);
+        }
+    }
 
-            log.debug("Generated embedding with {} dimensions", values.size());
-            return values;
+    /**
+     * 텍스트를 벡터 임베딩으로 변환
+     * Google AI Embeddings API 사용
+     */
+    public List<Double> generateEmbedding(String text) {
+        return OutboundHttpClient.await(generateEmbeddingAsync(text));
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to generate embedding for text: {}", text.substring(0, Math.min(text.length(), 100)), e);
-            throw new RuntimeException("Embedding generation failed: " + e.getMessage(), e);
+    /**
+     * 텍스트를 벡터 임베딩으로 변환 (비동기)
+     * 호출 스레드를 점유하지 않으므로 여러 임베딩을 동시에 요청할 수 있음
+     */
+    public CompletableFuture<List<Double>> generateEmbeddingAsync(String text) {
+        // Google AI Embeddings API URL
+        String url = String.format(
+            "%s/models/%s:embedContent?key=%s",
+            embeddingBaseUrl, embeddingModel, apiKey
+        );
+
+        // 요청 본문 구성
+        Map<String, Object> content = new HashMap<>();
+        Map<String, Object> parts = new HashMap<>();
+        parts.put("text", text);
+        content.put("parts", List.of(parts));
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("content", content);
+
+        log.debug("Generating embedding for text length: {} with model: {}", text.length(), embeddingModel);
+
+        // API 호출 (임베딩 할당량 대기 → 임베딩 전용 벌크헤드 + Circuit Breaker + TimeLimiter로 보호, 설정 시 헤지 요청)
+        // 헤지는 보호 장치 바깥에서 적용: 헤지 요청도 할당량/벌크헤드/동시 호출 한도를 따로 차지하고 지연 시간도 따로 기록됨
+        int estimatedTokens = TokenEstimator.estimate(text);
+        Supplier<CompletableFuture<Map>> attempt = () -> geminiRateGovernor.execute(
+                ExternalOperation.EMBEDDING,
+                estimatedTokens,
+                () -> circuitBreakerService.executeAsync(ExternalOperation.EMBEDDING,
+                        () -> outboundHttpClient.postAsync(url, null, requestBody, Map.class, timeout)));
+        CompletableFuture<Map> response = hedger != null ? hedger.execute(attempt) : attempt.get();
+
+        return response
+                .thenApply(this::parseEmbedding)
+                .exceptionally(e -> {
+                    RuntimeException cause = OutboundHttpClient.unwrap(e);
+                    log.error("Failed to generate embedding for text: {}", text.substring(0, Math.min(text.length(), 100)), cause);
+                    throw new RuntimeException("Embedding generation failed: " + cause.getMessage(), cause);
+                });
+    }
+
+    /**
+     * 임베딩 API 응답 파싱
+     */
+    private List<Double> parseEmbedding(Map responseBody) {
+        if (responseBody == null) {
+            throw new RuntimeException("Google Embeddings API returned null response");
+        }
+
+        Map<String, Object> embedding = (Map<String, Object>) responseBody.get("embedding");
+
+        if (embedding == null) {
+            throw new RuntimeException("No embedding found in API response");
         }
+
+        List<Double> values = (List<Double>) embedding.get("values");
+
+        if (values == null || values.isEmpty()) {
+            throw new RuntimeException("Empty embedding values in API response");
+        }
+
+        log.debug("Generated embedding with {} dimensions", values.size());
+        return values;
     }
 
     /**
@@ -154,19 +211,23 @@ public class EmbeddingService {
 
     /**
      * 여러 텍스트를 배치로 임베딩 생성 (향후 확장용)
+     * 요청을 동시에 보내고 모두 끝날 때까지 대기
      */
     public Map<String, List<Double>> generateEmbeddingsBatch(List<String> texts) {
-        Map<String, List<Double>> results = new HashMap<>();
-        
+        Map<String, CompletableFuture<List<Double>>> futures = new LinkedHashMap<>();
         for (String text : texts) {
+            futures.put(text, generateEmbeddingAsync(text));
+        }
+
+        Map<String, List<Double>> results = new HashMap<>();
+        futures.forEach((text, future) -> {
             try {
-                List<Double> embedding = generateEmbedding(text);
-                results.put(text, embedding);
+                results.put(text, future.join());
             } catch (Exception e) {
                 log.warn("Failed to generate embedding for text in batch: {}", 
                     text.substring(0, Math.min(text.length(), 100)), e);
             }
-        }
+        });
         
         return results;
     }
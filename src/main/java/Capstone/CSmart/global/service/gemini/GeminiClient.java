@@ -0,0 +1,189 @@
+package Capstone.CSmart.global.service.gemini;
+
+import Capstone.CSmart.global.service.circuitbreaker.CircuitBreakerService;
+import Capstone.CSmart.global.service.circuitbreaker.ExternalOperation;
+import Capstone.CSmart.global.service.http.OutboundHttpClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Gemini generateContent / streamGenerateContent 클라이언트
+ * - 요청: GeminiRequest 레코드를 그대로 직렬화 (HashMap 중첩 구성 제거)
+ * - 응답: GeminiResponseParser로 필요한 값만 스트리밍 파싱 (Map 변환 + unchecked 캐스팅 제거)
+ * - 스트리밍: SSE 청크가 도착할 때마다 지금까지의 초안을 콜백으로 전달 (첫 토큰까지의 대기 감소)
+ * - 호출 보호: 할당량(RPM/TPM) 대기 → 벌크헤드 + Circuit Breaker + TimeLimiter
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeminiClient {
+
+    private static final String GENERATE_METHOD = ":generateContent";
+    private static final String STREAM_METHOD = ":streamGenerateContent?alt=sse";
+    private static final String SSE_DATA_PREFIX = "data:";
+
+    private final OutboundHttpClient outboundHttpClient;
+    private final CircuitBreakerService circuitBreakerService;
+    private final GeminiRateGovernor geminiRateGovernor;
+
+    @Value("${gemini.api-key}")
+    private String geminiApiKey;
+
+    @Value("${gemini.url}")
+    private String geminiUrl;
+
+    @Value("${gemini.timeout:30s}")
+    private Duration timeout;
+
+    /**
+     * 응답 생성 (동기)
+     */
+    public GeminiResponse generate(ExternalOperation operation, GeminiRequest request, int expectedOutputTokens) {
+        return OutboundHttpClient.await(generateAsync(operation, request, expectedOutputTokens));
+    }
+
+    /**
+     * 응답 생성 (비동기)
+     *
+     * @param expectedOutputTokens TPM 할당량 계산용 예상 응답 토큰 수
+     */
+    public CompletableFuture<GeminiResponse> generateAsync(ExternalOperation operation, GeminiRequest request,
+                                                           int expectedOutputTokens) {
+        int estimatedTokens = TokenEstimator.estimate(request.text(), expectedOutputTokens);
+        return geminiRateGovernor.execute(
+                        operation,
+                        estimatedTokens,
+                        () -> circuitBreakerService.executeAsync(
+                                operation,
+                                () -> outboundHttpClient.postAsync(geminiUrl, apiKeyHeader(), request, byte[].class, timeout)))
+                .thenApply(body -> {
+                    GeminiResponse response = parse(body);
+                    geminiRateGovernor.recordUsage(operation, estimatedTokens, response.totalTokenCount());
+                    return response;
+                });
+    }
+
+    /**
+     * 스트리밍 응답 생성 (streamGenerateContent, SSE)
+     * 청크가 도착할 때마다 onPartial로 지금까지 이어 붙인 초안 전체를 전달한다.
+     * (재시도되면 초안이 처음부터 다시 전달되므로 호출 측은 마지막 값으로 덮어쓰면 됨)
+     *
+     * @param onPartial 부분 초안 콜백 (HTTP 클라이언트 스레드에서 호출되므로 오래 걸리는 작업 금지)
+     * @return 완성된 응답
+     */
+    public CompletableFuture<GeminiResponse> streamGenerateAsync(ExternalOperation operation, GeminiRequest request,
+                                                                 int expectedOutputTokens, Consumer<String> onPartial) {
+        int estimatedTokens = TokenEstimator.estimate(request.text(), expectedOutputTokens);
+        String streamUrl = streamUrl();
+        return geminiRateGovernor.execute(
+                operation,
+                estimatedTokens,
+                () -> circuitBreakerService.executeAsync(operation, () -> {
+                    StreamAccumulator accumulator = new StreamAccumulator(onPartial);
+                    return outboundHttpClient
+                            .postForLinesAsync(streamUrl, streamHeaders(), request, timeout, accumulator::onLine)
+                            .thenApply(ignored -> accumulator.result());
+                }))
+                .thenApply(response -> {
+                    geminiRateGovernor.recordUsage(operation, estimatedTokens, response.totalTokenCount());
+                    return response;
+                });
+    }
+
+    private String streamUrl() {
+        int queryStart = geminiUrl.indexOf('?');
+        String base = queryStart >= 0 ? geminiUrl.substring(0, queryStart) : geminiUrl;
+        if (!base.endsWith(GENERATE_METHOD)) {
+            throw new IllegalStateException("gemini.url must end with " + GENERATE_METHOD + ": " + geminiUrl);
+        }
+        return base.substring(0, base.length() - GENERATE_METHOD.length()) + STREAM_METHOD;
+    }
+
+    private Map<String, String> apiKeyHeader() {
+        return Map.of("x-goog-api-key", geminiApiKey);
+    }
+
+    private Map<String, String> streamHeaders() {
+        return Map.of("x-goog-api-key", geminiApiKey, HttpHeaders.ACCEPT, "text/event-stream");
+    }
+
+    private static GeminiResponse parse(byte[] body) {
+        if (body == null || body.length == 0) {
+            throw new RestClientException("Gemini API returned empty body");
+        }
+        try {
+            return GeminiResponseParser.parse(body);
+        } catch (IOException e) {
+            throw new RestClientException("Failed to parse Gemini response", e);
+        }
+    }
+
+    /**
+     * SSE 청크를 이어 붙여 초안과 최종 응답을 만듦
+     * 각 이벤트는 "data: {GenerateContentResponse JSON}" 한 줄 + 빈 줄로 구분된다.
+     */
+    private static final class StreamAccumulator {
+
+        private final Consumer<String> onPartial;
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder event = new StringBuilder();
+        private String finishReason;
+        private int promptTokenCount;
+        private int totalTokenCount;
+
+        private StreamAccumulator(Consumer<String> onPartial) {
+            this.onPartial = onPartial;
+        }
+
+        void onLine(String line) {
+            if (line.isEmpty()) {
+                flush();
+            } else if (line.startsWith(SSE_DATA_PREFIX)) {
+                event.append(line, SSE_DATA_PREFIX.length(), line.length());
+            }
+        }
+
+        GeminiResponse result() {
+            flush();
+            return new GeminiResponse(text.toString(), finishReason, promptTokenCount, totalTokenCount);
+        }
+
+        private void flush() {
+            if (event.isEmpty()) {
+                return;
+            }
+            GeminiResponse chunk;
+            try {
+                chunk = GeminiResponseParser.parse(event.toString().trim());
+            } catch (IOException e) {
+                throw new RestClientException("Failed to parse Gemini stream chunk", e);
+            } finally {
+                event.setLength(0);
+            }
+
+            if (chunk.finishReason() != null) {
+                finishReason = chunk.finishReason();
+            }
+            if (chunk.totalTokenCount() > 0) {
+                promptTokenCount = chunk.promptTokenCount();
+                totalTokenCount = chunk.totalTokenCount();
+            }
+            if (!chunk.text().isEmpty()) {
+                text.append(chunk.text());
+                if (onPartial != null) {
+                    onPartial.accept(text.toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package Capstone.CSmart.global.service.gemini;
+
+import Capstone.CSmart.global.config.GeminiQuotaProperties;
+import Capstone.CSmart.global.service.circuitbreaker.ExternalOperation;
+import Capstone.CSmart.global.service.circuitbreaker.QuotaExceededException;
+import Capstone.CSmart.global.service.http.OutboundHttpClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gemini API 클라이언트 측 속도 제한 (채팅, 정보 추출, 임베딩 공용)
+ * - 할당량별(gemini-generate, gemini-embedding) RPM/TPM 토큰 버킷으로 보내기 전에 속도를 맞춤
+ * - 429 응답의 Retry-After 헤더 / RetryInfo 대기 시간을 할당량 전체에 적용 (다른 호출도 함께 멈춤)
+ * - 대기와 재시도는 타이머로 예약하여 호출 스레드를 Thread.sleep으로 붙잡지 않음
+ * - 메트릭: gemini.quota.throttled / rate_limited / rejected, gemini.quota.available_requests
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeminiRateGovernor {
+
+    private static final Pattern RETRY_INFO_PATTERN = Pattern.compile("\"retryDelay\"\\s*:\\s*\"(\\d+(?:\\.\\d+)?)s\"");
+    private static final Pattern RETRY_MESSAGE_PATTERN = Pattern.compile("Please retry in (\\d+(?:\\.\\d+)?)s");
+
+    private final GeminiQuotaProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, QuotaBucket> buckets = new ConcurrentHashMap<>();
+
+    // 할당량 대기/재시도 예약 전용 타이머 (작업은 즉시 다음 단계로 넘기므로 스레드 1개로 충분)
+    private final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("gemini-quota-"));
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 할당량 안에서 호출 실행 (429/5xx/네트워크 오류는 타이머로 재시도)
+     *
+     * @param operation 호출 종류 (quotaName이 없으면 제한 없이 바로 실행)
+     * @param estimatedTokens 추정 토큰 수 (TokenEstimator)
+     * @param call 호출을 시작하는 함수 (재시도 시 다시 호출됨)
+     */
+    public <T> CompletableFuture<T> execute(ExternalOperation operation, int estimatedTokens,
+                                            Supplier<CompletableFuture<T>> call) {
+        if (!properties.isEnabled() || operation.getQuotaName() == null) {
+            return call.get();
+        }
+        QuotaBucket bucket = bucket(operation.getQuotaName());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long deadline = System.nanoTime() + properties.getMaxWait().toNanos();
+        attempt(bucket, estimatedTokens, call, result, 1, deadline);
+        return result;
+    }
+
+    /**
+     * 실제 사용 토큰 수로 할당량 보정 (응답의 usageMetadata.totalTokenCount, 없으면 0)
+     */
+    public void recordUsage(ExternalOperation operation, int estimatedTokens, int actualTokens) {
+        if (!properties.isEnabled() || operation.getQuotaName() == null || actualTokens <= 0) {
+            return;
+        }
+        bucket(operation.getQuotaName()).reconcile(estimatedTokens, actualTokens);
+    }
+
+    private <T> void attempt(QuotaBucket bucket, int tokens, Supplier<CompletableFuture<T>> call,
+                             CompletableFuture<T> result, int attempt, long deadline) {
+        if (result.isDone()) {
+            return; // 호출 측에서 취소
+        }
+
+        long waitNanos = bucket.tryAcquire(tokens);
+        if (waitNanos > 0) {
+            if (System.nanoTime() + waitNanos > deadline) {
+                counter("gemini.quota.rejected", bucket).increment();
+                result.completeExceptionally(new QuotaExceededException(bucket.getName(),
+                        TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+                return;
+            }
+            counter("gemini.quota.throttled", bucket).increment();
+            schedule(() -> attempt(bucket, tokens, call, result, attempt, deadline), waitNanos, result);
+            return;
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> current = future;
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                current.cancel(true);
+            }
+        });
+
+        current.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            RuntimeException cause = OutboundHttpClient.unwrap(error);
+            boolean rateLimited = cause instanceof HttpClientErrorException.TooManyRequests;
+            if (rateLimited) {
+                // 같은 할당량을 쓰는 모든 호출을 서버가 알려준 시간 동안 멈춤
+                Duration delay = retryDelay((HttpClientErrorException) cause);
+                bucket.pause(delay);
+                counter("gemini.quota.rate_limited", bucket).increment();
+                log.warn("Gemini API Rate Limit 초과: quota={}, {}초 동안 호출 중지 ({}/{})",
+                        bucket.getName(), delay.toSeconds(), attempt, properties.getMaxAttempts());
+            }
+            if (attempt >= properties.getMaxAttempts()) {
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            if (rateLimited) {
+                // 중지 시간이 끝나면 할당량 대기 단계에서 타이머로 재시도
+                attempt(bucket, tokens, call, result, attempt + 1, System.nanoTime() + properties.getMaxWait().toNanos());
+            } else if (isRetryable(cause)) {
+                long backoff = properties.getRetryBaseDelay().toNanos() << (attempt - 1);
+                log.warn("Gemini API 호출 실패, {}ms 후 재시도 ({}/{}): quota={}, error={}",
+                        TimeUnit.NANOSECONDS.toMillis(backoff), attempt, properties.getMaxAttempts(),
+                        bucket.getName(), cause.getMessage());
+                schedule(() -> attempt(bucket, tokens, call, result, attempt + 1,
+                        System.nanoTime() + properties.getMaxWait().toNanos()), backoff, result);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private void schedule(Runnable task, long delayNanos, CompletableFuture<?> result) {
+        try {
+            timer.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e); // 종료 중
+        }
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        return cause instanceof HttpServerErrorException
+                || cause instanceof ResourceAccessException
+                || cause instanceof TimeoutException
+                || cause.getCause() instanceof TimeoutException;
+    }
+
+    /**
+     * 429 응답의 재시도 대기 시간
+     * Retry-After 헤더 → RetryInfo.retryDelay → "Please retry in Xs" 메시지 순으로 확인
+     */
+    private Duration retryDelay(HttpClientErrorException e) {
+        Duration delay = properties.getDefaultRetryAfter();
+        try {
+            String retryAfter = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst("Retry-After") : null;
+            String body = e.getResponseBodyAsString();
+            Matcher retryInfo = RETRY_INFO_PATTERN.matcher(body);
+            Matcher retryMessage = RETRY_MESSAGE_PATTERN.matcher(body);
+            if (retryAfter != null && retryAfter.trim().matches("\\d+")) {
+                delay = Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+            } else if (retryInfo.find()) {
+                delay = Duration.ofMillis((long) Math.ceil(Double.parseDouble(retryInfo.group(1)) * 1000));
+            } else if (retryMessage.find()) {
+                delay = Duration.ofMillis((long) Math.ceil(Double.parseDouble(retryMessage.group(1)) * 1000));
+            }
+        } catch (Exception ex) {
+            log.warn("Retry delay 추출 실패", ex);
+        }
+
+        if (delay.compareTo(properties.getMinRetryAfter()) < 0) {
+            return properties.getMinRetryAfter();
+        }
+        return delay.compareTo(properties.getMaxRetryAfter()) > 0 ? properties.getMaxRetryAfter() : delay;
+    }
+
+    private QuotaBucket bucket(String name) {
+        return buckets.computeIfAbsent(name, key -> {
+            GeminiQuotaProperties.Instance config = properties.getInstance(key);
+            QuotaBucket bucket = new QuotaBucket(key, config.getRequestsPerMinute(), config.getTokensPerMinute());
+            Gauge.builder("gemini.quota.available_requests", bucket, QuotaBucket::getAvailableRequests)
+                    .description("현재 사용 가능한 분당 요청 할당량")
+                    .tag("quota", key)
+                    .register(meterRegistry);
+            Gauge.builder("gemini.quota.available_tokens", bucket, QuotaBucket::getAvailableTokens)
+                    .description("현재 사용 가능한 분당 토큰 할당량")
+                    .tag("quota", key)
+                    .register(meterRegistry);
+            Gauge.builder("gemini.quota.paused_seconds", bucket, b -> b.getPausedMillis() / 1000.0)
+                    .description("429 응답으로 호출이 중지된 남은 시간(초)")
+                    .tag("quota", key)
+                    .register(meterRegistry);
+            log.info("Gemini 할당량 초기화: quota={}, rpm={}, tpm={}",
+                    key, config.getRequestsPerMinute(), config.getTokensPerMinute());
+            return bucket;
+        });
+    }
+
+    private Counter counter(String name, QuotaBucket bucket) {
+        return Counter.builder(name)
+                .tag("quota", bucket.getName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,41 @@
+package Capstone.CSmart.global.service.gemini;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Gemini generateContent / streamGenerateContent 요청 본문
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GeminiRequest(List<Content> contents) {
+
+    /**
+     * 단일 텍스트 프롬프트 요청
+     */
+    public static GeminiRequest of(String prompt) {
+        return new GeminiRequest(List.of(new Content(null, List.of(new Part(prompt)))));
+    }
+
+    /**
+     * 요청에 포함된 전체 텍스트 (토큰 수 추정용)
+     */
+    public String text() {
+        StringBuilder text = new StringBuilder();
+        for (Content content : contents) {
+            for (Part part : content.parts()) {
+                if (part.text() != null) {
+                    text.append(part.text());
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Content(String role, List<Part> parts) {
+    }
+
+    public record Part(String text) {
+    }
+}
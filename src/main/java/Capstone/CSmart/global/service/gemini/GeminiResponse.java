@@ -0,0 +1,16 @@
+package Capstone.CSmart.global.service.gemini;
+
+/**
+ * Gemini 응답에서 필요한 값만 추린 결과
+ *
+ * @param text 첫 번째 후보의 텍스트 (parts 이어 붙임, 없으면 빈 문자열)
+ * @param finishReason 종료 사유 (STOP, MAX_TOKENS, SAFETY 등, 없으면 null)
+ * @param promptTokenCount 입력 토큰 수 (usageMetadata, 없으면 0)
+ * @param totalTokenCount 입력 + 출력 토큰 수 (usageMetadata, 없으면 0)
+ */
+public record GeminiResponse(String text, String finishReason, int promptTokenCount, int totalTokenCount) {
+
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+}
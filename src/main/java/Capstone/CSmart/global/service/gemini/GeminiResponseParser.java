@@ -0,0 +1,116 @@
+package Capstone.CSmart.global.service.gemini;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Gemini 응답 스트리밍 파서
+ * 응답 전체를 Map으로 만들지 않고 candidates[0].content.parts[].text, finishReason, usageMetadata만 읽고
+ * 나머지(safetyRatings, citationMetadata 등)는 건너뛴다.
+ * streamGenerateContent(SSE)의 각 청크도 같은 형식이므로 그대로 사용한다.
+ */
+public final class GeminiResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private GeminiResponseParser() {
+    }
+
+    public static GeminiResponse parse(byte[] body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return parse(parser);
+        }
+    }
+
+    public static GeminiResponse parse(String body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return parse(parser);
+        }
+    }
+
+    private static GeminiResponse parse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Gemini response is not a JSON object");
+        }
+
+        StringBuilder text = new StringBuilder();
+        String finishReason = null;
+        int promptTokenCount = 0;
+        int totalTokenCount = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("candidates".equals(field) && value == JsonToken.START_ARRAY) {
+                finishReason = readFirstCandidate(parser, text);
+            } else if ("usageMetadata".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String usageField = parser.currentName();
+                    parser.nextToken();
+                    if ("promptTokenCount".equals(usageField)) {
+                        promptTokenCount = parser.getValueAsInt();
+                    } else if ("totalTokenCount".equals(usageField)) {
+                        totalTokenCount = parser.getValueAsInt();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new GeminiResponse(text.toString(), finishReason, promptTokenCount, totalTokenCount);
+    }
+
+    /**
+     * candidates 배열에서 첫 번째 후보의 텍스트와 종료 사유만 읽음
+     */
+    private static String readFirstCandidate(JsonParser parser, StringBuilder text) throws IOException {
+        String finishReason = null;
+        boolean first = true;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            if (!first) {
+                parser.skipChildren();
+                continue;
+            }
+            first = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("content".equals(field) && value == JsonToken.START_OBJECT) {
+                    readParts(parser, text);
+                } else if ("finishReason".equals(field)) {
+                    finishReason = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return finishReason;
+    }
+
+    private static void readParts(JsonParser parser, StringBuilder text) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"parts".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String partField = parser.currentName();
+                    parser.nextToken();
+                    if ("text".equals(partField)) {
+                        text.append(parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package Capstone.CSmart.global.service.gemini;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 미리 분해해 둔 프롬프트 템플릿 ({{slot}} 형식)
+ * 애플리케이션 시작 시 한 번만 고정 문장과 슬롯으로 나누고, 호출마다 String.format으로 전체 포맷을 다시 해석하지 않는다.
+ * 렌더링 시 결과 길이를 미리 계산해 StringBuilder를 한 번만 할당한다.
+ */
+public final class PromptTemplate {
+
+    private static final Pattern SLOT_PATTERN = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private final String name;
+    private final String[] literals; // literals[i] 다음에 slots[i]가 옴 (마지막 literal 뒤에는 슬롯 없음)
+    private final String[] slots;
+    private final int literalLength;
+
+    private PromptTemplate(String name, String template) {
+        List<String> literalList = new ArrayList<>();
+        List<String> slotList = new ArrayList<>();
+        Matcher matcher = SLOT_PATTERN.matcher(template);
+        int position = 0;
+        while (matcher.find()) {
+            literalList.add(template.substring(position, matcher.start()));
+            slotList.add(matcher.group(1));
+            position = matcher.end();
+        }
+        literalList.add(template.substring(position));
+
+        this.name = name;
+        this.literals = literalList.toArray(String[]::new);
+        this.slots = slotList.toArray(String[]::new);
+        this.literalLength = literalList.stream().mapToInt(String::length).sum();
+    }
+
+    public static PromptTemplate of(String name, String template) {
+        return new PromptTemplate(name, template);
+    }
+
+    /**
+     * 클래스패스 템플릿 파일 로드 (예: prompts/gemini/chat.txt)
+     */
+    public static PromptTemplate fromClasspath(String path) {
+        try (InputStream in = PromptTemplate.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Prompt template not found: " + path);
+            }
+            return new PromptTemplate(path, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load prompt template: " + path, e);
+        }
+    }
+
+    /**
+     * 슬롯 값을 채워 프롬프트 생성
+     *
+     * @throws IllegalArgumentException 값이 없는 슬롯이 있을 때
+     */
+    public String render(Map<String, String> values) {
+        int length = literalLength;
+        String[] resolved = new String[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            String value = values.get(slots[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing prompt slot '" + slots[i] + "' in " + name);
+            }
+            resolved[i] = value;
+            length += value.length();
+        }
+
+        StringBuilder prompt = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            prompt.append(literals[i]).append(resolved[i]);
+        }
+        return prompt.append(literals[literals.length - 1]).toString();
+    }
+
+    /**
+     * 슬롯이 하나인 템플릿 렌더링
+     */
+    public String render(String slot, String value) {
+        return render(Map.of(slot, value));
+    }
+}
@@ -0,0 +1,105 @@
+package Capstone.CSmart.global.service.gemini;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 분당 요청 수(RPM) + 분당 토큰 수(TPM) 토큰 버킷
+ * 두 버킷 모두 분당 한도만큼 연속적으로 채워지며, 요청 1건은 요청 토큰 1개와 추정 토큰 수만큼을 사용한다.
+ * 서버가 429로 대기 시간을 알려주면 그 시각까지 모든 호출을 멈춘다 (한 호출만 기다리고 나머지는 계속 보내지 않도록).
+ */
+public class QuotaBucket {
+
+    private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Getter
+    private final String name;
+    private final double requestsPerMinute;
+    private final double tokensPerMinute;
+
+    private double availableRequests;
+    private double availableTokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    public QuotaBucket(String name, int requestsPerMinute, int tokensPerMinute) {
+        this.name = name;
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.availableRequests = requestsPerMinute;
+        this.availableTokens = tokensPerMinute;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 할당량 획득 시도
+     *
+     * @param tokens 추정 토큰 수 (분당 한도보다 크면 분당 한도로 계산)
+     * @return 0이면 획득 성공, 아니면 다시 시도하기까지 기다려야 하는 시간(ns)
+     */
+    public synchronized long tryAcquire(int tokens) {
+        long now = System.nanoTime();
+        if (now < pausedUntilNanos) {
+            return pausedUntilNanos - now;
+        }
+        refill(now);
+
+        double needed = Math.min(tokens, tokensPerMinute);
+        if (availableRequests >= 1 && availableTokens >= needed) {
+            availableRequests -= 1;
+            availableTokens -= needed;
+            return 0;
+        }
+
+        double requestWait = availableRequests >= 1 ? 0 : (1 - availableRequests) / requestsPerMinute * NANOS_PER_MINUTE;
+        double tokenWait = availableTokens >= needed ? 0 : (needed - availableTokens) / tokensPerMinute * NANOS_PER_MINUTE;
+        return Math.max(1, (long) Math.ceil(Math.max(requestWait, tokenWait)));
+    }
+
+    /**
+     * 서버가 알려준 대기 시간(Retry-After, RetryInfo)만큼 모든 호출 중지
+     * 대기 후에는 버킷을 비운 상태에서 다시 채워 한꺼번에 몰리지 않게 함
+     */
+    public synchronized void pause(Duration delay) {
+        long until = System.nanoTime() + delay.toNanos();
+        if (until > pausedUntilNanos) {
+            pausedUntilNanos = until;
+            availableRequests = 0;
+            availableTokens = 0;
+            lastRefillNanos = until;
+        }
+    }
+
+    /**
+     * 실제 사용 토큰 수로 보정 (응답의 usageMetadata.totalTokenCount)
+     */
+    public synchronized void reconcile(int estimatedTokens, int actualTokens) {
+        availableTokens = Math.max(-tokensPerMinute, availableTokens - (actualTokens - estimatedTokens));
+    }
+
+    public synchronized long getPausedMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos - System.nanoTime()));
+    }
+
+    public synchronized double getAvailableRequests() {
+        refill(System.nanoTime());
+        return availableRequests;
+    }
+
+    public synchronized double getAvailableTokens() {
+        refill(System.nanoTime());
+        return availableTokens;
+    }
+
+    private void refill(long now) {
+        if (now <= lastRefillNanos) {
+            return;
+        }
+        double elapsedMinutes = (now - lastRefillNanos) / NANOS_PER_MINUTE;
+        availableRequests = Math.min(requestsPerMinute, availableRequests + elapsedMinutes * requestsPerMinute);
+        availableTokens = Math.min(tokensPerMinute, availableTokens + elapsedMinutes * tokensPerMinute);
+        lastRefillNanos = now;
+    }
+}
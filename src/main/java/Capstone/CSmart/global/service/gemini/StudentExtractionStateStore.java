@@ -0,0 +1,116 @@
+package Capstone.CSmart.global.service.gemini;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 학생별 정보 추출 상태 저장소 (Redis)
+ * - 상태: 마지막으로 반영한 메시지 ID + 지금까지 추출된 필드 (다음 추출은 이후 메시지만 전송)
+ * - 결과 캐시: 전송할 대화 기록 + 기존 필드의 해시 → 추출 결과 (같은 구간 재요청 시 Gemini 호출 생략)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentExtractionStateStore {
+
+    private static final String STATE_PREFIX = "student_extraction_state:";
+    private static final String RESULT_PREFIX = "student_extraction_result:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 상태 보관 기간 (마지막 추출 이후 이 기간 동안 대화가 없으면 다음에는 처음부터 추출)
+    @Value("${gemini.extraction.state-ttl:30d}")
+    private Duration stateTtl;
+
+    // 메시지 구간별 추출 결과 캐시 보관 기간
+    @Value("${gemini.extraction.result-ttl:1d}")
+    private Duration resultTtl;
+
+    /**
+     * 추출 상태
+     *
+     * @param lastMessageId 마지막으로 반영한 메시지 ID
+     * @param fields 지금까지 추출된 학생 정보
+     */
+    public record State(Long lastMessageId, Map<String, Object> fields) {
+    }
+
+    public Optional<State> find(Long studentId) {
+        try {
+            String json = redisTemplate.opsForValue().get(STATE_PREFIX + studentId);
+            return json == null ? Optional.empty() : Optional.of(objectMapper.readValue(json, State.class));
+        } catch (Exception e) {
+            log.warn("학생 정보 추출 상태 조회 실패, 전체 추출로 진행: studentId={}, error={}", studentId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void save(Long studentId, State state) {
+        try {
+            redisTemplate.opsForValue().set(STATE_PREFIX + studentId, objectMapper.writeValueAsString(state), stateTtl);
+        } catch (Exception e) {
+            log.warn("학생 정보 추출 상태 저장 실패: studentId={}, error={}", studentId, e.getMessage());
+        }
+    }
+
+    /**
+     * 추출 상태 삭제 (다음 추출은 최근 대화 전체로 다시 수행)
+     */
+    public void clear(Long studentId) {
+        redisTemplate.delete(STATE_PREFIX + studentId);
+    }
+
+    public Optional<Map<String, Object>> findResult(String rangeHash) {
+        try {
+            String json = redisTemplate.opsForValue().get(RESULT_PREFIX + rangeHash);
+            return json == null
+                    ? Optional.empty()
+                    : Optional.of(objectMapper.readValue(json, new TypeReference<LinkedHashMap<String, Object>>() {}));
+        } catch (Exception e) {
+            log.warn("학생 정보 추출 결과 캐시 조회 실패: error={}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void saveResult(String rangeHash, Map<String, Object> fields) {
+        try {
+            redisTemplate.opsForValue().set(RESULT_PREFIX + rangeHash, objectMapper.writeValueAsString(fields), resultTtl);
+        } catch (Exception e) {
+            log.warn("학생 정보 추출 결과 캐시 저장 실패: error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 메시지 구간 해시 (학생 ID + 전송할 대화 기록 + 기존 필드)
+     * 기존 필드가 달라지면 같은 대화라도 결과가 달라질 수 있으므로 함께 포함한다.
+     */
+    public String rangeHash(Long studentId, String chatHistory, Map<String, Object> knownFields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(studentId).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(chatHistory.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(knownFields));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to hash extraction range", e);
+        }
+    }
+}
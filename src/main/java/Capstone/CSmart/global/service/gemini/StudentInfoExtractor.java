@@ -0,0 +1,366 @@
+package Capstone.CSmart.global.service.gemini;
+
+import Capstone.CSmart.global.service.circuitbreaker.ExternalOperation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gemini 학생 정보 추출 (마이크로 배치)
+ * 짧은 시간(window) 안에 들어온 여러 학생의 추출 요청을 하나의 프롬프트로 묶어 한 번만 호출한다.
+ * 14개 질문 안내문을 학생마다 반복해서 보내지 않으므로 호출 수와 입력 토큰이 줄어든다.
+ *
+ * - 학생별 대화는 "### 학생 {ID} 시작/끝" 구분선으로 나누고, 응답은 studentId를 포함한 JSON 배열로 받음
+ * - 묶음 크기: 최대 max-students명, 프롬프트 max-prompt-chars자 (초과하는 학생은 다음 묶음 또는 단건 호출)
+ * - 배열 파싱 실패 / 응답에 빠진 학생은 단건 호출로 다시 추출
+ * - 메트릭: gemini.extraction.batch.size, calls_saved, tokens_saved, fallbacks
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentInfoExtractor {
+
+    private static final PromptTemplate EXTRACT_USER_INFO_PROMPT =
+            PromptTemplate.fromClasspath("prompts/gemini/extract-user-info.txt");
+    private static final PromptTemplate EXTRACT_USER_INFO_DELTA_PROMPT =
+            PromptTemplate.fromClasspath("prompts/gemini/extract-user-info-delta.txt");
+    private static final PromptTemplate EXTRACT_USER_INFO_BATCH_PROMPT =
+            PromptTemplate.fromClasspath("prompts/gemini/extract-user-info-batch.txt");
+
+    // TPM 계산용 학생 1명당 예상 응답 토큰 수
+    private static final int EXTRACTION_OUTPUT_TOKENS = 500;
+
+    private final GeminiClient geminiClient;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${gemini.extraction.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    // 요청을 모으는 시간 (첫 요청 도착 후 이 시간이 지나면 묶음 전송)
+    @Value("${gemini.extraction.batch.window:300ms}")
+    private Duration batchWindow;
+
+    @Value("${gemini.extraction.batch.max-students:8}")
+    private int maxStudents;
+
+    // 묶음 프롬프트 중 학생 대화 부분의 최대 길이 (문자 수)
+    @Value("${gemini.extraction.batch.max-prompt-chars:24000}")
+    private int maxPromptChars;
+
+    private final List<PendingExtraction> pending = new ArrayList<>();
+    private int pendingChars;
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("gemini-extraction-batch-"));
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 학생 정보 추출 (배치 모드면 다른 학생의 요청과 묶여서 호출됨)
+     *
+     * @param chatHistory 대화 순서대로 "senderType: 내용" 줄을 이은 대화 기록 (ConversationContextBuilder)
+     * @param knownFields 이미 추출된 정보 (없으면 빈 Map, 있으면 새 대화를 반영해 갱신)
+     * @return 추출된 정보 (응답에서 빠진 필드는 기존 값 유지)
+     */
+    public CompletableFuture<Map<String, Object>> extractAsync(Long studentId, String chatHistory,
+                                                               Map<String, Object> knownFields) {
+        PendingExtraction extraction = new PendingExtraction(studentId, chatHistory, knownFields);
+        if (!batchEnabled || extraction.length() > maxPromptChars) {
+            return extractSingle(extraction);
+        }
+
+        List<PendingExtraction> full = null;
+        synchronized (this) {
+            if (!pending.isEmpty() && pendingChars + extraction.length() > maxPromptChars) {
+                full = drain(); // 프롬프트 크기 상한: 지금까지 모은 묶음을 먼저 전송
+            }
+            pending.add(extraction);
+            pendingChars += extraction.length();
+            if (pending.size() >= maxStudents) {
+                List<PendingExtraction> batch = drain();
+                if (full == null) {
+                    full = batch;
+                } else {
+                    sendBatch(batch);
+                }
+            } else if (scheduledFlush == null) {
+                scheduledFlush = timer.schedule(this::flush, batchWindow.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            sendBatch(full);
+        }
+        return extraction.result;
+    }
+
+    private void flush() {
+        List<PendingExtraction> batch;
+        synchronized (this) {
+            batch = drain();
+        }
+        sendBatch(batch);
+    }
+
+    // synchronized 안에서 호출
+    private List<PendingExtraction> drain() {
+        List<PendingExtraction> batch = new ArrayList<>(pending);
+        pending.clear();
+        pendingChars = 0;
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void sendBatch(List<PendingExtraction> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            complete(batch.get(0), extractSingle(batch.get(0)));
+            return;
+        }
+
+        String prompt;
+        try {
+            prompt = EXTRACT_USER_INFO_BATCH_PROMPT.render("students", formatStudents(batch));
+        } catch (JsonProcessingException e) {
+            fallback(batch, e);
+            return;
+        }
+        log.info("Gemini 학생 정보 묶음 추출: 학생 수={}, 프롬프트 길이={}", batch.size(), prompt.length());
+        DistributionSummary.builder("gemini.extraction.batch.size")
+                .description("한 번의 Gemini 호출로 추출한 학생 수")
+                .register(meterRegistry)
+                .record(batch.size());
+
+        geminiClient.generateAsync(ExternalOperation.EXTRACTION, GeminiRequest.of(prompt),
+                        EXTRACTION_OUTPUT_TOKENS * batch.size())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        // 할당량/장애 오류는 단건으로 다시 보내도 같은 결과이므로 그대로 전달
+                        batch.forEach(extraction -> extraction.result.completeExceptionally(error));
+                        return;
+                    }
+                    Map<Long, Map<String, Object>> results;
+                    try {
+                        results = parseBatch(response);
+                    } catch (Exception e) {
+                        fallback(batch, e);
+                        return;
+                    }
+
+                    List<PendingExtraction> missing = new ArrayList<>();
+                    for (PendingExtraction extraction : batch) {
+                        Map<String, Object> fields = results.get(extraction.studentId);
+                        if (fields == null) {
+                            missing.add(extraction);
+                        } else {
+                            extraction.result.complete(finish(extraction, fields));
+                        }
+                    }
+                    recordSavings(batch, prompt, batch.size() - missing.size());
+                    if (!missing.isEmpty()) {
+                        fallback(missing, new IllegalStateException("응답에 학생 정보가 없음"));
+                    }
+                });
+    }
+
+    /**
+     * 묶음 응답 파싱: [{"studentId": 1, ...}, ...] → studentId별 필드
+     */
+    private Map<Long, Map<String, Object>> parseBatch(GeminiResponse response) throws JsonProcessingException {
+        if (!response.hasText()) {
+            throw new IllegalStateException("Gemini API 응답에서 텍스트를 찾을 수 없음");
+        }
+        List<Map<String, Object>> items = objectMapper.readValue(
+                stripCodeBlock(response.text()), new TypeReference<List<Map<String, Object>>>() {});
+        Map<Long, Map<String, Object>> results = new HashMap<>();
+        for (Map<String, Object> item : items) {
+            Object studentId = item.remove("studentId");
+            if (studentId instanceof Number number) {
+                results.put(number.longValue(), item);
+            } else if (studentId instanceof String text && text.trim().matches("\\d+")) {
+                results.put(Long.parseLong(text.trim()), item);
+            }
+        }
+        return results;
+    }
+
+    private void fallback(List<PendingExtraction> extractions, Exception cause) {
+        log.warn("Gemini 묶음 추출 결과 사용 불가, 단건 호출로 재시도: 학생 수={}, error={}",
+                extractions.size(), cause.getMessage());
+        Counter.builder("gemini.extraction.batch.fallbacks")
+                .description("묶음 추출 실패로 단건 호출한 학생 수")
+                .register(meterRegistry)
+                .increment(extractions.size());
+        extractions.forEach(extraction -> complete(extraction, extractSingle(extraction)));
+    }
+
+    /**
+     * 묶음으로 처리한 학생 수만큼 절약된 호출 수와 (추정) 입력 토큰 수 기록
+     */
+    private void recordSavings(List<PendingExtraction> batch, String batchPrompt, int extractedCount) {
+        if (extractedCount < 2) {
+            return;
+        }
+        int singleTokens = 0;
+        for (PendingExtraction extraction : batch) {
+            try {
+                singleTokens += TokenEstimator.estimate(singlePrompt(extraction));
+            } catch (JsonProcessingException e) {
+                return;
+            }
+        }
+        int savedTokens = singleTokens - TokenEstimator.estimate(batchPrompt);
+        Counter.builder("gemini.extraction.batch.calls_saved")
+                .description("묶음 추출로 줄어든 Gemini 호출 수")
+                .register(meterRegistry)
+                .increment(extractedCount - 1);
+        if (savedTokens > 0) {
+            Counter.builder("gemini.extraction.batch.tokens_saved")
+                    .description("묶음 추출로 줄어든 입력 토큰 수 (추정)")
+                    .register(meterRegistry)
+                    .increment(savedTokens);
+        }
+    }
+
+    private CompletableFuture<Map<String, Object>> extractSingle(PendingExtraction extraction) {
+        String prompt;
+        try {
+            prompt = singlePrompt(extraction);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return geminiClient.generateAsync(ExternalOperation.EXTRACTION, GeminiRequest.of(prompt), EXTRACTION_OUTPUT_TOKENS)
+                .thenApply(response -> {
+                    if (!response.hasText()) {
+                        log.warn("Gemini API 응답에서 텍스트를 찾을 수 없음: studentId={}", extraction.studentId);
+                        return new HashMap<String, Object>();
+                    }
+                    log.info("Gemini API 응답: {}", response.text());
+                    try {
+                        Map<String, Object> fields = objectMapper.readValue(
+                                stripCodeBlock(response.text()), new TypeReference<LinkedHashMap<String, Object>>() {});
+                        return finish(extraction, fields);
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("Gemini 추출 결과 JSON 파싱 실패: studentId=" + extraction.studentId, e);
+                    }
+                });
+    }
+
+    // 프롬프트 구성 (14개 질문 형식에 맞춰 추출, 기존 정보가 있으면 새 메시지만 보내는 증분 프롬프트)
+    private String singlePrompt(PendingExtraction extraction) throws JsonProcessingException {
+        return extraction.knownFields.isEmpty()
+                ? EXTRACT_USER_INFO_PROMPT.render("chatHistory", extraction.chatHistory)
+                : EXTRACT_USER_INFO_DELTA_PROMPT.render(Map.of(
+                        "knownProfile", objectMapper.writeValueAsString(extraction.knownFields),
+                        "newMessages", extraction.chatHistory));
+    }
+
+    private String formatStudents(List<PendingExtraction> batch) throws JsonProcessingException {
+        StringBuilder students = new StringBuilder(pendingCapacity(batch));
+        for (PendingExtraction extraction : batch) {
+            students.append("### 학생 ").append(extraction.studentId).append(" 시작\n");
+            if (!extraction.knownFields.isEmpty()) {
+                students.append("기존 학생 정보: ")
+                        .append(objectMapper.writeValueAsString(extraction.knownFields))
+                        .append('\n');
+            }
+            students.append("대화 기록:\n")
+                    .append(extraction.chatHistory)
+                    .append("### 학생 ").append(extraction.studentId).append(" 끝\n\n");
+        }
+        return students.toString();
+    }
+
+    private static int pendingCapacity(List<PendingExtraction> batch) {
+        return batch.stream().mapToInt(PendingExtraction::length).sum() + batch.size() * 64;
+    }
+
+    private void complete(PendingExtraction extraction, CompletableFuture<Map<String, Object>> future) {
+        future.whenComplete((fields, error) -> {
+            if (error == null) {
+                extraction.result.complete(fields);
+            } else {
+                extraction.result.completeExceptionally(error);
+            }
+        });
+    }
+
+    private static Map<String, Object> finish(PendingExtraction extraction, Map<String, Object> fields) {
+        // 응답에서 빠졌거나 null로 온 필드는 기존 값 유지
+        extraction.knownFields.forEach((field, value) -> {
+            if (value != null && fields.get(field) == null) {
+                fields.put(field, value);
+            }
+        });
+
+        // ✅ track 필드를 항상 "이과"로 고정
+        fields.put("track", "이과");
+        return fields;
+    }
+
+    /**
+     * 마크다운 코드 블록 제거 (```json ... ``` 형식)
+     */
+    private static String stripCodeBlock(String text) {
+        text = text.trim();
+        if (text.startsWith("```")) {
+            // 첫 번째 ``` 제거 후 언어 지정자 제거 (json, JSON 등)
+            text = text.substring(3).replaceFirst("^(json|JSON)\\s*", "");
+            // 마지막 ``` 제거
+            int endIndex = text.lastIndexOf("```");
+            if (endIndex != -1) {
+                text = text.substring(0, endIndex);
+            }
+            text = text.trim();
+        }
+        return text;
+    }
+
+    private static final class PendingExtraction {
+
+        private final Long studentId;
+        private final String chatHistory;
+        private final Map<String, Object> knownFields;
+        private final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+
+        private PendingExtraction(Long studentId, String chatHistory, Map<String, Object> knownFields) {
+            this.studentId = studentId;
+            this.chatHistory = chatHistory;
+            this.knownFields = knownFields != null ? knownFields : Map.of();
+        }
+
+        int length() {
+            return chatHistory.length();
+        }
+    }
+}
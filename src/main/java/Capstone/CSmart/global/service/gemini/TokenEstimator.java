@@ -0,0 +1,39 @@
+package Capstone.CSmart.global.service.gemini;
+
+/**
+ * Gemini 요청 토큰 수 추정 (TPM 할당량 계산용)
+ * 정확한 토크나이저 대신 보수적인 근사값을 사용하고, 응답의 usageMetadata로 사후 보정한다.
+ * - 영문/숫자/기호: 약 4자당 1토큰
+ * - 한글 등 비 ASCII 문자: 약 1.5자당 1토큰
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * 프롬프트 토큰 수 추정
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int ascii = 0;
+        int nonAscii = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 0x80) {
+                ascii++;
+            } else {
+                nonAscii++;
+            }
+        }
+        return (int) Math.ceil(ascii / 4.0 + nonAscii / 1.5);
+    }
+
+    /**
+     * 프롬프트 + 예상 응답 토큰 수 추정 (TPM은 입력과 출력을 모두 셈)
+     */
+    public static int estimate(String prompt, int expectedOutputTokens) {
+        return estimate(prompt) + expectedOutputTokens;
+    }
+}
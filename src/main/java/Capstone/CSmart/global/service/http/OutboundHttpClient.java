@@ -0,0 +1,352 @@
+package Capstone.CSmart.global.service.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 외부 API 공용 HTTP 클라이언트
+ * Gemini / LangGraph / 카카오 웹훅 서버 호출을 모두 이 클라이언트로 처리한다.
+ *
+ * - 비동기 API: CompletableFuture 반환 (여러 호출을 스레드 점유 없이 동시에 진행 가능)
+ * - 동기 API: 기존 코드 호환용 (내부적으로 비동기 호출 결과를 기다림)
+ * - 4xx/5xx는 RestTemplate과 동일하게 HttpClientErrorException / HttpServerErrorException으로,
+ *   네트워크 오류/타임아웃은 ResourceAccessException으로 변환하여 기존 예외 처리와 호환
+ * - 호스트별 메트릭: outbound.http.requests (Timer), outbound.http.in_flight (Gauge)
+ * - HTTP 버전: 기본 HTTP/1.1, http2-hosts에 지정한 호스트(https, ALPN 협상)만 HTTP/2
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboundHttpClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicInteger> inFlightByHost = new ConcurrentHashMap<>();
+
+    @Value("${outbound-http.read-timeout:30s}")
+    private Duration defaultReadTimeout;
+
+    // HTTP/2로 호출할 호스트 (쉼표로 구분)
+    @Value("${outbound-http.http2-hosts:generativelanguage.googleapis.com}")
+    private Set<String> http2Hosts;
+
+    /**
+     * JSON POST (비동기)
+     *
+     * @param url 요청 URL
+     * @param headers 추가 헤더 (null 가능)
+     * @param body 요청 본문 (JSON 직렬화, null이면 빈 본문)
+     * @param responseType 응답 타입 (String/byte[]이면 본문 그대로 반환)
+     * @param timeout 응답 타임아웃 (null이면 기본값)
+     */
+    public <T> CompletableFuture<T> postAsync(String url, Map<String, String> headers, Object body,
+                                              Class<T> responseType, Duration timeout) {
+        HttpRequest.BodyPublisher publisher;
+        try {
+            publisher = jsonPublisher(body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(
+                    new RestClientException("Failed to serialize request body for " + url, e));
+        }
+
+        HttpRequest.Builder builder = newRequest(url, headers, timeout)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .POST(publisher);
+        return sendAsync(builder.build(), responseType);
+    }
+
+    /**
+     * JSON POST 후 응답 본문을 줄 단위로 전달 (비동기, Server-Sent Events 같은 스트리밍 응답용)
+     * 응답 전체를 모으지 않고 도착하는 대로 onLine을 호출하며, 4xx/5xx는 postAsync와 같은 예외로 실패한다.
+     *
+     * @param onLine 줄 단위 콜백 (HTTP 클라이언트 스레드에서 호출되므로 오래 걸리는 작업 금지)
+     */
+    public CompletableFuture<Void> postForLinesAsync(String url, Map<String, String> headers, Object body,
+                                                     Duration timeout, Consumer<String> onLine) {
+        HttpRequest.BodyPublisher publisher;
+        try {
+            publisher = jsonPublisher(body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(
+                    new RestClientException("Failed to serialize request body for " + url, e));
+        }
+
+        HttpRequest request = newRequest(url, headers, timeout)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .POST(publisher)
+                .build();
+        // 에러 응답은 예외 메시지용으로 본문 전체를 읽고, 정상 응답만 줄 단위로 전달
+        HttpResponse.BodyHandler<byte[]> handler = info -> info.statusCode() >= 400
+                ? HttpResponse.BodySubscribers.ofByteArray()
+                : HttpResponse.BodySubscribers.fromLineSubscriber(
+                        new LineSubscriber(onLine), LineSubscriber::finish, StandardCharsets.UTF_8, null);
+        return sendAsync(request, handler, ignored -> null);
+    }
+
+    /**
+     * GET (비동기)
+     */
+    public <T> CompletableFuture<T> getAsync(String url, Map<String, String> headers,
+                                             Class<T> responseType, Duration timeout) {
+        HttpRequest.Builder builder = newRequest(url, headers, timeout).GET();
+        return sendAsync(builder.build(), responseType);
+    }
+
+    /**
+     * JSON POST (동기)
+     */
+    public <T> T post(String url, Map<String, String> headers, Object body,
+                      Class<T> responseType, Duration timeout) {
+        return await(postAsync(url, headers, body, responseType, timeout));
+    }
+
+    /**
+     * GET (동기)
+     */
+    public <T> T get(String url, Map<String, String> headers, Class<T> responseType, Duration timeout) {
+        return await(getAsync(url, headers, responseType, timeout));
+    }
+
+    /**
+     * 비동기 호출 결과를 기다리고, 원래 예외(HttpClientErrorException 등)를 그대로 던짐
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ResourceAccessException("Interrupted while waiting for outbound HTTP call");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * CompletionException/ExecutionException으로 감싸진 원래 예외 추출
+     */
+    public static RuntimeException unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RestClientException(cause.getMessage(), cause);
+    }
+
+    private HttpRequest.BodyPublisher jsonPublisher(Object body) throws IOException {
+        return body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private HttpRequest.Builder newRequest(String url, Map<String, String> headers, Duration timeout) {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(timeout != null ? timeout : defaultReadTimeout);
+        if (http2Hosts.contains(uri.getHost())) {
+            builder.version(HttpClient.Version.HTTP_2);
+        }
+        if (headers == null || !headers.containsKey(HttpHeaders.ACCEPT)) {
+            builder.header(HttpHeaders.ACCEPT, "application/json");
+        }
+        if (headers != null) {
+            headers.forEach(builder::header);
+        }
+        return builder;
+    }
+
+    private <T> CompletableFuture<T> sendAsync(HttpRequest request, Class<T> responseType) {
+        return sendAsync(request, HttpResponse.BodyHandlers.ofByteArray(), body -> readBody(body, responseType));
+    }
+
+    private <T> CompletableFuture<T> sendAsync(HttpRequest request, HttpResponse.BodyHandler<byte[]> bodyHandler,
+                                               Function<byte[], T> bodyReader) {
+        String host = request.uri().getHost();
+        String method = request.method();
+        AtomicInteger inFlight = inFlightCounter(host);
+        inFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(request, bodyHandler);
+        CompletableFuture<T> result = exchange
+                .handle((response, error) -> {
+                    inFlight.decrementAndGet();
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        String outcome = cause instanceof HttpTimeoutException ? "TIMEOUT" : "IO_ERROR";
+                        record(sample, host, method, outcome, outcome);
+                        log.warn("Outbound HTTP call failed: {} {}, error={}", method, request.uri().getPath(), cause.toString());
+                        throw new CompletionException(toRestClientException(request, cause));
+                    }
+
+                    int status = response.statusCode();
+                    record(sample, host, method, String.valueOf(status), outcome(status));
+                    if (status >= 400) {
+                        throw new CompletionException(toStatusException(response));
+                    }
+                    return bodyReader.apply(response.body());
+                });
+
+        // 호출 측에서 이 Future를 취소하면 진행 중인 HTTP 요청도 취소
+        // (헤지 요청의 패자, TimeLimiter 타임아웃 시 CircuitBreakerService가 취소함 - TimeLimiter 자체는 취소하지 않음)
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readBody(byte[] body, Class<T> responseType) {
+        if (responseType == null || responseType == Void.class || body == null || body.length == 0) {
+            return null;
+        }
+        if (responseType == String.class) {
+            return (T) new String(body, StandardCharsets.UTF_8);
+        }
+        if (responseType == byte[].class) {
+            return (T) body;
+        }
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (IOException e) {
+            throw new CompletionException(new RestClientException("Failed to parse response body", e));
+        }
+    }
+
+    private RuntimeException toRestClientException(HttpRequest request, Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        String message = "I/O error on " + request.method() + " request for \"" + request.uri() + "\": " + cause.getMessage();
+        if (cause instanceof IOException ioException) {
+            return new ResourceAccessException(message, ioException);
+        }
+        return new RestClientException(message, cause);
+    }
+
+    private RuntimeException toStatusException(HttpResponse<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        HttpStatusCode statusCode = HttpStatusCode.valueOf(response.statusCode());
+
+        if (statusCode.is4xxClientError()) {
+            return HttpClientErrorException.create(statusCode, "", headers, response.body(), StandardCharsets.UTF_8);
+        }
+        return HttpServerErrorException.create(statusCode, "", headers, response.body(), StandardCharsets.UTF_8);
+    }
+
+    private AtomicInteger inFlightCounter(String host) {
+        return inFlightByHost.computeIfAbsent(host, h -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("outbound.http.in_flight", counter, AtomicInteger::get)
+                    .description("진행 중인 외부 HTTP 호출 수")
+                    .tag("host", h)
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    private void record(Timer.Sample sample, String host, String method, String status, String outcome) {
+        sample.stop(Timer.builder("outbound.http.requests")
+                .description("외부 HTTP 호출 지연 시간")
+                .tag("host", host)
+                .tag("method", method)
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+
+    /**
+     * 스트리밍 응답 줄 단위 전달
+     * 콜백에서 예외가 나면 이후 줄은 무시하고, 응답이 끝날 때 그 예외로 호출 결과를 실패로 만든다.
+     */
+    private static final class LineSubscriber implements Flow.Subscriber<String> {
+
+        private final Consumer<String> onLine;
+        private RuntimeException failure;
+
+        private LineSubscriber(Consumer<String> onLine) {
+            this.onLine = onLine;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                onLine.accept(line);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // HTTP 클라이언트가 exchange 결과를 실패로 완료함
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        private byte[] finish() {
+            if (failure != null) {
+                throw failure;
+            }
+            return new byte[0];
+        }
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) return "SERVER_ERROR";
+        if (status >= 400) return "CLIENT_ERROR";
+        return "SUCCESS";
+    }
+}
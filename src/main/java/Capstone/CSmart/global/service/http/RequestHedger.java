@@ -0,0 +1,175 @@
+package Capstone.CSmart.global.service.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 헤지 요청 (Hedged Request)
+ * 첫 요청이 지연 기준(최근 응답 시간의 백분위수) 안에 끝나지 않으면 같은 요청을 한 번 더 보내고,
+ * 먼저 도착한 응답을 사용하며 나머지는 취소한다. 꼬리 지연(p99)을 줄이기 위한 용도.
+ *
+ * - 지연 기준: 최근 sampleSize개 성공 요청 각각의 응답 시간 percentile 값 (minDelay ~ maxDelay로 제한)
+ *   (헤지가 이긴 경우도 원래 요청 시작 시각이 아닌 헤지 요청 자신의 응답 시간을 기록)
+ * - 요청마다 call을 새로 호출하므로, call이 할당량/동시 호출 한도를 감싸고 있으면 헤지 요청도 따로 차지한다.
+ * - 예산: 요청 1건마다 budgetRatio만큼 토큰 적립, 헤지 1건에 토큰 1개 사용 (추가 호출 비율 ≤ budgetRatio)
+ * - 메트릭: {name}.hedge.sent / won / budget_exhausted
+ */
+@Slf4j
+public class RequestHedger {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final double MAX_TOKENS = 10.0;
+
+    private final String name;
+    private final double percentile;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final double budgetRatio;
+
+    private final long[] samples;
+    private int sampleIndex;
+    private int sampleCount;
+    private double tokens;
+
+    private final Counter hedgeSent;
+    private final Counter hedgeWon;
+    private final Counter budgetExhausted;
+
+    public RequestHedger(String name, double percentile, Duration minDelay, Duration maxDelay,
+                         double budgetRatio, int sampleSize, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.budgetRatio = budgetRatio;
+        this.samples = new long[sampleSize];
+
+        this.hedgeSent = Counter.builder(name + ".hedge.sent")
+                .description("지연으로 인해 추가로 보낸 헤지 요청 수")
+                .register(meterRegistry);
+        this.hedgeWon = Counter.builder(name + ".hedge.won")
+                .description("헤지 요청이 원래 요청보다 먼저 응답한 횟수")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder(name + ".hedge.budget_exhausted")
+                .description("예산 부족으로 헤지하지 못한 횟수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 헤지 적용 실행
+     *
+     * @param call 요청을 시작하는 함수 (두 번 호출될 수 있으므로 멱등 요청이어야 함, 반환한 Future는 패자일 때 취소됨)
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        depositToken();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // 헤지 요청 결과 (원래 요청이 먼저 실패하면 헤지를 막기 위해 실패 값으로 선점)
+        AtomicReference<CompletableFuture<T>> hedgeRef = new AtomicReference<>();
+
+        CompletableFuture<T> primary = call.get();
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                recordLatency(System.nanoTime() - start);
+                result.complete(value);
+            } else if (hedgeRef.compareAndSet(null, CompletableFuture.failedFuture(error))) {
+                result.completeExceptionally(error);
+            } else {
+                // 헤지 요청이 진행 중이면 그 결과를 기다림 (둘 다 실패하면 원래 요청의 예외)
+                hedgeRef.get().whenComplete((hedgeValue, hedgeError) -> {
+                    if (hedgeError != null) {
+                        result.completeExceptionally(error);
+                    }
+                });
+            }
+        });
+
+        Duration delay = hedgeDelay();
+        Executor delayed = CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS);
+        CompletableFuture.runAsync(() -> {
+            if (result.isDone() || hedgeRef.get() != null) {
+                return;
+            }
+            if (!tryAcquireToken()) {
+                budgetExhausted.increment();
+                return;
+            }
+            CompletableFuture<T> hedgeResult = new CompletableFuture<>();
+            if (!hedgeRef.compareAndSet(null, hedgeResult)) {
+                return;
+            }
+
+            hedgeSent.increment();
+            log.debug("Hedging request: name={}, delay={}ms", name, delay.toMillis());
+            long hedgeStart = System.nanoTime();
+            CompletableFuture<T> hedge = call.get();
+            hedge.whenComplete((value, error) -> {
+                if (error == null) {
+                    recordLatency(System.nanoTime() - hedgeStart);
+                    if (result.complete(value)) {
+                        hedgeWon.increment();
+                    }
+                    hedgeResult.complete(value);
+                } else {
+                    hedgeResult.completeExceptionally(error);
+                }
+            });
+            // 먼저 끝난 쪽이 결과가 되고, 나머지 요청은 취소
+            result.whenComplete((value, error) -> cancelIfRunning(hedge));
+        }, delayed);
+
+        result.whenComplete((value, error) -> cancelIfRunning(primary));
+        return result;
+    }
+
+    /**
+     * 현재 헤지 지연 기준
+     */
+    public synchronized Duration hedgeDelay() {
+        if (sampleCount < MIN_SAMPLES) {
+            return maxDelay;
+        }
+        long[] sorted = Arrays.copyOf(samples, sampleCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        Duration delay = Duration.ofNanos(sorted[Math.max(0, index)]);
+        if (delay.compareTo(minDelay) < 0) {
+            return minDelay;
+        }
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    private synchronized void recordLatency(long latencyNanos) {
+        samples[sampleIndex] = latencyNanos;
+        sampleIndex = (sampleIndex + 1) % samples.length;
+        sampleCount = Math.min(sampleCount + 1, samples.length);
+    }
+
+    private synchronized void depositToken() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    private synchronized boolean tryAcquireToken() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    private static void cancelIfRunning(CompletableFuture<?> future) {
+        if (!future.isDone()) {
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package Capstone.CSmart.global.service.ingest;
+
+import Capstone.CSmart.global.domain.enums.MessageKind;
+import org.springframework.stereotype.Component;
+
+/**
+ * 메시지 종류 분류 (저장 시 한 번만 수행하여 Message.messageKind에 기록, 컬럼 추가 이전 메시지는 MessageKindBackfill이 분류)
+ * AI 스케줄러는 이 값으로 상담폼을 조회 단계에서 제외한다.
+ */
+@Component
+public class MessageClassifier {
+
+    /**
+     * 메시지 내용으로 종류 결정
+     * - 상담폼: 200자 초과, 5줄 초과, 번호 목록(1. 2. 3.) 포함
+     */
+    public MessageKind classify(String content) {
+        if (content == null) {
+            return MessageKind.QUESTION;
+        }
+
+        // 200자 이상 또는 줄바꿈 5개 이상
+        boolean isLong = content.length() > 200 || content.split("\n").length > 5;
+
+        // 번호 목록 (1. 2. 3. 패턴)
+        boolean hasNumberedList = content.contains("1.") && content.contains("2.") && content.contains("3.");
+
+        return isLong || hasNumberedList ? MessageKind.CONSULTATION_FORM : MessageKind.QUESTION;
+    }
+}
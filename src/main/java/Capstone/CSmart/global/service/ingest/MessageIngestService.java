@@ -6,6 +6,8 @@ import Capstone.CSmart.global.repository.MessageRepository;
 import Capstone.CSmart.global.repository.StudentRepository;
 import Capstone.CSmart.global.service.ai.AiResponseService;
 import Capstone.CSmart.global.web.dto.Kakao.ChatbotRequestDTO;
+import Capstone.CSmart.global.service.context.ConversationContextBuilder;
+import Capstone.CSmart.global.service.realtime.DashboardEventService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -22,6 +24,9 @@ public class MessageIngestService {
     private final StudentRepository studentRepository;
     private final MessageRepository messageRepository;
     private final AiResponseService aiResponseService;
+    private final ConversationContextBuilder conversationContextBuilder;
+    private final DashboardEventService dashboardEventService;
+    private final MessageClassifier messageClassifier;
 
     /**
      * 카카오톡 웹훅에서 받은 메시지 저장
@@ -48,10 +53,13 @@ public class MessageIngestService {
                 .content(dto.getUtterance())
                 .messageType("text")
                 .senderType("student")
+                .messageKind(messageClassifier.classify(dto.getUtterance()))
                 .sentAt(OffsetDateTime.parse(dto.getTimestamp()))
                 .build();
 
         Message savedMessage = messageRepository.save(message);
+        conversationContextBuilder.invalidate(student.getStudentId()); // 새 메시지: 대화 맥락 캐시 무효화
+        dashboardEventService.publishMessageReceived(savedMessage, student.getAssignedTeacherId());
         log.info("메시지 저장 완료: messageId={}, studentId={}", 
                 savedMessage.getMessageId(), student.getStudentId());
     }
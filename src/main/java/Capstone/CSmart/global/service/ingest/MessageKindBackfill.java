@@ -0,0 +1,65 @@
+package Capstone.CSmart.global.service.ingest;
+
+import Capstone.CSmart.global.domain.entity.Message;
+import Capstone.CSmart.global.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * messageKind 컬럼 추가 이전에 저장된 메시지의 종류 채우기 (일회성)
+ * - 종류가 없는 메시지를 batch-size개씩 MessageClassifier로 분류하여 저장 (묶음마다 한 트랜잭션)
+ * - 한 번 실행에 max-batches-per-run 묶음까지만 처리하여 DB 부하를 제한 (남은 것은 다음 실행에서)
+ * - 새 메시지는 저장 시 분류되므로, 남은 메시지가 없음을 확인한 뒤에는 다시 조회하지 않음
+ * - 끝나기 전까지 AiScheduler는 생성하지 않음 (종류가 없는 메시지는 스케줄러 조회에 잡히지 않음)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MessageKindBackfill {
+
+    private final MessageRepository messageRepository;
+    private final MessageClassifier messageClassifier;
+
+    @Value("${ingest.message-kind-backfill.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ingest.message-kind-backfill.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    // 종류가 없는 메시지가 남지 않았음을 확인함
+    private volatile boolean caughtUp;
+
+    /**
+     * 모든 메시지의 종류가 채워졌는지
+     */
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+
+    @Scheduled(initialDelayString = "${ingest.message-kind-backfill.initial-delay-ms:5000}",
+            fixedDelayString = "${ingest.message-kind-backfill.interval-ms:60000}")
+    public void backfill() {
+        if (caughtUp) {
+            return;
+        }
+        int classified = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Message> messages = messageRepository.findByMessageKindIsNullOrderByMessageIdAsc(PageRequest.of(0, batchSize));
+            if (messages.isEmpty()) {
+                caughtUp = true;
+                log.info("메시지 종류 채우기 완료: 이번 실행 분류={}", classified);
+                return;
+            }
+            messages.forEach(message -> message.setMessageKind(messageClassifier.classify(message.getContent())));
+            messageRepository.saveAll(messages);
+            classified += messages.size();
+        }
+        log.info("메시지 종류 채우기 진행 중: 이번 실행 분류={}", classified);
+    }
+}
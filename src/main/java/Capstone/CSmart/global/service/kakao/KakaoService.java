@@ -2,22 +2,23 @@ package Capstone.CSmart.global.service.kakao;
 
 import Capstone.CSmart.global.domain.enums.ChannelType;
 import Capstone.CSmart.global.domain.enums.UserRole;
+import Capstone.CSmart.global.service.http.OutboundHttpClient;
 import Capstone.CSmart.global.web.dto.Kakao.KakaoRequestDTO;
 import Capstone.CSmart.global.web.dto.Kakao.KakaoResponseDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KakaoService {
 
-    private final RestTemplate restTemplate;
+    private final OutboundHttpClient outboundHttpClient;
 
     @Value("${kakao.webhook.url.admin}")
     private String adminWebhookUrl;
@@ -25,6 +26,9 @@ public class KakaoService {
     @Value("${kakao.webhook.url.teacher}")
     private String teacherWebhookUrl;
 
+    @Value("${kakao.webhook.timeout:5000}")
+    private long timeoutMillis;
+
     /**
      * 카카오톡 메시지 전송 (채널별)
      * 
@@ -75,30 +79,27 @@ public class KakaoService {
             String webhookUrl = getWebhookUrlByChannelType(channelType);
             String url = webhookUrl + "/api/message/chat-list";
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            HttpEntity<KakaoRequestDTO.ChatListRequest> entity = new HttpEntity<>(request, headers);
-            
             log.info("카카오톡 채팅 목록 조회 요청: channel={}", channelType);
             
-            ResponseEntity<KakaoResponseDTO.ChatListResponse> response = restTemplate.exchange(
+            // 4xx/5xx 응답은 RestClientException으로 전달됨
+            KakaoResponseDTO.ChatListResponse response = outboundHttpClient.post(
                 url,
-                HttpMethod.POST,
-                entity,
-                KakaoResponseDTO.ChatListResponse.class
+                null,
+                request,
+                KakaoResponseDTO.ChatListResponse.class,
+                timeout()
             );
             
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                int totalCount = response.getBody().getData() != null && 
-                    response.getBody().getData().getChatList() != null && 
-                    response.getBody().getData().getChatList().getItems() != null ?
-                    response.getBody().getData().getChatList().getItems().size() : 0;
+            if (response != null) {
+                int totalCount = response.getData() != null && 
+                    response.getData().getChatList() != null && 
+                    response.getData().getChatList().getItems() != null ?
+                    response.getData().getChatList().getItems().size() : 0;
                 
                 log.info("카카오톡 채팅 목록 조회 성공: channel={}, totalCount={}", channelType, totalCount);
-                return response.getBody();
+                return response;
             } else {
-                log.error("카카오톡 채팅 목록 조회 실패: channel={}, status={}", channelType, response.getStatusCode());
+                log.error("카카오톡 채팅 목록 조회 실패: channel={}, empty response", channelType);
                 throw new RuntimeException("카카오톡 채팅 목록 조회 실패");
             }
             
@@ -119,9 +120,10 @@ public class KakaoService {
             String webhookUrl = getWebhookUrlByChannelType(channelType);
             String url = webhookUrl + "/api/health";
             
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            // 2xx가 아니면 RestClientException 발생
+            outboundHttpClient.get(url, null, String.class, timeout());
             
-            return response.getStatusCode().is2xxSuccessful();
+            return true;
             
         } catch (RestClientException e) {
             log.error("카카오톡 서비스 헬스체크 실패: channel={}", channelType, e);
@@ -142,30 +144,26 @@ public class KakaoService {
             String webhookUrl = getWebhookUrlByRole(role);
             String url = webhookUrl + "/api/kakao/verify-login";
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
             java.util.Map<String, String> requestBody = new java.util.HashMap<>();
             requestBody.put("kakaoId", kakaoId);
             requestBody.put("kakaoPassword", kakaoPassword);
             
-            HttpEntity<java.util.Map<String, String>> entity = new HttpEntity<>(requestBody, headers);
-            
             log.info("카카오 로그인 검증 요청: role={}, kakaoId={}", role, kakaoId);
             
-            ResponseEntity<java.util.Map> response = restTemplate.exchange(
+            java.util.Map response = outboundHttpClient.post(
                 url,
-                HttpMethod.POST,
-                entity,
-                java.util.Map.class
+                null,
+                requestBody,
+                java.util.Map.class,
+                timeout()
             );
             
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Boolean success = (Boolean) response.getBody().get("success");
+            if (response != null) {
+                Boolean success = (Boolean) response.get("success");
                 log.info("카카오 로그인 검증 결과: role={}, success={}", role, success);
                 return Boolean.TRUE.equals(success);
             } else {
-                log.error("카카오 로그인 검증 실패: role={}, status={}", role, response.getStatusCode());
+                log.error("카카오 로그인 검증 실패: role={}, empty response", role);
                 return false;
             }
             
@@ -188,28 +186,17 @@ public class KakaoService {
             String webhookUrl = getWebhookUrlByRole(role);
             String url = webhookUrl + "/api/kakao/login";
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
             java.util.Map<String, String> requestBody = new java.util.HashMap<>();
             requestBody.put("kakaoId", kakaoId);
             requestBody.put("kakaoPassword", kakaoPassword);
             
-            HttpEntity<java.util.Map<String, String>> entity = new HttpEntity<>(requestBody, headers);
-            
             log.info("웹훅 서버 로그인 요청: role={}, url={}", role, webhookUrl);
             
-            ResponseEntity<java.util.Map> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                entity,
-                java.util.Map.class
-            );
-            
-            boolean success = response.getStatusCode().is2xxSuccessful();
-            log.info("웹훅 서버 로그인 {}: role={}", success ? "성공" : "실패", role);
+            // 2xx가 아니면 RestClientException 발생
+            outboundHttpClient.post(url, null, requestBody, java.util.Map.class, timeout());
             
-            return success;
+            log.info("웹훅 서버 로그인 성공: role={}", role);
+            return true;
         } catch (RestClientException e) {
             log.error("웹훅 서버 로그인 실패: role={}, error={}", role, e.getMessage());
             return false;
@@ -228,20 +215,22 @@ public class KakaoService {
             
             log.info("웹훅 서버 로그아웃 요청: role={}, url={}", role, webhookUrl);
             
-            ResponseEntity<java.util.Map> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                null,
-                java.util.Map.class
-            );
+            // 2xx가 아니면 RestClientException 발생
+            outboundHttpClient.post(url, null, null, java.util.Map.class, timeout());
             
-            boolean success = response.getStatusCode().is2xxSuccessful();
-            log.info("웹훅 서버 로그아웃 {}: role={}", success ? "성공" : "실패", role);
+            log.info("웹훅 서버 로그아웃 성공: role={}", role);
         } catch (RestClientException e) {
             log.error("웹훅 서버 로그아웃 실패: role={}, error={}", role, e.getMessage());
         }
     }
 
+    /**
+     * 웹훅 서버 호출 타임아웃
+     */
+    private Duration timeout() {
+        return Duration.ofMillis(timeoutMillis);
+    }
+
     /**
      * UserRole에 맞는 웹훅 서버 URL 반환
      *
@@ -8,6 +8,9 @@ import Capstone.CSmart.global.repository.StudentRepository;
 import Capstone.CSmart.global.service.gemini.GeminiService;
 import Capstone.CSmart.global.service.student.StudentInfoUpdateService;
 import Capstone.CSmart.global.web.dto.Kakao.KakaoMessageDTO;
+import Capstone.CSmart.global.service.context.ConversationContextBuilder;
+import Capstone.CSmart.global.service.realtime.DashboardEventService;
+import Capstone.CSmart.global.service.ingest.MessageClassifier;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +33,9 @@ public class KakaoWebhookService {
     private final MessageRepository messageRepository;
     private final GeminiService geminiService;
     private final StudentInfoUpdateService studentInfoUpdateService;
+    private final ConversationContextBuilder conversationContextBuilder;
+    private final DashboardEventService dashboardEventService;
+    private final MessageClassifier messageClassifier;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -69,11 +75,14 @@ public class KakaoWebhookService {
                     .studentId(student.getStudentId())
                     .content(message.getUtterance())
                     .senderType("student") // AiScheduler가 "student"로 필터링함
+                    .messageKind(messageClassifier.classify(message.getUtterance())) // 상담폼 여부 (스케줄러 조회에서 제외)
                     .messageType("TEXT")
                     .sentAt(java.time.OffsetDateTime.now()) // 전송 시간 설정 (필수!)
                     .build();
             
             messageRepository.save(savedMessage);
+            conversationContextBuilder.invalidate(student.getStudentId()); // 새 메시지: 대화 맥락 캐시 무효화
+            dashboardEventService.publishMessageReceived(savedMessage, student.getAssignedTeacherId());
             
             log.info("메시지 저장 완료: studentId={}, messageId={}", 
                      student.getStudentId(), savedMessage.getMessageId());
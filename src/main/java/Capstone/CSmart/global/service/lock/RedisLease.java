@@ -0,0 +1,78 @@
+package Capstone.CSmart.global.service.lock;
+
+import java.time.Duration;
+
+/**
+ * Redis 임대 (RedisLeaseService.tryAcquire로 획득)
+ * - token: 이 임대의 소유자 토큰 (키의 값, 갱신/반납 시 비교)
+ * - fencingToken: 획득할 때마다 증가하는 번호 (나중에 획득한 임대일수록 큼, 최종 쓰기 시 비교)
+ * 워치독이 TTL을 갱신하는 동안 유효하며, 갱신에 실패한 채 TTL이 지나거나 다른 소유자가 확인되면 무효가 된다.
+ */
+public class RedisLease implements AutoCloseable {
+
+    private final RedisLeaseService leaseService;
+    private final String key;
+    private final String token;
+    private final long fencingToken;
+    private final Duration ttl;
+
+    private volatile long renewedAtMillis;
+    private volatile long expiresAtMillis;
+    private volatile boolean lost;
+
+    RedisLease(RedisLeaseService leaseService, String key, String token, long fencingToken, Duration ttl, long acquiredAtMillis) {
+        this.leaseService = leaseService;
+        this.key = key;
+        this.token = token;
+        this.fencingToken = fencingToken;
+        this.ttl = ttl;
+        renewed(acquiredAtMillis);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public long fencingToken() {
+        return fencingToken;
+    }
+
+    /**
+     * 로컬 기준 유효 여부 (상실 표시가 없고 마지막 갱신 후 TTL이 지나지 않음)
+     */
+    public boolean isValid() {
+        return !lost && System.currentTimeMillis() < expiresAtMillis;
+    }
+
+    /**
+     * 반납 (소유자가 같을 때만 키 삭제)
+     */
+    @Override
+    public void close() {
+        leaseService.release(this);
+    }
+
+    String token() {
+        return token;
+    }
+
+    Duration ttl() {
+        return ttl;
+    }
+
+    /**
+     * TTL의 1/3이 지나면 갱신 대상
+     */
+    boolean renewDue(long nowMillis) {
+        return nowMillis - renewedAtMillis >= ttl.toMillis() / 3;
+    }
+
+    void renewed(long nowMillis) {
+        renewedAtMillis = nowMillis;
+        expiresAtMillis = nowMillis + ttl.toMillis();
+    }
+
+    void markLost() {
+        lost = true;
+    }
+}
@@ -0,0 +1,176 @@
+package Capstone.CSmart.global.service.lock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 분산 락 (소유자 확인 + 자동 갱신 + 펜싱 토큰)
+ * - 획득: SET NX PX로 키 값에 임대마다 고유한 소유자 토큰을 저장
+ * - 갱신/반납: Lua로 키 값이 내 토큰일 때만 PEXPIRE/DEL (TTL이 지난 느린 소유자가 다른 소유자의 락을 지우지 않음)
+ * - 워치독: 보유 중인 임대를 TTL의 1/3마다 갱신하여 LangGraph 호출처럼 오래 걸리는 작업 중에도 락이 풀리지 않게 함
+ *   (노드가 죽으면 갱신이 멈춰 TTL 후 다른 노드가 획득)
+ * - 펜싱 토큰: 획득할 때마다 lease_fencing_token을 INCR한 값 (단조 증가)
+ *   자원별 현재 토큰을 {key}:fencing에 락과 같은 TTL로 기록하고, 최종 쓰기 직전에 내 토큰이 현재 토큰인지 확인
+ *   (TTL이 지난 느린 소유자는 새 소유자가 아직 원격 호출 중이어도 쓰기가 거부됨)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisLeaseService {
+
+    private static final String FENCING_TOKEN_KEY = "lease_fencing_token";
+    private static final String FENCING_SUFFIX = ":fencing";
+
+    // 락 획득 + 펜싱 토큰 발급 + 자원별 현재 토큰 기록 (원자적, 획득 실패 시 0)
+    private static final DefaultRedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then "
+                    + "local fencing = redis.call('incr', KEYS[2]) "
+                    + "redis.call('set', KEYS[3], fencing, 'PX', ARGV[2]) "
+                    + "return fencing else return 0 end", Long.class);
+
+    // 소유자가 같을 때만 락과 현재 토큰의 TTL 연장
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "redis.call('pexpire', KEYS[2], ARGV[2]) "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end", Long.class);
+
+    // 소유자가 같을 때만 락과 현재 토큰 삭제
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "redis.call('del', KEYS[2]) "
+                    + "return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final Set<RedisLease> activeLeases = ConcurrentHashMap.newKeySet();
+
+    // 워치독 실행 간격 (각 임대는 TTL의 1/3이 지났을 때 갱신)
+    @Value("${redis-lease.watchdog-interval-ms:1000}")
+    private long watchdogIntervalMs;
+
+    private ScheduledExecutorService watchdog;
+
+    @PostConstruct
+    void init() {
+        watchdog = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("redis-lease-watchdog-"));
+        watchdog.scheduleWithFixedDelay(this::renewActiveLeases, watchdogIntervalMs, watchdogIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 종료 시 워치독을 멈추고 보유 임대를 바로 반납 (다른 노드가 TTL 만료를 기다리지 않음)
+     */
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+        for (RedisLease lease : List.copyOf(activeLeases)) {
+            release(lease);
+        }
+    }
+
+    /**
+     * 임대 획득 시도 (이미 다른 소유자가 있으면 empty)
+     * 획득한 임대는 반납할 때까지 워치독이 갱신한다.
+     */
+    public Optional<RedisLease> tryAcquire(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        long acquiredAt = System.currentTimeMillis();
+        Long fencingToken = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(key, FENCING_TOKEN_KEY, key + FENCING_SUFFIX),
+                token, String.valueOf(ttl.toMillis()));
+        if (fencingToken == null || fencingToken == 0) {
+            return Optional.empty();
+        }
+
+        RedisLease lease = new RedisLease(this, key, token, fencingToken, ttl, acquiredAt);
+        activeLeases.add(lease);
+        return Optional.of(lease);
+    }
+
+    /**
+     * Redis 기준 보유 여부 (로컬로 유효하고 키 값이 내 토큰)
+     */
+    public boolean isHeld(RedisLease lease) {
+        if (!lease.isValid()) {
+            return false;
+        }
+        try {
+            return lease.token().equals(redisTemplate.opsForValue().get(lease.key()));
+        } catch (Exception e) {
+            log.warn("임대 확인 실패: key={}, error={}", lease.key(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 자원의 현재 펜싱 토큰인지 확인 (최종 쓰기 직전에 호출)
+     * 락이 만료되었거나(기록 없음) 다른 소유자가 다시 획득했으면(더 큰 토큰) false
+     *
+     * @param key 락 키
+     * @param fencingToken 쓰기를 시도하는 소유자의 펜싱 토큰
+     */
+    public boolean isCurrent(String key, long fencingToken) {
+        try {
+            String current = redisTemplate.opsForValue().get(key + FENCING_SUFFIX);
+            return current != null && Long.parseLong(current) == fencingToken;
+        } catch (Exception e) {
+            log.warn("펜싱 토큰 확인 실패: key={}, error={}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 반납 (워치독 갱신 중단, 소유자가 같을 때만 키 삭제)
+     */
+    public void release(RedisLease lease) {
+        if (!activeLeases.remove(lease)) {
+            return;
+        }
+        lease.markLost();
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lease.key(), lease.key() + FENCING_SUFFIX), lease.token());
+        } catch (Exception e) {
+            // 반납하지 못한 키는 갱신이 멈췄으므로 TTL 후 만료
+            log.warn("임대 반납 실패 (TTL 후 만료): key={}, error={}", lease.key(), e.getMessage());
+        }
+    }
+
+    private void renewActiveLeases() {
+        long now = System.currentTimeMillis();
+        for (RedisLease lease : activeLeases) {
+            if (!lease.renewDue(now)) {
+                continue;
+            }
+            try {
+                Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(lease.key(), lease.key() + FENCING_SUFFIX),
+                        lease.token(), String.valueOf(lease.ttl().toMillis()));
+                if (renewed != null && renewed == 1) {
+                    lease.renewed(now);
+                } else {
+                    // 만료 후 다른 소유자가 획득함: 더 이상 갱신하지 않음
+                    activeLeases.remove(lease);
+                    lease.markLost();
+                    log.warn("임대 상실 (만료 후 다른 소유자가 획득): key={}, fencingToken={}", lease.key(), lease.fencingToken());
+                }
+            } catch (Exception e) {
+                // Redis 장애: 다음 실행에서 다시 갱신, 그동안 마지막 갱신 후 TTL이 지나면 로컬에서 무효 처리
+                log.warn("임대 갱신 실패: key={}, error={}", lease.key(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package Capstone.CSmart.global.service.lock;
+
+/**
+ * 펜싱 토큰이 자원의 현재 토큰이 아니거나(락 만료 또는 다른 소유자가 다시 획득)
+ * 저장소에 이미 더 새 토큰으로 쓴 기록이 있어서 쓰기를 거부할 때 발생
+ */
+public class StaleLeaseException extends RuntimeException {
+
+    public StaleLeaseException(String message) {
+        super(message);
+    }
+}
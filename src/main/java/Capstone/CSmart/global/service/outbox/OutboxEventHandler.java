@@ -0,0 +1,32 @@
+package Capstone.CSmart.global.service.outbox;
+
+import Capstone.CSmart.global.domain.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * 아웃박스 이벤트 처리기
+ * 같은 종류의 이벤트를 묶어서 한 번에 받으며, 이벤트 처리 트랜잭션 안에서 실행된다.
+ * 원격 호출이 필요하면 prepare에서 트랜잭션 밖에서 미리 하고 결과를 이벤트 내용에 저장한다.
+ * 같은 이벤트가 다시 전달될 수 있으므로(실패 후 재시도) 여러 번 처리해도 결과가 같아야 한다.
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * 처리하는 이벤트 종류 (OutboxEvent.eventType)
+     */
+    String eventType();
+
+    /**
+     * 처리 전 준비 (이벤트를 잠그기 전, 트랜잭션 밖에서 실행)
+     * 원격 호출 결과는 OutboxService.updatePayload로 이벤트 내용에 저장하여 handle에서 사용한다.
+     * 예외를 던지지 않으며, 준비하지 못한 이벤트는 handle에서 실패하여 백오프 후 다시 준비된다.
+     */
+    default void prepare(List<OutboxEvent> events) {
+    }
+
+    /**
+     * 이벤트 묶음 처리 (예외를 던지면 묶음 전체가 롤백되고 이벤트별로 다시 시도)
+     */
+    void handle(List<OutboxEvent> events);
+}
@@ -0,0 +1,122 @@
+package Capstone.CSmart.global.service.outbox;
+
+import Capstone.CSmart.global.domain.entity.OutboxEvent;
+import Capstone.CSmart.global.domain.enums.OutboxStatus;
+import Capstone.CSmart.global.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 아웃박스 이벤트 소비자
+ * - poll-interval마다 처리할 차례가 된 이벤트를 batch-size개씩 모아 한 트랜잭션으로 처리
+ * - 여러 인스턴스가 동시에 실행되어도 SKIP LOCKED로 서로 다른 이벤트를 처리
+ * - 처리기의 원격 호출(prepare)은 이벤트를 잠그는 트랜잭션을 열기 전에 실행
+ * - 묶음 처리가 실패하면 이벤트별로 다시 처리하여 실패한 이벤트만 백오프 재시도 (나머지는 바로 완료)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxProcessor {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxTransactionService outboxTransactionService;
+    private final OutboxService outboxService;
+    private final MeterRegistry meterRegistry;
+    private final List<OutboxEventHandler> handlers;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    // 처리 완료 이벤트 보관 기간
+    @Value("${outbox.retention:7d}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:2000}")
+    public void processPendingEvents() {
+        // 한 번에 batch-size개씩, 밀린 이벤트가 있으면 이어서 처리
+        while (true) {
+            List<Long> eventIds = outboxEventRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                            OutboxStatus.PENDING, OffsetDateTime.now(), PageRequest.of(0, batchSize))
+                    .stream()
+                    .map(OutboxEvent::getId)
+                    .toList();
+            if (eventIds.isEmpty()) {
+                return;
+            }
+            // 다른 인스턴스가 잡고 있는 이벤트만 남았으면 다음 실행으로
+            int processed = processBatch(eventIds);
+            if (processed == 0 || eventIds.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 30 4 * * *") // 매일 새벽 4시 30분
+    @Transactional
+    public void purgeProcessedEvents() {
+        int deleted = outboxEventRepository.deleteByStatusAndProcessedAtBefore(
+                OutboxStatus.PROCESSED, OffsetDateTime.now().minus(retention));
+        log.info("처리 완료 아웃박스 이벤트 정리: {}건", deleted);
+    }
+
+    /**
+     * @return 처리(완료 또는 실패 기록)한 이벤트 수
+     */
+    private int processBatch(List<Long> eventIds) {
+        prepare(eventIds);
+        try {
+            return record(outboxTransactionService.process(eventIds));
+        } catch (Exception batchError) {
+            log.warn("아웃박스 묶음 처리 실패, 이벤트별로 재처리: count={}, error={}", eventIds.size(), batchError.getMessage());
+            int handled = 0;
+            for (Long eventId : eventIds) {
+                try {
+                    handled += record(outboxTransactionService.process(List.of(eventId)));
+                } catch (Exception e) {
+                    outboxService.recordFailure(eventId, e);
+                    meterRegistry.counter("outbox.events.failed").increment();
+                    handled++;
+                }
+            }
+            return handled;
+        }
+    }
+
+    /**
+     * 처리기별 준비 (트랜잭션 밖, 준비에 실패한 이벤트는 처리 단계에서 실패하여 백오프)
+     */
+    private void prepare(List<Long> eventIds) {
+        Map<String, List<OutboxEvent>> byType = outboxEventRepository.findAllById(eventIds).stream()
+                .filter(event -> event.getStatus() == OutboxStatus.PENDING)
+                .collect(Collectors.groupingBy(OutboxEvent::getEventType));
+        for (OutboxEventHandler handler : handlers) {
+            List<OutboxEvent> typed = byType.get(handler.eventType());
+            if (typed == null) {
+                continue;
+            }
+            try {
+                handler.prepare(typed);
+            } catch (Exception e) {
+                log.warn("아웃박스 이벤트 준비 실패: type={}, count={}, error={}", handler.eventType(), typed.size(), e.getMessage());
+            }
+        }
+    }
+
+    private int record(Map<String, Integer> processed) {
+        processed.forEach((eventType, count) ->
+                meterRegistry.counter("outbox.events.processed", "type", eventType).increment(count));
+        return processed.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
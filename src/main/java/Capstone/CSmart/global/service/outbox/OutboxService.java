@@ -0,0 +1,130 @@
+package Capstone.CSmart.global.service.outbox;
+
+import Capstone.CSmart.global.domain.entity.OutboxEvent;
+import Capstone.CSmart.global.domain.enums.OutboxStatus;
+import Capstone.CSmart.global.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 트랜잭션 아웃박스 기록/실패 처리
+ * - enqueue: 호출한 쪽의 트랜잭션에 참여하여 상태 변경과 함께 커밋 (롤백되면 이벤트도 남지 않음)
+ * - recordFailure: 실패한 이벤트의 시도 횟수를 늘리고 백오프 후 재시도, 최대 횟수를 넘으면 FAILED
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry-base-delay:10s}")
+    private Duration retryBaseDelay;
+
+    @Value("${outbox.retry-max-delay:10m}")
+    private Duration retryMaxDelay;
+
+    /**
+     * 이벤트 기록 (현재 트랜잭션에 참여)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String eventType, Long aggregateId, Map<String, Object> payload) {
+        outboxEventRepository.save(newEvent(eventType, aggregateId, payload));
+    }
+
+    /**
+     * 여러 이벤트를 한 번에 기록 (현재 트랜잭션에 참여)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(List<OutboxEvent> events) {
+        outboxEventRepository.saveAll(events);
+    }
+
+    /**
+     * 기록할 이벤트 생성 (enqueueAll용)
+     */
+    public OutboxEvent newEvent(String eventType, Long aggregateId, Map<String, Object> payload) {
+        try {
+            return OutboxEvent.builder()
+                    .eventType(eventType)
+                    .aggregateId(aggregateId)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .status(OutboxStatus.PENDING)
+                    .attempts(0)
+                    .nextAttemptAt(OffsetDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("아웃박스 이벤트 직렬화 실패: " + eventType, e);
+        }
+    }
+
+    /**
+     * 이벤트 내용(JSON) 읽기
+     */
+    public Map<String, Object> readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Map.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("아웃박스 이벤트 역직렬화 실패: id=" + event.getId(), e);
+        }
+    }
+
+    /**
+     * 이벤트 내용 갱신 (처리 전 준비 결과 저장, 이미 처리된 이벤트는 그대로 둠)
+     */
+    @Transactional
+    public void updatePayload(Long eventId, Map<String, Object> payload) {
+        try {
+            outboxEventRepository.updatePayload(eventId, objectMapper.writeValueAsString(payload), OutboxStatus.PENDING);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("아웃박스 이벤트 직렬화 실패: id=" + eventId, e);
+        }
+    }
+
+    /**
+     * 처리 실패 기록 (별도 트랜잭션)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(Long eventId, Throwable error) {
+        outboxEventRepository.findById(eventId).ifPresent(event -> {
+            if (event.getStatus() != OutboxStatus.PENDING) {
+                return;
+            }
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(truncate(String.valueOf(error.getMessage())));
+            if (attempts >= maxAttempts) {
+                event.setStatus(OutboxStatus.FAILED);
+                log.error("아웃박스 이벤트 처리 포기: id={}, type={}, attempts={}, error={}",
+                        eventId, event.getEventType(), attempts, error.getMessage());
+            } else {
+                long delayMillis = Math.min(retryMaxDelay.toMillis(), retryBaseDelay.toMillis() << Math.min(attempts - 1, 20));
+                event.setNextAttemptAt(OffsetDateTime.now().plus(Duration.ofMillis(delayMillis)));
+                log.warn("아웃박스 이벤트 처리 실패, 재시도 예정: id={}, type={}, attempts={}, delay={}ms, error={}",
+                        eventId, event.getEventType(), attempts, delayMillis, error.getMessage());
+            }
+            outboxEventRepository.save(event);
+        });
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,68 @@
+package Capstone.CSmart.global.service.outbox;
+
+import Capstone.CSmart.global.domain.entity.OutboxEvent;
+import Capstone.CSmart.global.domain.enums.OutboxStatus;
+import Capstone.CSmart.global.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 아웃박스 이벤트 처리의 DB 구간 전용 서비스
+ * 이벤트 잠금(FOR UPDATE SKIP LOCKED), 처리기 실행, 완료 표시를 하나의 트랜잭션으로 묶어
+ * 처리 결과와 완료 표시가 함께 커밋되거나 함께 롤백되도록 한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxTransactionService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+
+    /**
+     * 이벤트 처리
+     *
+     * @param eventIds 처리할 이벤트 (이미 처리되었거나 다른 인스턴스가 처리 중인 이벤트는 건너뜀)
+     * @return 종류별 처리 건수
+     */
+    @Transactional
+    public Map<String, Integer> process(Collection<Long> eventIds) {
+        List<OutboxEvent> events = outboxEventRepository.lockPendingByIds(eventIds);
+        if (events.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, List<OutboxEvent>> byType = events.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getEventType, LinkedHashMap::new, Collectors.toList()));
+        Map<String, Integer> processed = new LinkedHashMap<>();
+        byType.forEach((eventType, typed) -> {
+            handlerFor(eventType).handle(typed);
+            processed.put(eventType, typed.size());
+        });
+
+        OffsetDateTime now = OffsetDateTime.now();
+        for (OutboxEvent event : events) {
+            event.setStatus(OutboxStatus.PROCESSED);
+            event.setAttempts(event.getAttempts() + 1);
+            event.setProcessedAt(now);
+        }
+        outboxEventRepository.saveAll(events);
+        return processed;
+    }
+
+    private OutboxEventHandler handlerFor(String eventType) {
+        return handlers.stream()
+                .filter(handler -> handler.eventType().equals(eventType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("처리기가 없는 아웃박스 이벤트: " + eventType));
+    }
+}
@@ -0,0 +1,342 @@
+package Capstone.CSmart.global.service.realtime;
+
+import Capstone.CSmart.global.domain.entity.AiResponse;
+import Capstone.CSmart.global.domain.entity.Message;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대시보드 실시간 이벤트 (SSE)
+ * - 채널: teacher:{teacherId} (담당 선생님), admin (전체)
+ * - 이벤트: draft.created (검수 대기 초안 생성), draft.resolved (전송/재생성으로 대기열에서 빠짐), message.received (학생 메시지 수신)
+ * - 이벤트 ID는 채널별 Redis INCR로 발급 (모든 인스턴스에서 연속, 단조 증가)
+ * - Redis pub/sub으로 모든 인스턴스에 전달하고, 각 인스턴스는 자신에게 연결된 구독자에게만 전송
+ * - 채널별 최근 이벤트를 Redis Sorted Set에 보관하여 재연결 시 Last-Event-ID 이후 이벤트를 다시 보냄
+ *   (보관 범위를 벗어나 이어받을 수 없으면 resync 이벤트를 보내 클라이언트가 목록을 다시 조회하도록 함)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardEventService {
+
+    public static final String EVENT_DRAFT_CREATED = "draft.created";
+    public static final String EVENT_DRAFT_RESOLVED = "draft.resolved";
+    public static final String EVENT_MESSAGE_RECEIVED = "message.received";
+    private static final String EVENT_RESYNC = "resync";
+
+    private static final String ADMIN_CHANNEL = "admin";
+    private static final String TEACHER_CHANNEL_PREFIX = "teacher:";
+    private static final String PUBSUB_TOPIC = "dashboard_events";
+    private static final String SEQUENCE_PREFIX = "dashboard_event_seq:";
+    private static final String REPLAY_PREFIX = "dashboard_events:";
+    private static final int PREVIEW_LENGTH = 100;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private RedisMessageListenerContainer listenerContainer;
+    private ScheduledExecutorService heartbeat;
+
+    // SSE 연결 유지 시간 (만료되면 클라이언트가 Last-Event-ID로 재연결)
+    @Value("${dashboard.events.sse-timeout:30m}")
+    private Duration sseTimeout;
+
+    // 연결 유지용 주석 전송 간격 (프록시 유휴 타임아웃 방지, 끊긴 연결 정리)
+    @Value("${dashboard.events.heartbeat-interval:25s}")
+    private Duration heartbeatInterval;
+
+    // 채널별 재전송용으로 보관하는 최근 이벤트 수
+    @Value("${dashboard.events.replay-size:500}")
+    private int replaySize;
+
+    @Value("${dashboard.events.replay-ttl:1h}")
+    private Duration replayTtl;
+
+    /**
+     * 대시보드 이벤트
+     *
+     * @param id 이벤트 ID (SSE id, 재연결 시 Last-Event-ID)
+     * @param channel 대상 채널
+     * @param type 이벤트 종류 (SSE event name)
+     * @param data 이벤트 내용
+     */
+    public record DashboardEvent(long id, String channel, String type, Map<String, Object> data) {
+    }
+
+    @PostConstruct
+    void init() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener((message, pattern) ->
+                onPublished(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(PUBSUB_TOPIC));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+
+        heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("dashboard-events-heartbeat-"));
+        long intervalMillis = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        try {
+            listenerContainer.destroy();
+        } catch (Exception e) {
+            log.warn("대시보드 이벤트 구독 종료 실패: {}", e.getMessage());
+        }
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter().complete()));
+    }
+
+    /**
+     * 선생님 대시보드 구독
+     *
+     * @param lastEventId 마지막으로 받은 이벤트 ID (재연결 시, 없으면 이후 이벤트만)
+     */
+    public SseEmitter subscribeTeacher(Long teacherId, Long lastEventId) {
+        return subscribe(TEACHER_CHANNEL_PREFIX + teacherId, lastEventId);
+    }
+
+    /**
+     * 관리자 대시보드 구독 (전체 이벤트)
+     */
+    public SseEmitter subscribeAdmin(Long lastEventId) {
+        return subscribe(ADMIN_CHANNEL, lastEventId);
+    }
+
+    /**
+     * 검수 대기 초안 생성 알림
+     */
+    public void publishDraftCreated(AiResponse aiResponse) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("responseId", aiResponse.getResponseId());
+        data.put("messageId", aiResponse.getMessageId());
+        data.put("studentId", aiResponse.getStudentId());
+        data.put("teacherId", aiResponse.getTeacherId());
+        data.put("generatedAt", String.valueOf(aiResponse.getGeneratedAt()));
+        data.put("generationSource", aiResponse.getGenerationSource() == null ? null : aiResponse.getGenerationSource().name());
+        data.put("degraded", Boolean.TRUE.equals(aiResponse.getDegraded()));
+        publish(aiResponse.getTeacherId(), EVENT_DRAFT_CREATED, data);
+    }
+
+    /**
+     * 초안이 검수 대기열에서 빠짐 (전송 완료, 재생성 요청)
+     */
+    public void publishDraftResolved(AiResponse aiResponse) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("responseId", aiResponse.getResponseId());
+        data.put("messageId", aiResponse.getMessageId());
+        data.put("studentId", aiResponse.getStudentId());
+        data.put("status", aiResponse.getStatus() == null ? null : aiResponse.getStatus().name());
+        publish(aiResponse.getTeacherId(), EVENT_DRAFT_RESOLVED, data);
+    }
+
+    /**
+     * 학생 메시지 수신 알림
+     *
+     * @param assignedTeacherId 학생 담당 선생님 (없으면 관리자 채널만)
+     */
+    public void publishMessageReceived(Message message, Long assignedTeacherId) {
+        String content = message.getContent();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("messageId", message.getMessageId());
+        data.put("studentId", message.getStudentId());
+        data.put("senderType", message.getSenderType());
+        data.put("sentAt", String.valueOf(message.getSentAt()));
+        data.put("preview", content == null || content.length() <= PREVIEW_LENGTH ? content : content.substring(0, PREVIEW_LENGTH));
+        publish(assignedTeacherId, EVENT_MESSAGE_RECEIVED, data);
+    }
+
+    /**
+     * 담당 선생님 채널과 관리자 채널에 이벤트 발행
+     * 발행 실패는 호출 흐름(응답 생성, 메시지 저장)에 영향을 주지 않으며, 대시보드는 재연결/재조회로 복구한다.
+     */
+    private void publish(Long teacherId, String type, Map<String, Object> data) {
+        List<String> channels = teacherId == null
+                ? List.of(ADMIN_CHANNEL)
+                : List.of(TEACHER_CHANNEL_PREFIX + teacherId, ADMIN_CHANNEL);
+        for (String channel : channels) {
+            DashboardEvent event = null;
+            try {
+                Long id = redisTemplate.opsForValue().increment(SEQUENCE_PREFIX + channel);
+                event = new DashboardEvent(id, channel, type, data);
+                String json = objectMapper.writeValueAsString(event);
+
+                String replayKey = REPLAY_PREFIX + channel;
+                redisTemplate.opsForZSet().add(replayKey, json, id);
+                redisTemplate.opsForZSet().removeRange(replayKey, 0, -(replaySize + 1L));
+                redisTemplate.expire(replayKey, replayTtl);
+
+                redisTemplate.convertAndSend(PUBSUB_TOPIC, json);
+            } catch (Exception e) {
+                log.warn("대시보드 이벤트 발행 실패: channel={}, type={}, error={}", channel, type, e.getMessage());
+                if (event != null) {
+                    deliver(event); // pub/sub 실패 시 이 인스턴스의 구독자에게라도 전달
+                }
+            }
+        }
+    }
+
+    private SseEmitter subscribe(String channel, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        subscribers.computeIfAbsent(channel, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(error -> unregister(subscriber));
+
+        // 구독 등록 후 재전송하므로 그 사이 발행된 이벤트는 lastSentId로 중복 제거
+        if (lastEventId != null) {
+            replay(subscriber, lastEventId);
+        }
+        log.debug("대시보드 구독: channel={}, lastEventId={}", channel, lastEventId);
+        return emitter;
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        String channel = subscriber.channel();
+        try {
+            Long latestId = currentSequence(channel);
+            if (latestId == null || latestId < lastEventId) {
+                // 시퀀스가 초기화됨 (Redis 재시작 등): 이어받을 수 없음
+                subscriber.send(new DashboardEvent(latestId == null ? 0 : latestId, channel, EVENT_RESYNC, Map.of()));
+                return;
+            }
+            if (latestId == lastEventId) {
+                return;
+            }
+
+            Set<String> missed = redisTemplate.opsForZSet()
+                    .rangeByScore(REPLAY_PREFIX + channel, lastEventId + 1, Double.POSITIVE_INFINITY);
+            List<DashboardEvent> events = new ArrayList<>();
+            if (missed != null) {
+                for (String json : missed) {
+                    events.add(objectMapper.readValue(json, DashboardEvent.class));
+                }
+            }
+            // 채널별 ID는 연속이므로, 바로 다음 이벤트가 보관 범위에 없으면 누락 발생
+            if (events.isEmpty() || events.get(0).id() > lastEventId + 1) {
+                subscriber.send(new DashboardEvent(latestId, channel, EVENT_RESYNC, Map.of()));
+                return;
+            }
+            events.forEach(subscriber::send);
+        } catch (Exception e) {
+            log.warn("대시보드 이벤트 재전송 실패: channel={}, lastEventId={}, error={}", channel, lastEventId, e.getMessage());
+            subscriber.send(new DashboardEvent(lastEventId, channel, EVENT_RESYNC, Map.of()));
+        }
+    }
+
+    private Long currentSequence(String channel) {
+        String value = redisTemplate.opsForValue().get(SEQUENCE_PREFIX + channel);
+        return value == null ? null : Long.parseLong(value);
+    }
+
+    private void onPublished(String json) {
+        try {
+            deliver(objectMapper.readValue(json, DashboardEvent.class));
+        } catch (Exception e) {
+            log.warn("대시보드 이벤트 수신 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(DashboardEvent event) {
+        Set<Subscriber> channelSubscribers = subscribers.get(event.channel());
+        if (channelSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : channelSubscribers) {
+            if (!subscriber.send(event)) {
+                unregister(subscriber);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (!subscriber.ping()) {
+                unregister(subscriber);
+            }
+        }));
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.channel(), (channel, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * SSE 구독자 (이벤트 ID 순서 보장, 재전송과 실시간 전달 사이의 중복 제거)
+     */
+    private static final class Subscriber {
+
+        private final String channel;
+        private final SseEmitter emitter;
+        private long lastSentId = 0;
+
+        private Subscriber(String channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        String channel() {
+            return channel;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        synchronized boolean send(DashboardEvent event) {
+            if (event.id() <= lastSentId && !EVENT_RESYNC.equals(event.type())) {
+                return true;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.id()))
+                        .name(event.type())
+                        .data(event.data()));
+                lastSentId = Math.max(lastSentId, event.id());
+                return true;
+            } catch (Exception e) {
+                log.debug("SSE 전송 실패: channel={}, event={}, error={}", channel, event.type(), e.getMessage());
+                return false;
+            }
+        }
+
+        synchronized boolean ping() {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+}
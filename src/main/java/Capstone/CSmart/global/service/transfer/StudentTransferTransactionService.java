@@ -0,0 +1,139 @@
+package Capstone.CSmart.global.service.transfer;
+
+import Capstone.CSmart.global.domain.entity.Student;
+import Capstone.CSmart.global.domain.entity.Teacher;
+import Capstone.CSmart.global.repository.StudentRepository;
+import Capstone.CSmart.global.repository.TeacherRepository;
+import Capstone.CSmart.global.service.student.StudentInfoUpdateService;
+import Capstone.CSmart.global.web.dto.Transfer.TransferToTeacherRequestDTO;
+import Capstone.CSmart.global.web.dto.Transfer.TransferToTeacherResponseDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 학생 전환의 DB 구간 전용 서비스
+ * Gemini 정보 추출은 트랜잭션 밖에서 끝내고, 여기서는 추출 결과 반영과 선생님 배정만 짧은 트랜잭션으로 처리한다.
+ * 여러 학생을 한 번에 조회(findAllById)하고 한 번에 저장(saveAll)하여 일괄 전환 시 쿼리 수를 줄인다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentTransferTransactionService {
+
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final StudentInfoUpdateService studentInfoUpdateService;
+
+    /**
+     * 전환 결과 (성공 시 response, 실패 시 error)
+     */
+    public record TransferResult(Long studentId, Long teacherId, TransferToTeacherResponseDTO response, String error) {
+
+        public boolean isSuccess() {
+            return response != null;
+        }
+    }
+
+    /**
+     * 추출된 정보 반영 + 선생님 배정 (일괄)
+     *
+     * @param transfers 전환 요청 목록
+     * @param extractedInfoByStudent 학생별 추출 정보 (없으면 기존 정보 유지)
+     * @return 요청 순서대로의 전환 결과
+     */
+    @Transactional
+    public List<TransferResult> applyTransfers(List<TransferToTeacherRequestDTO> transfers,
+                                               Map<Long, Map<String, Object>> extractedInfoByStudent) {
+        Map<Long, Student> students = studentRepository.findAllById(
+                        transfers.stream().map(TransferToTeacherRequestDTO::getStudentId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Student::getStudentId, Function.identity()));
+        Map<Long, Teacher> teachers = teacherRepository.findAllById(
+                        transfers.stream().map(TransferToTeacherRequestDTO::getTeacherId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Teacher::getTeacherId, Function.identity()));
+
+        List<TransferResult> results = new ArrayList<>(transfers.size());
+        List<Student> updated = new ArrayList<>(transfers.size());
+        for (TransferToTeacherRequestDTO transfer : transfers) {
+            Long studentId = transfer.getStudentId();
+            Long teacherId = transfer.getTeacherId();
+            Student student = students.get(studentId);
+            Teacher teacher = teachers.get(teacherId);
+            if (student == null) {
+                results.add(new TransferResult(studentId, teacherId, null, "학생을 찾을 수 없습니다: " + studentId));
+                continue;
+            }
+            if (teacher == null) {
+                results.add(new TransferResult(studentId, teacherId, null, "선생님을 찾을 수 없습니다: " + teacherId));
+                continue;
+            }
+
+            // 추출 정보가 비어있어도 기존 정보는 유지되고 선생님만 배정됨
+            Map<String, Object> extractedInfo = extractedInfoByStudent.getOrDefault(studentId, Map.of());
+            student = studentInfoUpdateService.updateStudentInfo(student, extractedInfo);
+            student.setAssignedTeacherId(teacherId);
+            student.setRegistrationStatus("TRANSFERRED_TO_TEACHER");
+            updated.add(student);
+
+            results.add(new TransferResult(studentId, teacherId, buildTransferResponse(student, teacher, extractedInfo), null));
+        }
+
+        // 변경된 학생을 한 번에 저장 (hibernate.jdbc.batch_size 단위로 UPDATE 일괄 실행)
+        studentRepository.saveAll(updated);
+        log.info("학생 전환 반영 완료: 요청={}, 성공={}", transfers.size(), updated.size());
+        return results;
+    }
+
+    /**
+     * 전환 결과 Response 생성
+     */
+    private TransferToTeacherResponseDTO buildTransferResponse(
+            Student student, Teacher teacher, Map<String, Object> extractedInfo) {
+
+        // extractedInfo가 null이면 빈 Map으로 처리
+        if (extractedInfo == null) {
+            extractedInfo = new HashMap<>();
+        }
+
+        // ExtractedStudentInfo 생성 (null-safe)
+        TransferToTeacherResponseDTO.ExtractedStudentInfo studentInfo =
+            TransferToTeacherResponseDTO.ExtractedStudentInfo.builder()
+                .name(extractedInfo.containsKey("name") ? (String) extractedInfo.get("name") : null)
+                .age(extractedInfo.containsKey("age") && extractedInfo.get("age") instanceof Number ?
+                     ((Number) extractedInfo.get("age")).intValue() : null)
+                .previousSchool(extractedInfo.containsKey("previousSchool") ?
+                               (String) extractedInfo.get("previousSchool") : null)
+                .targetUniversity(extractedInfo.containsKey("targetUniversity") ?
+                                (String) extractedInfo.get("targetUniversity") : null)
+                .phoneNumber(extractedInfo.containsKey("phoneNumber") ?
+                           (String) extractedInfo.get("phoneNumber") : null)
+                .major(extractedInfo.containsKey("desiredMajor") ?
+                      (String) extractedInfo.get("desiredMajor") : null)
+                .currentGrade(extractedInfo.containsKey("currentGrade") ?
+                            (String) extractedInfo.get("currentGrade") : null)
+                .desiredSemester(extractedInfo.containsKey("desiredSemester") ?
+                               (String) extractedInfo.get("desiredSemester") : null)
+                .additionalInfo(new HashMap<>(extractedInfo))
+                .build();
+
+        return TransferToTeacherResponseDTO.builder()
+                .studentId(student.getStudentId())
+                .assignedTeacherId(teacher.getTeacherId())
+                .teacherName(teacher.getName())
+                .studentName(student.getName())
+                .extractedInfo(studentInfo)
+                .savedMessageCount(1)
+                .transferStatus("SUCCESS")
+                .build();
+    }
+}
@@ -0,0 +1,347 @@
+package Capstone.CSmart.global.service.transfer;
+
+import Capstone.CSmart.global.domain.entity.Student;
+import Capstone.CSmart.global.domain.entity.Teacher;
+import Capstone.CSmart.global.repository.StudentRepository;
+import Capstone.CSmart.global.repository.TeacherRepository;
+import Capstone.CSmart.global.web.dto.Transfer.TransferJobDTO;
+import Capstone.CSmart.global.web.dto.Transfer.TransferToTeacherRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 학생 전환 작업 (비동기)
+ * - 요청은 즉시 작업 ID로 접수하고, 학생별 Gemini 정보 추출은 크기가 제한된 전용 스레드 풀에서 병렬 처리
+ * - 추출이 모두 끝나면 batch-size 단위로 Student를 한 번에 반영 (StudentTransferTransactionService)
+ * - 작업 상태는 Redis에 저장하여 어느 인스턴스에서든 조회 가능 (transfer_job:{jobId})
+ * - SSE 구독 시 진행 상황(progress)과 완료(done) 이벤트를 전달
+ *   (작업을 실행 중인 인스턴스가 아니면 현재 상태만 보내고 종료하므로 조회 API로 확인)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferJobService {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final String JOB_PREFIX = "transfer_job:";
+
+    private final StudentTransferService studentTransferService;
+    private final StudentTransferTransactionService studentTransferTransactionService;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 정보 추출 작업 스레드 수 (Gemini 동시 호출 수 상한)
+    @Value("${transfer.jobs.worker-threads:4}")
+    private int workerThreads;
+
+    // 대기 중인 학생별 추출 작업 최대 개수 (초과 시 접수 거부)
+    @Value("${transfer.jobs.queue-capacity:200}")
+    private int queueCapacity;
+
+    // Student 일괄 반영 단위
+    @Value("${transfer.jobs.batch-size:50}")
+    private int batchSize;
+
+    // 작업 상태 보관 기간
+    @Value("${transfer.jobs.job-ttl:1d}")
+    private Duration jobTtl;
+
+    // SSE 연결 유지 시간
+    @Value("${transfer.jobs.sse-timeout:5m}")
+    private Duration sseTimeout;
+
+    private ThreadPoolExecutor workers;
+
+    // 이 인스턴스에서 실행 중인 작업 (SSE 구독 대상)
+    private final Map<String, RunningJob> runningJobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("transfer-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * 전환 작업 접수 (학생 1명 또는 여러 명)
+     * 학생/선생님 존재 여부는 접수 시점에 한 번에 확인하고, 없는 경우 Gemini 호출 없이 실패로 기록한다.
+     *
+     * @return 접수된 작업 상태 (PENDING)
+     */
+    public TransferJobDTO submit(List<TransferToTeacherRequestDTO> transfers, Long adminId) {
+        // 같은 학생이 여러 번 들어오면 처음 요청만 사용
+        Map<Long, TransferToTeacherRequestDTO> byStudent = new LinkedHashMap<>();
+        transfers.forEach(transfer -> byStudent.putIfAbsent(transfer.getStudentId(), transfer));
+
+        if (workers.getQueue().remainingCapacity() < byStudent.size()) {
+            throw new RuntimeException("전환 작업 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        Set<Long> studentIds = studentRepository.findAllById(byStudent.keySet()).stream()
+                .map(Student::getStudentId)
+                .collect(Collectors.toSet());
+        Set<Long> teacherIds = teacherRepository.findAllById(
+                        byStudent.values().stream().map(TransferToTeacherRequestDTO::getTeacherId).distinct().toList())
+                .stream()
+                .map(Teacher::getTeacherId)
+                .collect(Collectors.toSet());
+
+        RunningJob job = new RunningJob(TransferJobDTO.builder()
+                .jobId(UUID.randomUUID().toString())
+                .status(STATUS_PENDING)
+                .requestedBy(adminId)
+                .totalCount(byStudent.size())
+                .extractedCount(0)
+                .succeededCount(0)
+                .failedCount(0)
+                .results(new ArrayList<>())
+                .failures(new ArrayList<>())
+                .createdAt(OffsetDateTime.now())
+                .build());
+
+        List<TransferToTeacherRequestDTO> valid = new ArrayList<>();
+        for (TransferToTeacherRequestDTO transfer : byStudent.values()) {
+            if (!studentIds.contains(transfer.getStudentId())) {
+                job.fail(transfer, "학생을 찾을 수 없습니다: " + transfer.getStudentId());
+            } else if (!teacherIds.contains(transfer.getTeacherId())) {
+                job.fail(transfer, "선생님을 찾을 수 없습니다: " + transfer.getTeacherId());
+            } else {
+                valid.add(transfer);
+            }
+        }
+
+        runningJobs.put(job.jobId, job);
+        job.persist();
+        log.info("학생 전환 작업 접수: jobId={}, adminId={}, 요청={}, 유효={}",
+                job.jobId, adminId, byStudent.size(), valid.size());
+
+        // 학생별 정보 추출을 병렬로 실행하고, 모두 끝나면 일괄 반영
+        List<CompletableFuture<Void>> extractions = valid.stream()
+                .map(transfer -> extractAsync(job, transfer))
+                .toList();
+        CompletableFuture.allOf(extractions.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> finish(job, valid));
+        return job.snapshot();
+    }
+
+    /**
+     * 작업 상태 조회 (실행 중이면 메모리, 아니면 Redis)
+     */
+    public TransferJobDTO getJob(String jobId) {
+        RunningJob running = runningJobs.get(jobId);
+        if (running != null) {
+            return running.snapshot();
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(JOB_PREFIX + jobId);
+            if (json == null) {
+                throw new RuntimeException("전환 작업을 찾을 수 없습니다: " + jobId);
+            }
+            return objectMapper.readValue(json, TransferJobDTO.class);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("전환 작업 조회 실패: " + jobId, e);
+        }
+    }
+
+    /**
+     * 작업 진행 상황 SSE 구독
+     * 현재 상태를 바로 보내고, 이 인스턴스에서 실행 중인 작업이면 progress/done 이벤트를 이어서 전달한다.
+     */
+    public SseEmitter subscribe(String jobId) {
+        TransferJobDTO current = getJob(jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        RunningJob running = runningJobs.get(jobId);
+
+        if (running == null || !running.addEmitter(emitter)) {
+            // 이미 끝났거나 다른 인스턴스에서 실행 중
+            send(emitter, isFinished(current) ? "done" : "progress", current);
+            emitter.complete();
+            return emitter;
+        }
+        emitter.onCompletion(() -> running.emitters.remove(emitter));
+        emitter.onTimeout(() -> running.emitters.remove(emitter));
+        emitter.onError(e -> running.emitters.remove(emitter));
+        send(emitter, "progress", running.snapshot());
+        return emitter;
+    }
+
+    private CompletableFuture<Void> extractAsync(RunningJob job, TransferToTeacherRequestDTO transfer) {
+        try {
+            return CompletableFuture.runAsync(() -> {
+                job.markRunning();
+                Map<String, Object> extractedInfo = studentTransferService.extractStudentInfo(transfer.getStudentId());
+                job.extracted(transfer.getStudentId(), extractedInfo);
+            }, workers);
+        } catch (RejectedExecutionException e) {
+            // 접수 시점 확인 이후 다른 요청으로 대기열이 찬 경우: 추출 없이 기존 정보로 전환
+            log.warn("전환 작업 대기열 초과, 정보 추출 생략: jobId={}, studentId={}", job.jobId, transfer.getStudentId());
+            job.extracted(transfer.getStudentId(), Map.of());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * 추출 완료 후 batch-size 단위로 Student 반영
+     */
+    private void finish(RunningJob job, List<TransferToTeacherRequestDTO> transfers) {
+        try {
+            for (int from = 0; from < transfers.size(); from += batchSize) {
+                List<TransferToTeacherRequestDTO> chunk = transfers.subList(from, Math.min(from + batchSize, transfers.size()));
+                try {
+                    job.applied(studentTransferTransactionService.applyTransfers(chunk, job.extractedInfo));
+                } catch (Exception e) {
+                    log.error("학생 전환 반영 실패: jobId={}, 학생 수={}", job.jobId, chunk.size(), e);
+                    chunk.forEach(transfer -> job.fail(transfer, "학생 전환 실패: " + e.getMessage()));
+                }
+            }
+        } finally {
+            job.complete();
+            runningJobs.remove(job.jobId);
+        }
+    }
+
+    private static boolean isFinished(TransferJobDTO job) {
+        return STATUS_COMPLETED.equals(job.getStatus()) || STATUS_FAILED.equals(job.getStatus());
+    }
+
+    private static boolean send(SseEmitter emitter, String name, TransferJobDTO data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            return true;
+        } catch (Exception e) {
+            log.debug("SSE 전송 실패: event={}, error={}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 실행 중인 작업 상태 (변경 시마다 Redis 저장 + SSE 전달)
+     */
+    private final class RunningJob {
+
+        private final String jobId;
+        private final TransferJobDTO state;
+        private final Map<Long, Map<String, Object>> extractedInfo = new ConcurrentHashMap<>();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private RunningJob(TransferJobDTO state) {
+            this.jobId = state.getJobId();
+            this.state = state;
+        }
+
+        synchronized void markRunning() {
+            if (STATUS_PENDING.equals(state.getStatus())) {
+                state.setStatus(STATUS_RUNNING);
+                publish("progress");
+            }
+        }
+
+        synchronized void extracted(Long studentId, Map<String, Object> info) {
+            extractedInfo.put(studentId, info);
+            state.setExtractedCount(state.getExtractedCount() + 1);
+            publish("progress");
+        }
+
+        synchronized void applied(List<StudentTransferTransactionService.TransferResult> results) {
+            for (StudentTransferTransactionService.TransferResult result : results) {
+                if (result.isSuccess()) {
+                    state.getResults().add(result.response());
+                    state.setSucceededCount(state.getSucceededCount() + 1);
+                } else {
+                    addFailure(result.studentId(), result.teacherId(), result.error());
+                }
+            }
+            publish("progress");
+        }
+
+        synchronized void fail(TransferToTeacherRequestDTO transfer, String reason) {
+            addFailure(transfer.getStudentId(), transfer.getTeacherId(), reason);
+        }
+
+        synchronized void complete() {
+            state.setStatus(state.getSucceededCount() == 0 && state.getTotalCount() > 0 ? STATUS_FAILED : STATUS_COMPLETED);
+            state.setFinishedAt(OffsetDateTime.now());
+            publish("done");
+            emitters.forEach(SseEmitter::complete);
+            log.info("학생 전환 작업 완료: jobId={}, status={}, 성공={}, 실패={}",
+                    jobId, state.getStatus(), state.getSucceededCount(), state.getFailedCount());
+        }
+
+        synchronized boolean addEmitter(SseEmitter emitter) {
+            if (isFinished(state)) {
+                return false;
+            }
+            emitters.add(emitter);
+            return true;
+        }
+
+        synchronized TransferJobDTO snapshot() {
+            return state.toBuilder()
+                    .results(new ArrayList<>(state.getResults()))
+                    .failures(new ArrayList<>(state.getFailures()))
+                    .build();
+        }
+
+        synchronized void persist() {
+            try {
+                redisTemplate.opsForValue().set(JOB_PREFIX + jobId, objectMapper.writeValueAsString(state), jobTtl);
+            } catch (Exception e) {
+                log.warn("전환 작업 상태 저장 실패: jobId={}, error={}", jobId, e.getMessage());
+            }
+        }
+
+        private void addFailure(Long studentId, Long teacherId, String reason) {
+            state.getFailures().add(TransferJobDTO.Failure.builder()
+                    .studentId(studentId)
+                    .teacherId(teacherId)
+                    .reason(reason)
+                    .build());
+            state.setFailedCount(state.getFailedCount() + 1);
+        }
+
+        private void publish(String event) {
+            persist();
+            TransferJobDTO snapshot = snapshot();
+            emitters.removeIf(emitter -> !send(emitter, event, snapshot));
+        }
+    }
+}
@@ -3,11 +3,18 @@ package Capstone.CSmart.global.web.controller;
 import Capstone.CSmart.global.apiPayload.ApiResponse;
 import Capstone.CSmart.global.apiPayload.code.status.SuccessStatus;
 import Capstone.CSmart.global.domain.entity.AiResponse;
+import Capstone.CSmart.global.domain.entity.AiResponseMessage;
 import Capstone.CSmart.global.domain.entity.Message;
+import Capstone.CSmart.global.repository.AiResponseMessageRepository;
 import Capstone.CSmart.global.repository.MessageRepository;
 import Capstone.CSmart.global.service.ai.AiResponseService;
+import Capstone.CSmart.global.service.ai.AiResponseTransactionService.ReviewDecision;
+import Capstone.CSmart.global.service.ai.AiResponseTransactionService.ReviewOutcome;
 import Capstone.CSmart.global.web.dto.AiResponse.AiResponseDTO;
+import Capstone.CSmart.global.web.dto.AiResponse.BulkReviewRequestDTO;
+import Capstone.CSmart.global.web.dto.AiResponse.BulkReviewResultDTO;
 import Capstone.CSmart.global.web.dto.AiResponse.EditResponseRequestDTO;
+import Capstone.CSmart.global.web.dto.AiResponse.PendingResponsePageDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,7 +22,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Tag(name = "AI 응답 관리 API", description = "AI 응답 검수 및 전송 관리")
@@ -27,8 +36,9 @@ public class AiResponseController {
 
     private final AiResponseService aiResponseService;
     private final MessageRepository messageRepository;
+    private final AiResponseMessageRepository aiResponseMessageRepository;
 
-    @Operation(summary = "검수 대기 응답 조회", description = "특정 선생님의 검수 대기 중인 AI 응답 목록 조회")
+    @Operation(summary = "검수 대기 응답 조회", description = "특정 선생님의 검수 대기 중인 AI 응답 목록 조회 (첫 페이지, 최대 max-page-size개)")
     @GetMapping("/pending")
     public ApiResponse<List<AiResponseDTO>> getPendingResponses(
             @RequestParam(required = false) Long teacherId) {
@@ -36,15 +46,10 @@ public class AiResponseController {
         log.info("Get pending responses request: teacherId={}", teacherId);
         
         try {
-            List<AiResponse> responses;
-            if (teacherId != null) {
-                responses = aiResponseService.getPendingResponsesForTeacher(teacherId);
-            } else {
-                // 모든 검수 대기 응답 조회 (선택사항)
-                responses = aiResponseService.getAllPendingResponses();
-            }
-            
-            List<AiResponseDTO> responseDTOs = responses.stream()
+            // teacherId가 없으면 모든 검수 대기 응답 조회
+            List<AiResponseDTO> responseDTOs = aiResponseService
+                    .getPendingReviewPage(teacherId, null, Integer.MAX_VALUE)
+                    .items().stream()
                     .map(this::convertToDTO)
                     .collect(Collectors.toList());
             
@@ -56,6 +61,46 @@ public class AiResponseController {
         }
     }
 
+    @Operation(summary = "검수 대기 응답 페이지 조회", description = "검수 대기 중인 AI 응답을 커서 기반으로 페이지 조회 (nextCursor를 cursor로 전달)")
+    @GetMapping("/pending/page")
+    public ApiResponse<PendingResponsePageDTO> getPendingResponsePage(
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        log.info("Get pending response page request: teacherId={}, cursor={}, limit={}", teacherId, cursor, limit);
+
+        try {
+            AiResponseService.ReviewQueuePage page = aiResponseService.getPendingReviewPage(teacherId, cursor, limit);
+            PendingResponsePageDTO pageDTO = PendingResponsePageDTO.builder()
+                    .items(page.items().stream()
+                            .map(this::convertToDTO)
+                            .collect(Collectors.toList()))
+                    .nextCursor(page.nextCursor())
+                    .hasNext(page.nextCursor() != null)
+                    .build();
+
+            return ApiResponse.onSuccess(SuccessStatus.AI_RESPONSE_OK, pageDTO);
+
+        } catch (Exception e) {
+            log.error("Failed to get pending response page", e);
+            return ApiResponse.onFailure("GET_PENDING_FAILED", e.getMessage(), null);
+        }
+    }
+
+    @Operation(summary = "검수 대기 건수 조회", description = "검수 대기 중인 AI 응답 수 (대시보드 폴링용)")
+    @GetMapping("/pending/count")
+    public ApiResponse<Long> getPendingCount(@RequestParam(required = false) Long teacherId) {
+
+        try {
+            return ApiResponse.onSuccess(SuccessStatus.AI_RESPONSE_OK, aiResponseService.countPendingResponses(teacherId));
+
+        } catch (Exception e) {
+            log.error("Failed to count pending responses: teacherId={}", teacherId, e);
+            return ApiResponse.onFailure("GET_PENDING_COUNT_FAILED", e.getMessage(), null);
+        }
+    }
+
     @Operation(summary = "응답 승인 및 전송", description = "AI 응답을 승인하고 카카오톡으로 전송")
     @PostMapping("/{responseId}/approve")
     public ApiResponse<String> approveResponse(@PathVariable Long responseId) {
@@ -72,6 +117,56 @@ public class AiResponseController {
         }
     }
 
+    @Operation(summary = "응답 재생성 요청", description = "AI 응답을 거부하고 같은 메시지에 대한 응답을 우선 처리로 다시 생성")
+    @PostMapping("/{responseId}/regenerate")
+    public ApiResponse<String> regenerateResponse(@PathVariable Long responseId) {
+        
+        log.info("Regenerate response request: responseId={}", responseId);
+        
+        try {
+            aiResponseService.requestRegeneration(responseId);
+            return ApiResponse.onSuccess(SuccessStatus.AI_RESPONSE_REGENERATION_REQUESTED, "Regeneration queued");
+            
+        } catch (Exception e) {
+            log.error("Failed to request regeneration: {}", responseId, e);
+            return ApiResponse.onFailure("REGENERATE_FAILED", e.getMessage(), null);
+        }
+    }
+
+    @Operation(summary = "응답 일괄 승인/수정 및 전송", description = "여러 AI 응답을 한 번에 승인하거나 수정하여 전송 (editedContent가 없으면 그대로 승인, 항목별 결과 반환)")
+    @PostMapping("/bulk-review")
+    public ApiResponse<BulkReviewResultDTO> bulkReview(@Valid @RequestBody BulkReviewRequestDTO request) {
+
+        log.info("Bulk review request: count={}", request.getItems().size());
+
+        try {
+            List<ReviewOutcome> outcomes = aiResponseService.bulkReview(request.getItems().stream()
+                    .map(item -> new ReviewDecision(item.getResponseId(), item.getEditedContent()))
+                    .collect(Collectors.toList()));
+
+            List<BulkReviewResultDTO.ItemResult> results = outcomes.stream()
+                    .map(outcome -> BulkReviewResultDTO.ItemResult.builder()
+                            .responseId(outcome.responseId())
+                            .success(outcome.isSuccess())
+                            .status(outcome.isSuccess() ? outcome.response().getStatus().toString() : null)
+                            .error(outcome.error())
+                            .build())
+                    .collect(Collectors.toList());
+            int succeeded = (int) outcomes.stream().filter(ReviewOutcome::isSuccess).count();
+
+            return ApiResponse.onSuccess(SuccessStatus.AI_RESPONSE_BULK_REVIEWED, BulkReviewResultDTO.builder()
+                    .requestedCount(outcomes.size())
+                    .succeededCount(succeeded)
+                    .failedCount(outcomes.size() - succeeded)
+                    .results(results)
+                    .build());
+
+        } catch (Exception e) {
+            log.error("Failed to bulk review responses", e);
+            return ApiResponse.onFailure("BULK_REVIEW_FAILED", e.getMessage(), null);
+        }
+    }
+
     @Operation(summary = "응답 수정 및 전송", description = "AI 응답을 수정하고 카카오톡으로 전송")
     @PostMapping("/{responseId}/edit")
     public ApiResponse<String> editResponse(
@@ -92,13 +187,23 @@ public class AiResponseController {
     }
 
     private AiResponseDTO convertToDTO(AiResponse aiResponse) {
-        // 학생의 마지막 메시지 조회
+        // 응답이 다루는 메시지 조회 (연결 정보가 없는 기존 응답은 대표 메시지만)
+        List<Long> coveredMessageIds = aiResponseMessageRepository
+                .findByResponseIdOrderByMessageIdAsc(aiResponse.getResponseId()).stream()
+                .map(AiResponseMessage::getMessageId)
+                .collect(Collectors.toList());
+        if (coveredMessageIds.isEmpty()) {
+            coveredMessageIds = List.of(aiResponse.getMessageId());
+        }
+
+        // 학생의 마지막 메시지 조회 (묶음 응답이면 묶인 메시지를 합쳐서 표시)
         String lastMessage = null;
         try {
-            Message message = messageRepository.findById(aiResponse.getMessageId()).orElse(null);
-            if (message != null) {
-                lastMessage = message.getContent();
-            }
+            lastMessage = messageRepository.findAllById(coveredMessageIds).stream()
+                    .sorted(Comparator.comparing(Message::getMessageId))
+                    .map(Message::getContent)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.joining("\n"));
         } catch (Exception e) {
             log.warn("Failed to fetch last message for messageId: {}", aiResponse.getMessageId(), e);
         }
@@ -112,6 +217,9 @@ public class AiResponseController {
                 .status(aiResponse.getStatus().toString())
                 .generatedAt(aiResponse.getGeneratedAt())
                 .lastMessage(lastMessage)
+                .coveredMessageIds(coveredMessageIds)
+                .generationSource(aiResponse.getGenerationSource() != null ? aiResponse.getGenerationSource().toString() : null)
+                .degraded(Boolean.TRUE.equals(aiResponse.getDegraded()))
                 .build();
     }
 }
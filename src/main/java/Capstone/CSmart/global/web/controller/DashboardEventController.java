@@ -0,0 +1,45 @@
+package Capstone.CSmart.global.web.controller;
+
+import Capstone.CSmart.global.service.realtime.DashboardEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Tag(name = "대시보드 실시간 이벤트 API", description = "새 AI 초안과 학생 메시지를 SSE로 전달 (폴링 대체)")
+@RestController
+@RequestMapping("/api/dashboard/events")
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardEventController {
+
+    private final DashboardEventService dashboardEventService;
+
+    @Operation(
+        summary = "선생님 대시보드 구독 (SSE)",
+        description = "담당 학생의 draft.created, draft.resolved, message.received 이벤트를 전달합니다. " +
+                      "재연결 시 Last-Event-ID 헤더(또는 lastEventId 파라미터) 이후 이벤트를 다시 보내며, " +
+                      "이어받을 수 없으면 resync 이벤트를 보내므로 목록을 다시 조회합니다."
+    )
+    @GetMapping(value = "/teachers/{teacherId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeTeacher(
+            @PathVariable Long teacherId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        return dashboardEventService.subscribeTeacher(teacherId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @Operation(
+        summary = "관리자 대시보드 구독 (SSE)",
+        description = "모든 학생의 draft.created, draft.resolved, message.received 이벤트를 전달합니다."
+    )
+    @GetMapping(value = "/admin", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeAdmin(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        return dashboardEventService.subscribeAdmin(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
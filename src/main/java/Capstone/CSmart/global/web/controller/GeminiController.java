@@ -10,10 +10,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Tag(name = "Gemini API", description = "초기 상담 정보 추출 (프론트엔드 전용)")
 @RestController
@@ -26,6 +29,8 @@ public class GeminiController {
     private final StudentRepository studentRepository;
     private final StudentInfoUpdateService studentInfoUpdateService;
 
+    private static final long CHAT_STREAM_TIMEOUT_MS = 60_000;
+
     @Operation(
         summary = "학생 정보 추출 (정식 서비스 가입용)", 
         description = "학생이 정식으로 서비스를 사용하기로 결정했을 때 호출합니다. " +
@@ -155,5 +160,49 @@ public class GeminiController {
             return ApiResponse.onFailure("SAVE_ERROR", e.getMessage(), null);
         }
     }
+
+    @Operation(
+        summary = "상담 응답 스트리밍",
+        description = "Gemini 상담 응답을 생성되는 대로 SSE로 전달합니다. " +
+                     "draft 이벤트는 지금까지 생성된 초안 전체, done 이벤트는 완성된 응답, error 이벤트는 실패 사유입니다."
+    )
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChatResponse(@RequestBody Map<String, String> request) {
+        String question = request.get("question");
+        SseEmitter emitter = new SseEmitter(CHAT_STREAM_TIMEOUT_MS);
+        if (question == null || question.isBlank()) {
+            sendEvent(emitter, "error", "question은 필수입니다.");
+            emitter.complete();
+            return emitter;
+        }
+
+        CompletableFuture<String> answer = geminiService.streamChatResponse(question, draft -> {
+            if (!sendEvent(emitter, "draft", draft)) {
+                throw new IllegalStateException("SSE client disconnected"); // 스트림 중단
+            }
+        });
+        answer.whenComplete((text, error) -> {
+            if (error == null) {
+                sendEvent(emitter, "done", text);
+            } else {
+                log.warn("Gemini 상담 응답 스트리밍 실패: {}", error.getMessage());
+                sendEvent(emitter, "error", "응답 생성에 실패했습니다. 잠시 후 다시 시도해주세요.");
+            }
+            emitter.complete();
+        });
+        emitter.onTimeout(() -> answer.cancel(true));
+        emitter.onError(e -> answer.cancel(true));
+        return emitter;
+    }
+
+    private boolean sendEvent(SseEmitter emitter, String name, String data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            return true;
+        } catch (Exception e) {
+            log.debug("SSE 전송 실패: event={}, error={}", name, e.getMessage());
+            return false;
+        }
+    }
 }
 
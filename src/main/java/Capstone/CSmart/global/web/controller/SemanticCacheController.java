@@ -10,6 +10,7 @@ import Capstone.CSmart.global.web.dto.cache.CacheStatsResponseDTO;
 import Capstone.CSmart.global.web.dto.cache.CacheWarmupRequestDTO;
 import Capstone.CSmart.global.web.dto.cache.UpdateCacheRequestDTO;
 import Capstone.CSmart.global.domain.entity.SemanticCache;
+import Capstone.CSmart.global.domain.enums.CacheNamespace;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -38,11 +39,14 @@ public class SemanticCacheController {
     @GetMapping("/stats")
     @Operation(
         summary = "캐시 통계 조회",
-        description = "시멘틱 캐시의 전체 통계 정보를 조회합니다."
+        description = "시멘틱 캐시의 통계 정보를 조회합니다. namespace(GEMINI, LANGGRAPH)를 지정하면 해당 구역만 집계합니다."
     )
-    public ApiResponse<CacheStatsResponseDTO> getCacheStats() {
+    public ApiResponse<CacheStatsResponseDTO> getCacheStats(
+        @Parameter(description = "캐시 구역 (GEMINI: Transfer 전, LANGGRAPH: Transfer 후, 생략 시 전체)")
+        @RequestParam(required = false) CacheNamespace namespace
+    ) {
         try {
-            SemanticCacheService.CacheStatistics stats = semanticCacheService.getCacheStatistics();
+            SemanticCacheService.CacheStatistics stats = semanticCacheService.getCacheStatistics(namespace);
             
             CacheStatsResponseDTO response = CacheStatsResponseDTO.builder()
                 .totalCacheCount(stats.totalCacheCount())
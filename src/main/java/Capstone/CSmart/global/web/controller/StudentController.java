@@ -11,6 +11,7 @@ import Capstone.CSmart.global.repository.MessageRepository;
 import Capstone.CSmart.global.repository.SemanticCacheRepository;
 import Capstone.CSmart.global.repository.StudentRepository;
 import Capstone.CSmart.global.repository.TeacherRepository;
+import Capstone.CSmart.global.service.ai.ReviewQueueStore;
 import Capstone.CSmart.global.web.dto.AiResponse.AiResponseDTO;
 import Capstone.CSmart.global.web.dto.Student.StudentDTO;
 import Capstone.CSmart.global.web.dto.Student.UpdateStudentRequestDTO;
@@ -40,6 +41,7 @@ public class StudentController {
     private final StudentRepository studentRepository;
     private final MessageRepository messageRepository;
     private final AiResponseRepository aiResponseRepository;
+    private final ReviewQueueStore reviewQueueStore;
     private final SemanticCacheRepository semanticCacheRepository;
     private final TeacherRepository teacherRepository;
     private final RedisTemplate<String, String> redisTemplate;
@@ -254,6 +256,7 @@ public class StudentController {
             // 3. AI 응답 삭제
             if (!aiResponses.isEmpty()) {
                 aiResponseRepository.deleteAll(aiResponses);
+                aiResponses.forEach(reviewQueueStore::remove);
                 log.info("Deleted {} AI responses for studentId={}", deletedAiResponses, id);
             }
             
@@ -4,6 +4,9 @@ import Capstone.CSmart.global.apiPayload.ApiResponse;
 import Capstone.CSmart.global.apiPayload.code.status.SuccessStatus;
 import Capstone.CSmart.global.security.handler.annotation.AuthUser;
 import Capstone.CSmart.global.service.transfer.StudentTransferService;
+import Capstone.CSmart.global.service.transfer.TransferJobService;
+import Capstone.CSmart.global.web.dto.Transfer.TransferBulkRequestDTO;
+import Capstone.CSmart.global.web.dto.Transfer.TransferJobDTO;
 import Capstone.CSmart.global.web.dto.Transfer.TransferToTeacherRequestDTO;
 import Capstone.CSmart.global.web.dto.Transfer.TransferToTeacherResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,7 +14,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 /**
  * 학생 전환 API
@@ -25,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 public class StudentTransferController {
 
     private final StudentTransferService studentTransferService;
+    private final TransferJobService transferJobService;
 
     /**
      * 학생을 선생님 채널로 전환
@@ -33,7 +41,7 @@ public class StudentTransferController {
      * 1. DB에서 학생의 대화 히스토리 조회
      * 2. Gemini API로 학생 정보 추출 (이름, 나이, 출신학교, 목표대학 등)
      * 3. Student 엔티티 업데이트 (추출된 정보 + 선생님 배정)
-     * 4. 모든 작업을 하나의 트랜잭션으로 처리
+     * 4. 정보 반영과 선생님 배정을 하나의 트랜잭션으로 처리 (Gemini 호출은 트랜잭션 밖)
      * 
      * @param adminId 요청한 Admin ID (JWT에서 추출)
      * @param request 전환 요청 정보 (studentId, teacherId)
@@ -43,7 +51,8 @@ public class StudentTransferController {
         summary = "학생을 선생님 채널로 전환",
         description = "Admin이 학생을 선생님 채널로 전환합니다. " +
                       "Gemini API로 대화 히스토리를 분석하여 학생 정보를 자동 추출하고, " +
-                      "선생님을 배정합니다. 모든 작업은 단일 트랜잭션으로 처리됩니다."
+                      "선생님을 배정합니다. 추출이 끝날 때까지 응답을 기다리므로 " +
+                      "여러 학생을 전환할 때는 /api/transfer/jobs 사용을 권장합니다."
     )
     @PostMapping("/to-teacher")
     public ApiResponse<TransferToTeacherResponseDTO> transferToTeacher(
@@ -65,4 +74,63 @@ public class StudentTransferController {
 
         return ApiResponse.onSuccess(SuccessStatus.CHATBOT_INFO_EXTRACTED, response);
     }
+
+    /**
+     * 학생 전환 작업 접수 (비동기)
+     * 즉시 작업 ID를 반환하고, 정보 추출과 전환은 작업 스레드 풀에서 처리
+     */
+    @Operation(
+        summary = "학생 전환 작업 접수 (비동기)",
+        description = "학생 1명을 선생님 채널로 전환하는 작업을 접수하고 작업 ID를 즉시 반환합니다. " +
+                      "진행 상황은 GET /api/transfer/jobs/{jobId} 또는 SSE(/events)로 확인합니다."
+    )
+    @PostMapping("/to-teacher/async")
+    public ApiResponse<TransferJobDTO> transferToTeacherAsync(
+            @AuthUser Long adminId,
+            @Valid @RequestBody TransferToTeacherRequestDTO request
+    ) {
+        log.info("학생 전환 작업 요청: adminId={}, studentId={}, teacherId={}",
+                 adminId, request.getStudentId(), request.getTeacherId());
+        TransferJobDTO job = transferJobService.submit(List.of(request), adminId);
+        return ApiResponse.onSuccess(SuccessStatus.TRANSFER_JOB_ACCEPTED, job);
+    }
+
+    /**
+     * 일괄 전환 작업 접수 (비동기)
+     * 학생별 정보 추출은 병렬로, Student 반영은 묶음 단위로 처리
+     */
+    @Operation(
+        summary = "일괄 학생 전환 작업 접수 (비동기)",
+        description = "여러 학생을 한 번에 선생님 채널로 전환하는 작업을 접수합니다. " +
+                      "학생별 Gemini 정보 추출은 병렬로 실행되고, 학생 정보는 묶음 단위로 한 번에 저장됩니다. " +
+                      "학생/선생님이 없는 요청은 해당 학생만 실패로 기록됩니다."
+    )
+    @PostMapping("/jobs")
+    public ApiResponse<TransferJobDTO> submitTransferJob(
+            @AuthUser Long adminId,
+            @Valid @RequestBody TransferBulkRequestDTO request
+    ) {
+        log.info("일괄 학생 전환 작업 요청: adminId={}, 학생 수={}", adminId, request.getTransfers().size());
+        TransferJobDTO job = transferJobService.submit(request.getTransfers(), adminId);
+        return ApiResponse.onSuccess(SuccessStatus.TRANSFER_JOB_ACCEPTED, job);
+    }
+
+    @Operation(
+        summary = "학생 전환 작업 상태 조회",
+        description = "작업 상태(PENDING/RUNNING/COMPLETED/FAILED), 진행 수, 학생별 결과와 실패 사유를 조회합니다."
+    )
+    @GetMapping("/jobs/{jobId}")
+    public ApiResponse<TransferJobDTO> getTransferJob(@PathVariable String jobId) {
+        return ApiResponse.onSuccess(SuccessStatus.TRANSFER_JOB_OK, transferJobService.getJob(jobId));
+    }
+
+    @Operation(
+        summary = "학생 전환 작업 진행 상황 구독 (SSE)",
+        description = "progress 이벤트로 진행 상황을, done 이벤트로 최종 결과를 전달합니다. " +
+                      "다른 서버에서 실행 중인 작업은 현재 상태만 전달하고 연결을 종료하므로 조회 API로 확인합니다."
+    )
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeTransferJob(@PathVariable String jobId) {
+        return transferJobService.subscribe(jobId);
+    }
 }
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -20,7 +21,10 @@ public class AiResponseDTO {
     private String recommendedResponse;
     private String status;
     private OffsetDateTime generatedAt;
-    private String lastMessage; // 학생의 마지막 메시지
+    private String lastMessage; // 학생의 마지막 메시지 (묶음 응답이면 묶인 메시지 전체)
+    private List<Long> coveredMessageIds; // 응답이 다루는 메시지 ID 목록 (보낸 순서)
+    private String generationSource; // 응답 생성 경로 (LANGGRAPH, SEMANTIC_CACHE, GEMINI, RELAXED_CACHE, GEMINI_FALLBACK)
+    private boolean degraded; // LangGraph 장애로 대체 경로에서 생성된 초안 (검수 시 주의)
 }
 
 
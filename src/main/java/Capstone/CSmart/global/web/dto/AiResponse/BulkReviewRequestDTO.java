@@ -0,0 +1,36 @@
+package Capstone.CSmart.global.web.dto.AiResponse;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReviewRequestDTO {
+
+    @NotEmpty
+    @Size(max = 500)
+    @Valid
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotNull
+        private Long responseId;
+
+        private String editedContent; // 수정한 답변 (없으면 추천 답변 그대로 승인)
+    }
+}
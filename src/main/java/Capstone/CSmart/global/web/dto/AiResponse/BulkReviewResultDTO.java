@@ -0,0 +1,32 @@
+package Capstone.CSmart.global.web.dto.AiResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReviewResultDTO {
+
+    private int requestedCount;
+    private int succeededCount;
+    private int failedCount;
+    private List<ItemResult> results; // 요청 순서대로의 항목별 결과
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+
+        private Long responseId;
+        private boolean success;
+        private String status; // 처리 후 상태 (실패 시 null)
+        private String error; // 실패 사유
+    }
+}
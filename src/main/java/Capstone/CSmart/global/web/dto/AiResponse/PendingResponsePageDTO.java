@@ -0,0 +1,19 @@
+package Capstone.CSmart.global.web.dto.AiResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingResponsePageDTO {
+
+    private List<AiResponseDTO> items; // 메시지별 가장 최근 검수 대기 응답 (최신순)
+    private String nextCursor; // 다음 페이지 요청 시 cursor로 전달 (마지막 페이지면 null)
+    private boolean hasNext;
+}
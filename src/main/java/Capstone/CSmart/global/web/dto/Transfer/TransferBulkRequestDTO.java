@@ -0,0 +1,25 @@
+package Capstone.CSmart.global.web.dto.Transfer;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 일괄 전환 요청 DTO
+ * 여러 학생을 한 번에 선생님 채널로 전환 (학생별 정보 추출은 병렬로 처리)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferBulkRequestDTO {
+
+    @NotEmpty(message = "전환할 학생 목록은 필수입니다.")
+    @Valid
+    private List<TransferToTeacherRequestDTO> transfers;
+}
@@ -0,0 +1,78 @@
+package Capstone.CSmart.global.web.dto.Transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * 학생 전환 작업 상태 DTO
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferJobDTO {
+
+    /**
+     * 작업 ID
+     */
+    private String jobId;
+
+    /**
+     * 작업 상태 (PENDING / RUNNING / COMPLETED / FAILED)
+     */
+    private String status;
+
+    /**
+     * 요청한 Admin ID
+     */
+    private Long requestedBy;
+
+    /**
+     * 전환 요청 학생 수
+     */
+    private Integer totalCount;
+
+    /**
+     * 정보 추출이 끝난 학생 수
+     */
+    private Integer extractedCount;
+
+    /**
+     * 전환 성공 학생 수
+     */
+    private Integer succeededCount;
+
+    /**
+     * 전환 실패 학생 수
+     */
+    private Integer failedCount;
+
+    /**
+     * 학생별 전환 결과 (성공)
+     */
+    private List<TransferToTeacherResponseDTO> results;
+
+    /**
+     * 학생별 실패 사유
+     */
+    private List<Failure> failures;
+
+    private OffsetDateTime createdAt;
+
+    private OffsetDateTime finishedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+        private Long studentId;
+        private Long teacherId;
+        private String reason;
+    }
+}
@@ -0,0 +1,82 @@
+package Capstone.CSmart.global.service.ai;
+
+import Capstone.CSmart.global.service.ai.AiGenerationQueue.Kind;
+import Capstone.CSmart.global.service.ai.AiGenerationQueue.WorkItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiGenerationQueueTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2026-10-19T10:00:00+09:00");
+
+    private AiGenerationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new AiGenerationQueue(null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(queue, "agingPerMinute", 10.0);
+    }
+
+    @Test
+    @DisplayName("대기 시간이 같으면 기본 점수 순 (재생성 > 선생님 배정 > 일반 > 단답)")
+    void ordersByBaseScoreWhenEquallyOld() {
+        WorkItem lowValue = item(1L, 1L, 0, Kind.LOW_VALUE);
+        WorkItem normal = item(2L, 2L, 0, Kind.DEFAULT);
+        WorkItem transferred = item(3L, 3L, 0, Kind.TRANSFERRED);
+        WorkItem regeneration = item(4L, 4L, 0, Kind.REGENERATION);
+
+        List<WorkItem> ordered = queue.order(List.of(lowValue, normal, transferred, regeneration), NOW);
+
+        assertThat(ordered).containsExactly(regeneration, transferred, normal, lowValue);
+    }
+
+    @Test
+    @DisplayName("오래 기다린 낮은 우선순위 작업은 에이징으로 새 높은 우선순위 작업을 앞지름")
+    void agingLetsOldLowPriorityWorkOvertake() {
+        // 일반 100 + 25분 × 10 = 350 > 재생성 300
+        WorkItem oldNormal = item(1L, 1L, 25, Kind.DEFAULT);
+        WorkItem freshRegeneration = item(2L, 2L, 0, Kind.REGENERATION);
+        // 단답 50 + 4분 × 10 = 90 < 일반 100
+        WorkItem recentLowValue = item(3L, 3L, 4, Kind.LOW_VALUE);
+        WorkItem freshNormal = item(4L, 4L, 0, Kind.DEFAULT);
+
+        List<WorkItem> ordered = queue.order(List.of(freshRegeneration, recentLowValue, freshNormal, oldNormal), NOW);
+
+        assertThat(ordered).containsExactly(oldNormal, freshRegeneration, freshNormal, recentLowValue);
+        assertThat(queue.priority(oldNormal, NOW)).isEqualTo(350.0);
+    }
+
+    @Test
+    @DisplayName("같은 학생의 작업은 점수와 관계없이 보낸 순서를 유지하고, 학생은 최고 점수로 정렬")
+    void keepsPerStudentOrder() {
+        // 학생 1: 먼저 보낸 단답 + 나중 메시지의 재생성 요청 (학생 점수 = 300)
+        WorkItem firstLowValue = item(10L, 1L, 0, Kind.LOW_VALUE);
+        WorkItem laterRegeneration = item(20L, 1L, 0, Kind.REGENERATION);
+        // 학생 2: 선생님 배정 (200)
+        WorkItem otherStudent = item(15L, 2L, 0, Kind.TRANSFERRED);
+
+        List<WorkItem> ordered = queue.order(List.of(laterRegeneration, otherStudent, firstLowValue), NOW);
+
+        assertThat(ordered).containsExactly(firstLowValue, laterRegeneration, otherStudent);
+    }
+
+    @Test
+    @DisplayName("대기 시작이 현재보다 늦어도 점수가 기본 점수 아래로 내려가지 않음")
+    void futureEnqueueTimeDoesNotReduceScore() {
+        WorkItem future = new WorkItem(List.of(1L), 1L, NOW.plusMinutes(5), Kind.DEFAULT);
+
+        assertThat(queue.priority(future, NOW)).isEqualTo(100.0);
+    }
+
+    private static WorkItem item(Long messageId, Long studentId, int waitingMinutes, Kind kind) {
+        return new WorkItem(List.of(messageId), studentId, NOW.minusMinutes(waitingMinutes), kind);
+    }
+}
@@ -0,0 +1,134 @@
+package Capstone.CSmart.global.service.ai;
+
+import Capstone.CSmart.global.domain.entity.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AiScheduler.groupIntoBursts: 같은 학생의 연속 메시지 묶기 (debounce 20초, 최대 3개, 최대 대기 2분)
+ */
+@ExtendWith(MockitoExtension.class)
+class AiSchedulerBurstTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2026-10-19T10:00:00+09:00");
+
+    @InjectMocks
+    private AiScheduler aiScheduler;
+
+    private final List<List<Message>> deferred = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(aiScheduler, "debounceWindow", Duration.ofSeconds(20));
+        ReflectionTestUtils.setField(aiScheduler, "maxMessagesPerBurst", 3);
+        ReflectionTestUtils.setField(aiScheduler, "maxWait", Duration.ofMinutes(2));
+    }
+
+    @Test
+    @DisplayName("간격이 debounce-window 이내인 메시지만 같은 묶음")
+    void splitsOnDebounceGap() {
+        Message first = message(1L, 1L, -600);
+        Message second = message(2L, 1L, -590);  // 10초 뒤: 같은 묶음
+        Message third = message(3L, 1L, -540);   // 50초 뒤: 새 묶음
+
+        List<List<Message>> bursts = aiScheduler.groupIntoBursts(List.of(first, second, third), NOW, deferred);
+
+        assertThat(bursts).containsExactly(List.of(first, second), List.of(third));
+        assertThat(deferred).isEmpty();
+    }
+
+    @Test
+    @DisplayName("간격이 정확히 debounce-window면 같은 묶음")
+    void joinsAtExactDebounceWindow() {
+        Message first = message(1L, 1L, -600);
+        Message second = message(2L, 1L, -580);
+
+        List<List<Message>> bursts = aiScheduler.groupIntoBursts(List.of(first, second), NOW, deferred);
+
+        assertThat(bursts).containsExactly(List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("묶음이 최대 개수에 도달하면 간격과 관계없이 새 묶음")
+    void splitsAtMaxSize() {
+        List<Message> messages = List.of(
+                message(1L, 1L, -600), message(2L, 1L, -595), message(3L, 1L, -590), message(4L, 1L, -585));
+
+        List<List<Message>> bursts = aiScheduler.groupIntoBursts(messages, NOW, deferred);
+
+        assertThat(bursts).containsExactly(messages.subList(0, 3), messages.subList(3, 4));
+    }
+
+    @Test
+    @DisplayName("마지막 메시지가 debounce-window 안이면 입력 중으로 보고 다음 실행으로 미룸")
+    void defersOpenBurst() {
+        Message older = message(1L, 1L, -600);
+        Message typing = message(2L, 1L, -5);
+
+        List<List<Message>> bursts = aiScheduler.groupIntoBursts(List.of(older, typing), NOW, deferred);
+
+        assertThat(bursts).containsExactly(List.of(older));
+        assertThat(deferred).containsExactly(List.of(typing));
+    }
+
+    @Test
+    @DisplayName("최대 개수를 채운 묶음은 방금 보낸 메시지여도 미루지 않음")
+    void doesNotDeferFullBurst() {
+        List<Message> messages = List.of(message(1L, 1L, -10), message(2L, 1L, -8), message(3L, 1L, -6));
+
+        List<List<Message>> bursts = aiScheduler.groupIntoBursts(messages, NOW, deferred);
+
+        assertThat(bursts).containsExactly(messages);
+        assertThat(deferred).isEmpty();
+    }
+
+    @Test
+    @DisplayName("계속 입력 중이어도 첫 메시지가 max-wait보다 오래되면 바로 처리")
+    void stopsWaitingAfterMaxWait() {
+        ReflectionTestUtils.setField(aiScheduler, "maxMessagesPerBurst", 10);
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            messages.add(message((long) i + 1, 1L, -130 + i * 15)); // 130초 전부터 15초 간격, 마지막은 10초 전
+        }
+
+        List<List<Message>> bursts = aiScheduler.groupIntoBursts(messages, NOW, deferred);
+
+        assertThat(bursts).containsExactly(messages);
+        assertThat(deferred).isEmpty();
+    }
+
+    @Test
+    @DisplayName("학생마다 따로 묶음")
+    void groupsPerStudent() {
+        Message studentOne = message(1L, 1L, -600);
+        Message studentTwo = message(2L, 2L, -598);
+        Message studentOneAgain = message(3L, 1L, -596);
+
+        List<List<Message>> bursts = aiScheduler.groupIntoBursts(
+                List.of(studentOne, studentTwo, studentOneAgain), NOW, deferred);
+
+        assertThat(bursts).containsExactly(List.of(studentOne, studentOneAgain), List.of(studentTwo));
+    }
+
+    private static Message message(Long messageId, Long studentId, int secondsFromNow) {
+        return Message.builder()
+                .messageId(messageId)
+                .studentId(studentId)
+                .content("질문 " + messageId)
+                .senderType("student")
+                .sentAt(NOW.plusSeconds(secondsFromNow))
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package Capstone.CSmart.global.service.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 지연 주입 스텁 서버로 헤지 요청의 꼬리 지연 단축 확인
+ * 스텁은 첫 요청만 SLOW_RESPONSE만큼 늦게 응답하고(꼬리 지연), 이후 요청은 바로 응답한다.
+ */
+class RequestHedgerTest {
+
+    private static final Duration SLOW_RESPONSE = Duration.ofSeconds(2);
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(100);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private URI uri;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/embed", exchange -> {
+            int index = requests.incrementAndGet();
+            try {
+                if (index == 1) {
+                    Thread.sleep(SLOW_RESPONSE.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("response-" + index).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // 느린 요청이 다음 요청을 막지 않도록 요청마다 스레드 사용
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/embed");
+    }
+
+    @AfterEach
+    void stopStub() throws Exception {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        serverExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("첫 요청이 늦으면 지연 기준 후 보낸 헤지 요청의 응답을 사용")
+    void hedgeCutsTailLatency() throws Exception {
+        RequestHedger hedger = hedger(1.0);
+
+        long start = System.nanoTime();
+        String body = hedger.execute(call()).get(5, TimeUnit.SECONDS);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(body).isEqualTo("response-2");
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(elapsed).isGreaterThanOrEqualTo(HEDGE_DELAY).isLessThan(SLOW_RESPONSE.dividedBy(2));
+    }
+
+    @Test
+    @DisplayName("예산이 없으면 헤지하지 않고 느린 응답을 기다림")
+    void noHedgeWithoutBudget() throws Exception {
+        RequestHedger hedger = hedger(0.0);
+
+        long start = System.nanoTime();
+        String body = hedger.execute(call()).get(5, TimeUnit.SECONDS);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(body).isEqualTo("response-1");
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(elapsed).isGreaterThanOrEqualTo(SLOW_RESPONSE);
+    }
+
+    @Test
+    @DisplayName("첫 요청이 지연 기준 안에 끝나면 헤지 요청을 보내지 않음")
+    void noHedgeWhenPrimaryIsFast() throws Exception {
+        requests.set(1); // 첫 요청부터 빠르게 응답
+        RequestHedger hedger = hedger(1.0);
+
+        String body = hedger.execute(call()).get(5, TimeUnit.SECONDS);
+        Thread.sleep(HEDGE_DELAY.multipliedBy(3).toMillis());
+
+        assertThat(body).isEqualTo("response-2");
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    private RequestHedger hedger(double budgetRatio) {
+        // 표본이 적을 때는 maxDelay를 지연 기준으로 사용
+        return new RequestHedger("test", 0.95, HEDGE_DELAY, HEDGE_DELAY, budgetRatio, 100, new SimpleMeterRegistry());
+    }
+
+    private Supplier<CompletableFuture<String>> call() {
+        return () -> httpClient.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString())
+                .thenApply(HttpResponse::body);
+    }
+}
@@ -0,0 +1,51 @@
+package Capstone.CSmart.global.service.ingest;
+
+import Capstone.CSmart.global.domain.enums.MessageKind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageClassifierTest {
+
+    private final MessageClassifier classifier = new MessageClassifier();
+
+    @Test
+    @DisplayName("짧은 질문은 일반 메시지")
+    void shortQuestionIsQuestion() {
+        assertThat(classifier.classify("중앙대 편입 일정 알려주세요")).isEqualTo(MessageKind.QUESTION);
+    }
+
+    @Test
+    @DisplayName("내용이 없으면 일반 메시지")
+    void nullContentIsQuestion() {
+        assertThat(classifier.classify(null)).isEqualTo(MessageKind.QUESTION);
+    }
+
+    @Test
+    @DisplayName("200자를 넘으면 상담폼")
+    void longContentIsForm() {
+        assertThat(classifier.classify("가".repeat(200))).isEqualTo(MessageKind.QUESTION);
+        assertThat(classifier.classify("가".repeat(201))).isEqualTo(MessageKind.CONSULTATION_FORM);
+    }
+
+    @Test
+    @DisplayName("5줄을 넘으면 상담폼")
+    void manyLinesIsForm() {
+        assertThat(classifier.classify("a\nb\nc\nd\ne")).isEqualTo(MessageKind.QUESTION);
+        assertThat(classifier.classify("이름\n학교\n학과\n학점\n희망 대학\n연락처")).isEqualTo(MessageKind.CONSULTATION_FORM);
+    }
+
+    @Test
+    @DisplayName("1. 2. 3. 번호 목록이 있으면 상담폼")
+    void numberedListIsForm() {
+        assertThat(classifier.classify("1. 이름: 홍길동 2. 학교: 한국대 3. 희망: 중앙대"))
+                .isEqualTo(MessageKind.CONSULTATION_FORM);
+    }
+
+    @Test
+    @DisplayName("번호가 두 개뿐이면 일반 메시지")
+    void twoNumbersIsQuestion() {
+        assertThat(classifier.classify("1. 편입 일정 2. 모집 인원 궁금해요")).isEqualTo(MessageKind.QUESTION);
+    }
+}